@@ -82,14 +82,44 @@ tasks.compileTestJava {
     options.release.set(17)
 }
 
+// Optional Vector API structural indexer for CSV parsing, shipped as the "vector" classifier jar
+// so that the main artifact stays on plain Java 17 without incubator modules
+val vector: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+    options.encoding = "UTF-8"
+    options.release.set(17)
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+val vectorJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("vector")
+    from(vector.output)
+}
+
+tasks.assemble {
+    dependsOn(vectorJar)
+}
+
 // Configure resources (exclude config.properties like Maven)
 tasks.processResources {
     exclude("config.properties")
 }
 
 // Configure test task (matching Maven surefire configuration)
+// 测试时加载可选的 Vector API 索引器，使其与逐字节扫描的结果得到比对
+sourceSets.test {
+    runtimeClasspath += vector.output
+}
+
 tasks.test {
-    useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+    useJUnitPlatform {
+        // 基准测试耗时较长，只在需要时单独运行
+        excludeTags("benchmark")
+    }
     include("io/github/sinri/keel/integration/poi/**/*Test.class")
 }
 
@@ -113,6 +143,7 @@ publishing {
     publications {
         create<MavenPublication>("mavenJava") {
             from(components["java"])
+            artifact(vectorJar)
 
             pom {
                 name.set(projectName)
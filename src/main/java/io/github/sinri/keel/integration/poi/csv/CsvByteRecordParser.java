@@ -0,0 +1,309 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.integration.poi.csv.spi.CsvStructuralIndexer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * 基于字节缓冲区的 CSV 记录解析器。
+ * <p>
+ * 对于 UTF-8、US-ASCII 与 ISO-8859-1，引号、分隔符与换行都是单字节，且不会出现在多字节字符内部，
+ * 因此可以直接在原始字节上识别记录结构，完全跳过 {@link java.nio.charset.CharsetDecoder}；
+ * 单元格内容以原始字节存入字节模式的 {@link CsvRecordBuffer}，只有被读取的单元格才会解码。
+ * <p>
+ * 解析规则与 {@link CsvCharRecordParser} 完全一致。无法解码的字节在读取单元格时替换为替换字符，
+ * 与 {@code InputStreamReader} 的默认行为一致。
+ * <p>
+ * 如果能通过 {@link ServiceLoader} 加载到可用的 {@link CsvStructuralIndexer}（例如基于 Vector API 的可选实现），
+ * 解析器按 64 字节一块获取结构字节位图，直接跳到下一个结构字节；否则逐字节扫描。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvByteRecordParser implements CsvRecordParser {
+    private static final Set<Charset> SUPPORTED_CHARSETS = Set.of(
+            StandardCharsets.UTF_8,
+            StandardCharsets.US_ASCII,
+            StandardCharsets.ISO_8859_1
+    );
+
+    private static final int STATE_PLAIN = 0;
+    private static final int STATE_QUOTED = 1;
+    private static final int STATE_QUOTE_PENDING = 2;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final @Nullable CsvStructuralIndexer DEFAULT_INDEXER = loadIndexer();
+
+    private final InputStream inputStream;
+    private final Charset charset;
+    /**
+     * 单字节的 ASCII 分隔符。
+     */
+    private final byte separator;
+    private final @Nullable CsvStructuralIndexer indexer;
+    private final byte[] buffer;
+    /**
+     * 最近一次索引得到的位图，覆盖 {@code buffer[maskBase, maskEnd)}。
+     */
+    private long mask = 0;
+    private int maskBase = 0;
+    private int maskEnd = 0;
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfInput = false;
+    /**
+     * 上一个行结束符是位于缓冲区末尾的 {@code \r}，需要跳过紧随其后的 {@code \n}。
+     */
+    private boolean skipLineFeed = false;
+    private int maxCellLength = Integer.MAX_VALUE;
+    /**
+     * 单元格超长时解析停在记录中间，之后的每次解析都抛出同一异常，以免从单元格中间继续产生错位的记录。
+     */
+    private @Nullable IOException failure = null;
+
+    CsvByteRecordParser(InputStream inputStream, Charset charset, String separator) {
+        this(inputStream, charset, separator, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvByteRecordParser(InputStream inputStream, Charset charset, String separator, int bufferSize) {
+        this(inputStream, charset, separator, bufferSize, DEFAULT_INDEXER);
+    }
+
+    CsvByteRecordParser(InputStream inputStream, Charset charset, String separator, int bufferSize, @Nullable CsvStructuralIndexer indexer) {
+        if (!supports(charset, separator)) {
+            throw new IllegalArgumentException("Byte-level parsing does not support charset " + charset.name() + " with separator " + separator);
+        }
+        this.inputStream = inputStream;
+        this.charset = charset;
+        this.separator = (byte) separator.charAt(0);
+        this.indexer = indexer;
+        this.buffer = new byte[bufferSize];
+    }
+
+    private static @Nullable CsvStructuralIndexer loadIndexer() {
+        try {
+            for (CsvStructuralIndexer candidate : ServiceLoader.load(CsvStructuralIndexer.class)) {
+                if (candidate.isAvailable()) {
+                    return candidate;
+                }
+            }
+        } catch (ServiceConfigurationError | LinkageError e) {
+            // 可选实现缺少运行时依赖（例如未启用 jdk.incubator.vector）时退回逐字节扫描
+        }
+        return null;
+    }
+
+    /**
+     * 判断指定的字符集与分隔符能否按字节解析。
+     *
+     * @param charset   数据源的字符集
+     * @param separator 分隔符
+     * @return 字符集为 UTF-8、US-ASCII 或 ISO-8859-1，且分隔符是单个 ASCII 字符时返回 true
+     */
+    static boolean supports(Charset charset, String separator) {
+        return SUPPORTED_CHARSETS.contains(charset)
+                && separator.length() == 1 && separator.charAt(0) < 0x80;
+    }
+
+    @Override
+    public CsvRecordBuffer newRecordBuffer() {
+        return new CsvRecordBuffer(charset);
+    }
+
+    /**
+     * 设置单个单元格允许的最大长度。
+     * <p>
+     * 按字节解析时以单元格的编码字节数计，不小于其字符数，因此限制只会更早触发。
+     *
+     * @param maxCellLength 单个单元格允许的最大字节数
+     */
+    @Override
+    public void setMaxCellLength(int maxCellLength) {
+        if (maxCellLength <= 0) {
+            throw new IllegalArgumentException("maxCellLength must be positive");
+        }
+        this.maxCellLength = maxCellLength;
+    }
+
+    @Override
+    public boolean parseNext(CsvRecordBuffer record) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (!ensureData()) {
+            return false;
+        }
+        record.reset();
+
+        int state = STATE_PLAIN;
+        // 引号内遇到的换行只有在其后还有内容时才写入，以与逐行读取的行为一致
+        boolean pendingLineBreak = false;
+
+        while (true) {
+            final byte[] buf = this.buffer;
+            final int lim = this.limit;
+            int p = this.position;
+            int runStart = p;
+
+            while ((p = nextStructural(buf, p, lim)) < lim) {
+                byte b = buf[p];
+
+                if (pendingLineBreak) {
+                    record.append((byte) '\n');
+                    pendingLineBreak = false;
+                }
+                record.append(buf, runStart, p - runStart);
+                p++;
+
+                if (b == '"') {
+                    if (state == STATE_PLAIN) {
+                        state = STATE_QUOTED;
+                    } else if (state == STATE_QUOTED) {
+                        state = STATE_QUOTE_PENDING;
+                    } else {
+                        record.append((byte) '"');
+                        state = STATE_QUOTED;
+                    }
+                } else if (b == separator) {
+                    if (state == STATE_QUOTED) {
+                        record.append(b);
+                    } else {
+                        endCell(record);
+                        state = STATE_PLAIN;
+                    }
+                } else {
+                    if (b == '\r') {
+                        if (p < lim) {
+                            if (buf[p] == '\n') p++;
+                        } else {
+                            skipLineFeed = true;
+                        }
+                    }
+                    if (state == STATE_QUOTED) {
+                        checkCellLength(record);
+                        pendingLineBreak = true;
+                    } else {
+                        endCell(record);
+                        this.position = p;
+                        return true;
+                    }
+                }
+                runStart = p;
+            }
+
+            if (p > runStart) {
+                if (pendingLineBreak) {
+                    record.append((byte) '\n');
+                    pendingLineBreak = false;
+                }
+                record.append(buf, runStart, p - runStart);
+                checkCellLength(record);
+            }
+            this.position = p;
+
+            if (!ensureData()) {
+                // 数据源结束：当前记录到此为止（包括未闭合引号的情况）
+                endCell(record);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 从指定位置开始寻找下一个结构字节。
+     *
+     * @return 下一个结构字节的位置；不存在时返回 {@code lim}
+     */
+    private int nextStructural(byte[] buf, int p, int lim) {
+        var idx = this.indexer;
+        if (idx != null) {
+            while (p < maskEnd || lim - p >= CsvStructuralIndexer.BLOCK_SIZE) {
+                if (p >= maskEnd) {
+                    mask = idx.structuralMask(buf, p, separator);
+                    maskBase = p;
+                    maskEnd = p + CsvStructuralIndexer.BLOCK_SIZE;
+                }
+                long m = mask & (-1L << (p - maskBase));
+                if (m != 0) {
+                    return maskBase + Long.numberOfTrailingZeros(m);
+                }
+                p = maskEnd;
+            }
+        }
+        for (; p < lim; p++) {
+            byte b = buf[p];
+            // 所有结构字节都是 ASCII，非 ASCII 字节（负值）必然是普通内容
+            if (b >= 0 && (b == '"' || b == separator || b == '\n' || b == '\r')) {
+                return p;
+            }
+        }
+        return lim;
+    }
+
+    private void endCell(CsvRecordBuffer record) throws IOException {
+        checkCellLength(record);
+        record.endCell();
+    }
+
+    private void checkCellLength(CsvRecordBuffer record) throws IOException {
+        if (record.currentCellLength() > maxCellLength) {
+            failure = new IOException("CSV cell exceeds the maximum length of " + maxCellLength + " bytes");
+            throw failure;
+        }
+    }
+
+    /**
+     * 确保缓冲区中至少有一个待处理的字节，并处理跨缓冲区的 {@code \r\n}。
+     *
+     * @return 如果还有数据则返回 true，否则返回 false
+     */
+    private boolean ensureData() throws IOException {
+        while (true) {
+            if (position >= limit && !fill()) {
+                return false;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            return true;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        int n;
+        do {
+            n = inputStream.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            endOfInput = true;
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = n;
+        maskBase = 0;
+        maskEnd = 0;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -11,6 +11,9 @@ import java.math.BigDecimal;
  * CSV 单元格类，表示 CSV 文件中的一个单元格。
  * <p>
  * 数字解析在请求时才执行，而不是预先计算。
+ * 判断是否为数字由 {@link CsvNumberScanner} 逐字符扫描完成，不构造 {@link BigDecimal}，也不依赖异常；
+ * {@link #getLong()}、{@link #getInt()} 与 {@link #getDouble()} 直接从字符解析，
+ * 仅在超出 long 或 double 精确范围时才回退到较慢的路径。
  *
  * @since 5.0.0
  */
@@ -18,6 +21,10 @@ import java.math.BigDecimal;
 public class CsvCell {
     private final @Nullable String string;
     private final ValueBox<BigDecimal> bigDecimalValueBox = new ValueBox<>();
+    /**
+     * 缓存的数字类型，尚未扫描时为 -1。
+     */
+    private int numberType = -1;
 
     /**
      * 构造函数，使用指定的字符串值创建 CSV 单元格。
@@ -37,10 +44,10 @@ public class CsvCell {
      * <br>
      * 首先，如果此单元格为 null，则返回 false。
      * <br>
-     * 其次，如果没有缓存结果，则尝试将非空值解析为数字并存储在 {@link #bigDecimalValueBox} 中。
-     * 如果已缓存，则跳过此步骤。
+     * 其次，如果没有缓存结果，则扫描一次单元格内容，判断其数字类型并缓存；此过程不构造 {@link BigDecimal}。
+     * 只有内容含有非 ASCII 字符（例如全角数字）时，才会尝试解析为 {@link BigDecimal} 并存储在 {@link #bigDecimalValueBox} 中。
      * <br>
-     * 最后，如果值已解析为数字，则返回 true，否则返回 false。
+     * 最后，如果值是数字，则返回 true，否则返回 false。
      *
      * @return 此单元格的值是否可以解析为数字
      */
@@ -48,20 +55,34 @@ public class CsvCell {
         if (this.string == null) {
             return false;
         }
-        if (!this.bigDecimalValueBox.isValueAlreadySet()) {
-            // Not set yet
-            try {
-                BigDecimal bigDecimal = new BigDecimal(this.string);
-                bigDecimalValueBox.setValue(bigDecimal);
-                return true;
-            } catch (NumberFormatException numberFormatException) {
-                bigDecimalValueBox.setValue(null);
-                return false;
+        return numberType(this.string) != CsvNumberScanner.NOT_NUMBER;
+    }
+
+    private int numberType(String s) {
+        if (this.numberType < 0) {
+            int type = CsvNumberScanner.classify(s);
+            if (type == CsvNumberScanner.NON_ASCII) {
+                try {
+                    bigDecimalValueBox.setValue(new BigDecimal(s));
+                } catch (NumberFormatException numberFormatException) {
+                    bigDecimalValueBox.setValue(null);
+                    type = CsvNumberScanner.NOT_NUMBER;
+                }
             }
-        } else {
-            // Already Set
-            return this.bigDecimalValueBox.isValueSetAndNotNull();
+            this.numberType = type;
+        }
+        return this.numberType;
+    }
+
+    private String requireNumberString() throws NumberFormatException {
+        String s = this.string;
+        if (s == null) {
+            throw new NumberFormatException("Cell value is null");
+        }
+        if (numberType(s) == CsvNumberScanner.NOT_NUMBER) {
+            throw new NumberFormatException("Cell value is not a number: " + s);
         }
+        return s;
     }
 
     /**
@@ -98,10 +119,65 @@ public class CsvCell {
         if (!isNumber()) {
             throw new NumberFormatException("Cell value is not a number: " + this.string);
         }
+        if (!bigDecimalValueBox.isValueAlreadySet()) {
+            bigDecimalValueBox.setValue(new BigDecimal(this.string));
+        }
 
         return bigDecimalValueBox.getValue();
     }
 
+    /**
+     * 获取此单元格值对应的 long 值。
+     * <p>
+     * 不超过 18 个字符的整数直接从字符解析，不构造 {@link BigDecimal}；
+     * 其余情况按 {@link BigDecimal#longValueExact()} 的规则精确转换，例如 {@code 1.0} 与 {@code 1e3} 均可转换。
+     *
+     * @return 此单元格值对应的 long 值
+     * @throws NumberFormatException 当单元格值为 null 或无法解析为数字时抛出
+     * @throws ArithmeticException   当数字带有非零小数部分或超出 long 范围时抛出
+     */
+    public long getLong() throws NumberFormatException, ArithmeticException {
+        String s = requireNumberString();
+        BigDecimal cached = bigDecimalValueBox.isValueAlreadySet() ? bigDecimalValueBox.getValue() : null;
+        if (cached != null) {
+            return cached.longValueExact();
+        }
+        return CsvNumberScanner.toLong(s, this.numberType);
+    }
+
+    /**
+     * 获取此单元格值对应的 int 值。
+     * <p>
+     * 不超过 9 个字符的整数直接从字符解析，不构造 {@link BigDecimal}；
+     * 其余情况按 {@link BigDecimal#intValueExact()} 的规则精确转换。
+     *
+     * @return 此单元格值对应的 int 值
+     * @throws NumberFormatException 当单元格值为 null 或无法解析为数字时抛出
+     * @throws ArithmeticException   当数字带有非零小数部分或超出 int 范围时抛出
+     */
+    public int getInt() throws NumberFormatException, ArithmeticException {
+        String s = requireNumberString();
+        BigDecimal cached = bigDecimalValueBox.isValueAlreadySet() ? bigDecimalValueBox.getValue() : null;
+        if (cached != null) {
+            return cached.intValueExact();
+        }
+        return CsvNumberScanner.toInt(s, this.numberType);
+    }
+
+    /**
+     * 获取此单元格值对应的最接近的 double 值。
+     * <p>
+     * 有效数字不超过 15 位且十进制指数在 ±22 以内时直接从字符计算，
+     * 其余情况交由 {@link Double#parseDouble(String)} 完成正确舍入。
+     *
+     * @return 此单元格值对应的 double 值
+     * @throws NumberFormatException 当单元格值为 null 或无法解析为数字时抛出
+     */
+    public double getDouble() throws NumberFormatException {
+        String s = requireNumberString();
+        return CsvNumberScanner.toDouble(s, this.numberType);
+    }
+
     /**
      * 获取此单元格的数值，如果单元格值不是数字则返回默认值。
      *
@@ -0,0 +1,176 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 单元格过滤条件，通过 {@link KeelCsvReader#addFilter(int, CsvCellFilter)} 注册到读取器的某一列上。
+ * <p>
+ * 过滤条件在该列刚解析完成时即被求值，直接检查读取器缓冲区中的内容：
+ * 除 {@link #matching(Predicate)} 以及含有非 ASCII 字符的比较外，都不会生成字符串。
+ * 条件不满足时，该行其余单元格的内容不再复制，读取器也不会为该行生成任何行对象。
+ * <p>
+ * 行中没有被过滤的列时，视为不满足条件。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public abstract class CsvCellFilter {
+    /**
+     * 不超过此数量的候选值逐个比较，不生成字符串；更多候选值时生成字符串后查找哈希表。
+     */
+    private static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    CsvCellFilter() {
+    }
+
+    /**
+     * 判断记录缓冲区中指定单元格的内容是否满足条件。
+     *
+     * @param record 记录缓冲区
+     * @param i      单元格索引
+     * @param slice  可复用的字符序列
+     * @return 满足条件则返回 true
+     */
+    abstract boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice);
+
+    /**
+     * 单元格内容与给定字符串完全相同。
+     *
+     * @param expected 期望的内容
+     * @return 过滤条件
+     */
+    public static CsvCellFilter equalTo(String expected) {
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                return record.cellContentEquals(i, expected);
+            }
+        };
+    }
+
+    /**
+     * 单元格内容与给定的某一个字符串完全相同。
+     *
+     * @param candidates 候选内容
+     * @return 过滤条件
+     */
+    public static CsvCellFilter oneOf(Collection<String> candidates) {
+        if (candidates.size() <= LINEAR_LOOKUP_LIMIT) {
+            List<String> list = List.copyOf(candidates);
+            return new CsvCellFilter() {
+                @Override
+                boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                    for (String candidate : list) {
+                        if (record.cellContentEquals(i, candidate)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+        Set<String> set = new HashSet<>(candidates);
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                return set.contains(record.cellString(i));
+            }
+        };
+    }
+
+    /**
+     * 单元格内容以给定字符串开头。
+     *
+     * @param prefix 前缀
+     * @return 过滤条件
+     */
+    public static CsvCellFilter startsWith(String prefix) {
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                return record.cellStartsWith(i, prefix);
+            }
+        };
+    }
+
+    /**
+     * 单元格内容是数字（参见 {@link CsvCell#isNumber()}），且其值在闭区间 {@code [min, max]} 内。
+     * <p>
+     * 比较按 {@link CsvCell#getDouble()} 的结果进行；需要单侧区间时，另一侧可以使用无穷大。
+     *
+     * @param min 下限（含）
+     * @param max 上限（含）
+     * @return 过滤条件
+     */
+    public static CsvCellFilter between(double min, double max) {
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                CsvCharSlice s = record.cellSlice(i, slice);
+                int type = CsvNumberScanner.classify(s);
+                if (type == CsvNumberScanner.NOT_NUMBER) {
+                    return false;
+                }
+                double value;
+                try {
+                    value = CsvNumberScanner.toDouble(s, type);
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * 单元格内容满足给定的谓词；每次求值都会为该单元格生成字符串。
+     *
+     * @param predicate 判断单元格字符串的谓词
+     * @return 过滤条件
+     */
+    public static CsvCellFilter matching(Predicate<String> predicate) {
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                return predicate.test(record.cellString(i));
+            }
+        };
+    }
+
+    /**
+     * 同时满足此条件与另一个条件，此条件不满足时不再对另一个条件求值。
+     *
+     * @param other 另一个条件
+     * @return 组合后的过滤条件
+     */
+    public CsvCellFilter and(CsvCellFilter other) {
+        CsvCellFilter self = this;
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                return self.test(record, i, slice) && other.test(record, i, slice);
+            }
+        };
+    }
+
+    /**
+     * 与此条件相反的条件。
+     *
+     * @return 取反后的过滤条件
+     */
+    public CsvCellFilter negate() {
+        CsvCellFilter self = this;
+        return new CsvCellFilter() {
+            @Override
+            boolean test(CsvRecordBuffer record, int i, CsvCharSlice slice) {
+                return !self.test(record, i, slice);
+            }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 基于字符缓冲区的 CSV 记录解析器。
+ * <p>
+ * 解析器直接扫描可复用的 {@code char[]} 缓冲区，以显式的引号状态机识别单元格与记录边界，
+ * 普通字符按连续片段批量写入 {@link CsvRecordBuffer}，不会为每个字符创建字符串。
+ * <p>
+ * 解析结果与早期基于 {@code BufferedReader#readLine()} 的逐行实现保持一致：
+ * <ul>
+ *     <li>{@code \n}、{@code \r} 与 {@code \r\n} 均视为行结束符；</li>
+ *     <li>引号内跨行的内容以 {@code \n} 连接；</li>
+ *     <li>文件末尾未闭合的引号按已闭合处理。</li>
+ * </ul>
+ * 引号内的多行内容在同一个循环中连续处理，调用栈深度与单元格内的行数无关；
+ * 可通过 {@link #setMaxCellLength(int)} 限制单个单元格的长度，使异常输入尽早失败。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvCharRecordParser implements CsvRecordParser {
+    /**
+     * 不在引号内。
+     */
+    private static final int STATE_PLAIN = 0;
+    /**
+     * 在引号内。
+     */
+    private static final int STATE_QUOTED = 1;
+    /**
+     * 刚遇到引号内的一个引号：可能是引号闭合，也可能是 {@code ""} 转义的前半部分。
+     */
+    private static final int STATE_QUOTE_PENDING = 2;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    /**
+     * 单字符分隔符；多字符分隔符由 {@link CsvDialectRecordParser} 处理。
+     */
+    private final char separator;
+    /**
+     * 所有结构字符中的最大值，大于该值的字符必然是普通字符。
+     */
+    private final int maxStructuralChar;
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfInput = false;
+    /**
+     * 上一个行结束符是位于缓冲区末尾的 {@code \r}，需要跳过紧随其后的 {@code \n}。
+     */
+    private boolean skipLineFeed = false;
+    private int maxCellLength = Integer.MAX_VALUE;
+    /**
+     * 单元格超长时解析停在记录中间，之后的每次解析都抛出同一异常，以免从单元格中间继续产生错位的记录。
+     */
+    private @Nullable IOException failure = null;
+
+    CsvCharRecordParser(Reader reader, String separator) {
+        this(reader, separator, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvCharRecordParser(Reader reader, String separator, int bufferSize) {
+        if (separator.length() != 1) {
+            throw new IllegalArgumentException("CsvCharRecordParser requires a single-character separator: " + separator);
+        }
+        this.reader = reader;
+        this.separator = separator.charAt(0);
+        this.maxStructuralChar = Math.max('"', this.separator);
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    public CsvRecordBuffer newRecordBuffer() {
+        return new CsvRecordBuffer();
+    }
+
+    /**
+     * 设置单个单元格允许的最大字符数。
+     * <p>
+     * 检查发生在单元格结束、引号内换行以及每次缓冲区耗尽时，超出部分至多为一个缓冲区的大小。
+     *
+     * @param maxCellLength 单个单元格允许的最大字符数
+     */
+    @Override
+    public void setMaxCellLength(int maxCellLength) {
+        if (maxCellLength <= 0) {
+            throw new IllegalArgumentException("maxCellLength must be positive");
+        }
+        this.maxCellLength = maxCellLength;
+    }
+
+    /**
+     * 解析下一条记录并写入指定的记录缓冲区。
+     *
+     * @param record 接收解析结果的记录缓冲区，解析前会被清空
+     * @return 如果解析到一条记录则返回 true；如果已没有更多数据则返回 false
+     * @throws IOException 当读取数据源发生 IO 异常，或单元格长度超出限制时抛出
+     */
+    @Override
+    public boolean parseNext(CsvRecordBuffer record) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (!ensureData()) {
+            return false;
+        }
+        record.reset();
+
+        int state = STATE_PLAIN;
+        // 引号内遇到的换行只有在其后还有内容时才写入，以与逐行读取的行为一致
+        boolean pendingLineBreak = false;
+
+        while (true) {
+            final char[] buf = this.buffer;
+            final int lim = this.limit;
+            int p = this.position;
+            int runStart = p;
+
+            while (p < lim) {
+                char c = buf[p];
+                if (c > maxStructuralChar || (c != '"' && c != separator && c != '\n' && c != '\r')) {
+                    p++;
+                    continue;
+                }
+
+                if (pendingLineBreak) {
+                    record.append('\n');
+                    pendingLineBreak = false;
+                }
+                record.append(buf, runStart, p - runStart);
+                p++;
+
+                if (c == '"') {
+                    if (state == STATE_PLAIN) {
+                        state = STATE_QUOTED;
+                    } else if (state == STATE_QUOTED) {
+                        state = STATE_QUOTE_PENDING;
+                    } else {
+                        record.append('"');
+                        state = STATE_QUOTED;
+                    }
+                } else if (c == separator) {
+                    if (state == STATE_QUOTED) {
+                        record.append(c);
+                    } else {
+                        endCell(record);
+                        state = STATE_PLAIN;
+                    }
+                } else {
+                    if (c == '\r') {
+                        if (p < lim) {
+                            if (buf[p] == '\n') p++;
+                        } else {
+                            skipLineFeed = true;
+                        }
+                    }
+                    if (state == STATE_QUOTED) {
+                        checkCellLength(record);
+                        pendingLineBreak = true;
+                    } else {
+                        endCell(record);
+                        this.position = p;
+                        return true;
+                    }
+                }
+                runStart = p;
+            }
+
+            if (p > runStart) {
+                if (pendingLineBreak) {
+                    record.append('\n');
+                    pendingLineBreak = false;
+                }
+                record.append(buf, runStart, p - runStart);
+                checkCellLength(record);
+            }
+            this.position = p;
+
+            if (!ensureData()) {
+                // 数据源结束：当前记录到此为止（包括未闭合引号的情况）
+                endCell(record);
+                return true;
+            }
+        }
+    }
+
+    private void endCell(CsvRecordBuffer record) throws IOException {
+        checkCellLength(record);
+        record.endCell();
+    }
+
+    private void checkCellLength(CsvRecordBuffer record) throws IOException {
+        if (record.currentCellLength() > maxCellLength) {
+            failure = new IOException("CSV cell exceeds the maximum length of " + maxCellLength + " chars");
+            throw failure;
+        }
+    }
+
+    /**
+     * 确保缓冲区中至少有一个待处理的字符，并处理跨缓冲区的 {@code \r\n}。
+     *
+     * @return 如果还有数据则返回 true，否则返回 false
+     */
+    private boolean ensureData() throws IOException {
+        while (true) {
+            if (position >= limit && !fill()) {
+                return false;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            return true;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        int n;
+        do {
+            n = reader.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            endOfInput = true;
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.Charset;
+
+/**
+ * 指向字符数组中一段区间的可复用字符序列，用于在不生成字符串的情况下检查单元格内容。
+ * <p>
+ * 实例可通过 {@link #set(char[], int, int)} 反复指向不同的区间，因此不应被长期持有。
+ * <p>
+ * 也可以通过 {@link #set(byte[], int, int, Charset)} 指向尚未解码的原始字节：此时
+ * {@link #length()} 与 {@link #charAt(int)} 直接反映字节，仅对 ASCII 内容与字符一一对应，
+ * 非 ASCII 字节表现为不小于 {@code 0x80} 的字符；{@link #toString()} 则按字符集完整解码。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvCharSlice implements CharSequence {
+    private char[] chars = new char[0];
+    private byte @Nullable [] bytes;
+    private @Nullable Charset charset;
+    private int start;
+    private int length;
+
+    /**
+     * 令此字符序列指向新的区间。
+     *
+     * @param chars 字符数组
+     * @param start 起始偏移量
+     * @param end   结束偏移量（不含）
+     * @return 当前字符序列
+     */
+    CsvCharSlice set(char[] chars, int start, int end) {
+        this.chars = chars;
+        this.bytes = null;
+        this.charset = null;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+
+    /**
+     * 令此字符序列指向一段尚未解码的原始字节。
+     *
+     * @param bytes   字节数组
+     * @param start   起始偏移量
+     * @param end     结束偏移量（不含）
+     * @param charset 原始字节的字符集
+     * @return 当前字符序列
+     */
+    CsvCharSlice set(byte[] bytes, int start, int end, Charset charset) {
+        this.bytes = bytes;
+        this.charset = charset;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        var b = this.bytes;
+        if (b != null) {
+            return (char) (b[start + index] & 0xFF);
+        }
+        return chars[start + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        var b = this.bytes;
+        var cs = this.charset;
+        if (b != null && cs != null) {
+            return new String(b, start, length, cs);
+        }
+        return new String(chars, start, length);
+    }
+}
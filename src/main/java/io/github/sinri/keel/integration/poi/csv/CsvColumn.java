@@ -0,0 +1,56 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 预先编译的列访问器，由 {@link CsvRowTemplate#column(String)} 得到。
+ * <p>
+ * 访问器保存了列名解析后的索引，通过它从 {@link CsvTemplatedRow} 取值不再需要按列名查找，
+ * 开销与按索引访问相同。访问器只能用于由同一个模板产生的行。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class CsvColumn {
+    private final CsvRowTemplate template;
+    private final String name;
+    private final int index;
+
+    CsvColumn(CsvRowTemplate template, String name, int index) {
+        this.template = template;
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * 获取产生此访问器的行模板。
+     *
+     * @return 行模板
+     */
+    public CsvRowTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取列名。
+     *
+     * @return 列名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取列索引。
+     *
+     * @return 列索引，从 0 开始
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return name + "#" + index;
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.integration.poi.csv.spi.CsvCompressionCodec;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV 数据的压缩与解压。
+ * <p>
+ * 内置 {@link #GZIP}，其他格式可以通过 {@link java.util.ServiceLoader} 注册 {@link CsvCompressionCodec} 的实现。
+ * 读取时按数据开头的魔数自动识别压缩格式，未压缩的数据按原样读取。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class CsvCompression {
+    /**
+     * 基于 {@link java.util.zip} 的 gzip 压缩格式，支持多个成员首尾相接的文件。
+     */
+    public static final CsvCompressionCodec GZIP = new GzipCodec();
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final List<CsvCompressionCodec> CODECS = loadCodecs();
+
+    private CsvCompression() {
+    }
+
+    private static List<CsvCompressionCodec> loadCodecs() {
+        List<CsvCompressionCodec> codecs = new ArrayList<>();
+        codecs.add(GZIP);
+        try {
+            for (CsvCompressionCodec codec : ServiceLoader.load(CsvCompressionCodec.class)) {
+                codecs.add(codec);
+            }
+        } catch (ServiceConfigurationError | LinkageError e) {
+            // 可选实现缺少运行时依赖时忽略，仍可使用内置格式
+        }
+        return List.copyOf(codecs);
+    }
+
+    /**
+     * @return 可以自动识别的全部压缩格式，包括内置格式与通过 {@link java.util.ServiceLoader} 注册的格式
+     */
+    public static List<CsvCompressionCodec> codecs() {
+        return CODECS;
+    }
+
+    /**
+     * 根据数据开头的字节识别压缩格式。
+     *
+     * @param header 数据开头的字节
+     * @param length {@code header} 中有效的字节数
+     * @return 识别出的压缩格式；未压缩或格式未知时返回 null
+     */
+    public static @Nullable CsvCompressionCodec detect(byte[] header, int length) {
+        for (CsvCompressionCodec codec : CODECS) {
+            if (length >= codec.magicLength() && codec.matches(header, length)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 包装输入流：如果数据开头是已知压缩格式的魔数，则返回解压后的输入流，否则返回未压缩数据的输入流。
+     *
+     * @param inputStream 可能被压缩的数据的输入流
+     * @param pipelined   是否在单独的线程中读取（并解压）数据，使其与解析并行进行
+     * @return 未压缩数据的输入流
+     * @throws IOException 当读取数据开头或压缩头部失败时抛出
+     */
+    public static InputStream decompress(InputStream inputStream, boolean pipelined) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(inputStream, STREAM_BUFFER_SIZE);
+        int magicLength = maxMagicLength();
+        byte[] header = new byte[magicLength];
+        buffered.mark(magicLength);
+        int length = buffered.readNBytes(header, 0, magicLength);
+        buffered.reset();
+
+        CsvCompressionCodec codec = detect(header, length);
+        InputStream decompressed = codec == null ? buffered : codec.decompress(buffered);
+        return pipelined ? new CsvPipelinedInputStream(decompressed) : decompressed;
+    }
+
+    /**
+     * 识别本地文件的压缩格式。
+     *
+     * @param path 文件路径
+     * @return 识别出的压缩格式；未压缩或格式未知时返回 null
+     * @throws IOException 当读取文件开头失败时抛出
+     */
+    static @Nullable CsvCompressionCodec detect(Path path) throws IOException {
+        byte[] header = new byte[maxMagicLength()];
+        int length;
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            length = inputStream.readNBytes(header, 0, header.length);
+        }
+        return detect(header, length);
+    }
+
+    private static int maxMagicLength() {
+        int magicLength = 0;
+        for (CsvCompressionCodec codec : CODECS) {
+            magicLength = Math.max(magicLength, codec.magicLength());
+        }
+        return magicLength;
+    }
+
+    private static final class GzipCodec implements CsvCompressionCodec {
+        @Override
+        public String name() {
+            return "gzip";
+        }
+
+        @Override
+        public int magicLength() {
+            return 2;
+        }
+
+        @Override
+        public boolean matches(byte[] header, int length) {
+            return length >= 2 && header[0] == (byte) 0x1f && header[1] == (byte) 0x8b;
+        }
+
+        @Override
+        public InputStream decompress(InputStream inputStream) throws IOException {
+            return new GZIPInputStream(inputStream, STREAM_BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream compress(OutputStream outputStream) throws IOException {
+            return new GZIPOutputStream(outputStream, STREAM_BUFFER_SIZE);
+        }
+    }
+}
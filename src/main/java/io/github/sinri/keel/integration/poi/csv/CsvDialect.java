@@ -0,0 +1,220 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * CSV 方言，描述 CSV 数据的分隔符、引号、转义、换行、注释与空白处理规则。
+ * <p>
+ * 方言在创建读取器时被编译为解析器实例，之后再修改方言不会影响已创建的读取器。
+ * 默认方言（单字符分隔符、双引号、以 {@code ""} 转义、引号内换行统一为 {@code \n}、无注释、不去除空白）
+ * 使用专门优化的解析器；其他方言使用通用解析器，其结构字符判断在创建时预先编译为查找表。
+ * <p>
+ * 无论何种方言，{@code \n}、{@code \r} 与 {@code \r\n} 均视为记录结束符。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public class CsvDialect {
+    private String separator = ",";
+    private char quote = '"';
+    private @Nullable Character escape = null;
+    private boolean normalizeLineBreaks = true;
+    private @Nullable String commentPrefix = null;
+    private boolean trimWhitespace = false;
+
+    /**
+     * 获取分隔符。
+     *
+     * @return 分隔符，默认为 {@code ,}
+     */
+    public String getSeparator() {
+        return separator;
+    }
+
+    /**
+     * 设置分隔符，可以由多个字符组成，例如 {@code ||}。
+     *
+     * @param separator 分隔符，不能为空字符串，也不能包含引号或换行
+     * @return 当前方言实例，支持链式调用
+     */
+    public CsvDialect setSeparator(String separator) {
+        if (separator.isEmpty()) {
+            throw new IllegalArgumentException("separator must not be empty");
+        }
+        this.separator = separator;
+        return this;
+    }
+
+    /**
+     * 获取引号字符。
+     *
+     * @return 引号字符，默认为 {@code "}
+     */
+    public char getQuote() {
+        return quote;
+    }
+
+    /**
+     * 设置引号字符。引号内的分隔符与换行视为单元格内容，连续的两个引号表示一个引号字符。
+     *
+     * @param quote 引号字符
+     * @return 当前方言实例，支持链式调用
+     */
+    public CsvDialect setQuote(char quote) {
+        this.quote = quote;
+        return this;
+    }
+
+    /**
+     * 获取转义字符。
+     *
+     * @return 转义字符；为 null 表示只以连续的两个引号转义引号
+     */
+    public @Nullable Character getEscape() {
+        return escape;
+    }
+
+    /**
+     * 设置转义字符，例如 {@code \}。转义字符之后的一个字符（包括分隔符、引号与换行）按原样作为单元格内容。
+     * <p>
+     * 转义字符与引号字符相同时，等同于不使用转义字符，即以连续的两个引号转义引号。
+     * 转义字符不能是换行符或分隔符中的任何一个字符。
+     *
+     * @param escape 转义字符；为 null 表示不使用转义字符，默认为 null
+     * @return 当前方言实例，支持链式调用
+     */
+    public CsvDialect setEscape(@Nullable Character escape) {
+        this.escape = escape;
+        return this;
+    }
+
+    /**
+     * 判断是否将引号内的换行统一为 {@code \n}。
+     *
+     * @return 是否统一引号内的换行，默认为 true
+     */
+    public boolean isNormalizeLineBreaks() {
+        return normalizeLineBreaks;
+    }
+
+    /**
+     * 设置是否将引号内的 {@code \r\n} 与 {@code \r} 统一为 {@code \n}；为 false 时按原样保留。
+     *
+     * @param normalizeLineBreaks 是否统一引号内的换行
+     * @return 当前方言实例，支持链式调用
+     */
+    public CsvDialect setNormalizeLineBreaks(boolean normalizeLineBreaks) {
+        this.normalizeLineBreaks = normalizeLineBreaks;
+        return this;
+    }
+
+    /**
+     * 获取注释前缀。
+     *
+     * @return 注释前缀；为 null 表示不识别注释
+     */
+    public @Nullable String getCommentPrefix() {
+        return commentPrefix;
+    }
+
+    /**
+     * 设置注释前缀，例如 {@code #}。以该前缀开头的行被整行跳过，不产生记录；
+     * 只有位于记录开头的前缀才会被识别，引号内跨行的内容不受影响。
+     *
+     * @param commentPrefix 注释前缀，不能为空字符串；为 null 表示不识别注释，默认为 null
+     * @return 当前方言实例，支持链式调用
+     */
+    public CsvDialect setCommentPrefix(@Nullable String commentPrefix) {
+        if (commentPrefix != null && commentPrefix.isEmpty()) {
+            throw new IllegalArgumentException("commentPrefix must not be empty");
+        }
+        this.commentPrefix = commentPrefix;
+        return this;
+    }
+
+    /**
+     * 判断是否去除单元格两侧的空白。
+     *
+     * @return 是否去除单元格两侧的空白，默认为 false
+     */
+    public boolean isTrimWhitespace() {
+        return trimWhitespace;
+    }
+
+    /**
+     * 设置是否去除单元格两侧的空格与制表符。引号内以及经过转义的空白会被保留。
+     *
+     * @param trimWhitespace 是否去除单元格两侧的空白
+     * @return 当前方言实例，支持链式调用
+     */
+    public CsvDialect setTrimWhitespace(boolean trimWhitespace) {
+        this.trimWhitespace = trimWhitespace;
+        return this;
+    }
+
+    /**
+     * @return 是否可以使用专门优化的解析器
+     */
+    private boolean isSimple() {
+        return separator.length() == 1
+                && quote == '"'
+                && escape == null
+                && normalizeLineBreaks
+                && commentPrefix == null
+                && !trimWhitespace;
+    }
+
+    /**
+     * 根据当前方言为字符数据源创建解析器。
+     *
+     * @param reader 字符数据源
+     * @return 解析器
+     * @throws IllegalArgumentException 当方言的各项设置相互冲突时抛出
+     */
+    CsvRecordParser createParser(Reader reader) {
+        validate();
+        if (isSimple()) {
+            return new CsvCharRecordParser(reader, separator);
+        }
+        return new CsvDialectRecordParser(reader, this);
+    }
+
+    /**
+     * 根据当前方言为字节数据源创建解析器；默认方言下如果字符集允许，则直接按字节解析。
+     *
+     * @param inputStream 字节数据源
+     * @param charset     字符集
+     * @return 解析器
+     * @throws IllegalArgumentException 当方言的各项设置相互冲突时抛出
+     */
+    CsvRecordParser createParser(InputStream inputStream, Charset charset) {
+        validate();
+        if (isSimple() && CsvByteRecordParser.supports(charset, separator)) {
+            return new CsvByteRecordParser(inputStream, charset, separator);
+        }
+        return createParser(new InputStreamReader(inputStream, charset));
+    }
+
+    private void validate() {
+        if (quote == '\n' || quote == '\r') {
+            throw new IllegalArgumentException("quote must not be a line break character");
+        }
+        if (separator.indexOf(quote) >= 0 || separator.indexOf('\n') >= 0 || separator.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("separator must not contain the quote or line break characters");
+        }
+        var escapeChar = this.escape;
+        if (escapeChar != null && (escapeChar == '\n' || escapeChar == '\r' || separator.indexOf(escapeChar) >= 0)) {
+            throw new IllegalArgumentException("escape must differ from the separator and line break characters");
+        }
+        var prefix = this.commentPrefix;
+        if (prefix != null && (prefix.indexOf('\n') >= 0 || prefix.indexOf('\r') >= 0)) {
+            throw new IllegalArgumentException("commentPrefix must not contain line break characters");
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 按 {@link CsvDialect} 编译得到的通用 CSV 记录解析器。
+ * <p>
+ * 创建时方言的各项设置被复制为不可变字段，所有可能改变解析状态的字符（分隔符的首字符、引号、转义字符、
+ * 换行，以及启用去除空白时的空格与制表符）预先登记在查找表中；扫描时普通字符只需一次查表即可跳过，
+ * 连续的普通字符按片段批量写入 {@link CsvRecordBuffer}。
+ * <p>
+ * 多字符分隔符与注释前缀需要向后查看多个字符，此时缓冲区中剩余的字符会被移到缓冲区开头后再继续读取，
+ * 因此它们可以跨越读取边界。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvDialectRecordParser implements CsvRecordParser {
+    private static final int STATE_PLAIN = 0;
+    private static final int STATE_QUOTED = 1;
+    private static final int STATE_QUOTE_PENDING = 2;
+
+    private static final int LINE_BREAK_NONE = 0;
+    private static final int LINE_BREAK_LF = 1;
+    private static final int LINE_BREAK_CR = 2;
+    private static final int LINE_BREAK_CRLF = 3;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] separator;
+    private final char quote;
+    /**
+     * 转义字符；未使用转义字符时为 -1。
+     */
+    private final int escape;
+    private final boolean normalizeLineBreaks;
+    private final char[] commentPrefix;
+    private final boolean trimWhitespace;
+    /**
+     * 以字符为下标的结构字符表；下标超出表长的字符必然是普通字符。
+     */
+    private final boolean[] structural;
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfInput = false;
+    private int maxCellLength = Integer.MAX_VALUE;
+    /**
+     * 单元格超长时解析停在记录中间，之后的每次解析都抛出同一异常，以免从单元格中间继续产生错位的记录。
+     */
+    private @Nullable IOException failure = null;
+
+    CsvDialectRecordParser(Reader reader, CsvDialect dialect) {
+        this(reader, dialect, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvDialectRecordParser(Reader reader, CsvDialect dialect, int bufferSize) {
+        this.reader = reader;
+        this.separator = dialect.getSeparator().toCharArray();
+        this.quote = dialect.getQuote();
+        Character escapeChar = dialect.getEscape();
+        this.escape = escapeChar == null || escapeChar == quote ? -1 : escapeChar;
+        this.normalizeLineBreaks = dialect.isNormalizeLineBreaks();
+        String prefix = dialect.getCommentPrefix();
+        this.commentPrefix = prefix == null ? new char[0] : prefix.toCharArray();
+        this.trimWhitespace = dialect.isTrimWhitespace();
+
+        int max = Math.max(Math.max(separator[0], quote), Math.max(escape, '\r'));
+        if (trimWhitespace) {
+            max = Math.max(max, ' ');
+        }
+        this.structural = new boolean[max + 1];
+        structural[separator[0]] = true;
+        structural[quote] = true;
+        structural['\n'] = true;
+        structural['\r'] = true;
+        if (escape >= 0) {
+            structural[escape] = true;
+        }
+        if (trimWhitespace) {
+            structural[' '] = true;
+            structural['\t'] = true;
+        }
+        // 缓冲区至少要能容纳一次向后查看所需的字符
+        this.buffer = new char[Math.max(bufferSize, Math.max(separator.length, commentPrefix.length) + 1)];
+    }
+
+    @Override
+    public CsvRecordBuffer newRecordBuffer() {
+        return new CsvRecordBuffer();
+    }
+
+    @Override
+    public void setMaxCellLength(int maxCellLength) {
+        if (maxCellLength <= 0) {
+            throw new IllegalArgumentException("maxCellLength must be positive");
+        }
+        this.maxCellLength = maxCellLength;
+    }
+
+    @Override
+    public boolean parseNext(CsvRecordBuffer record) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (!skipCommentLines()) {
+            return false;
+        }
+        record.reset();
+
+        int state = STATE_PLAIN;
+        int pendingLineBreak = LINE_BREAK_NONE;
+        // 当前单元格是否已出现内容或引号；去除空白时，此前的空白属于前导空白
+        boolean cellStarted = false;
+        // 当前单元格中不可被去除的前缀长度，即最后一个闭合引号或转义字符之前的内容
+        int protectedLength = 0;
+
+        while (true) {
+            char[] buf = this.buffer;
+            int lim = this.limit;
+            int p = this.position;
+            int runStart = p;
+
+            while (p < lim) {
+                char c = buf[p];
+                if (c >= structural.length || !structural[c]) {
+                    p++;
+                    continue;
+                }
+
+                if (p > runStart) {
+                    cellStarted = true;
+                }
+                if (pendingLineBreak != LINE_BREAK_NONE) {
+                    appendLineBreak(record, pendingLineBreak);
+                    pendingLineBreak = LINE_BREAK_NONE;
+                }
+                record.append(buf, runStart, p - runStart);
+
+                if (c == separator[0] && state != STATE_QUOTED) {
+                    boolean matched = matchesAhead(p, separator);
+                    // 向后查看可能移动了缓冲区中的内容
+                    buf = this.buffer;
+                    lim = this.limit;
+                    p = this.position;
+                    if (matched) {
+                        p += separator.length;
+                        endCell(record, protectedLength);
+                        state = STATE_PLAIN;
+                        cellStarted = false;
+                        protectedLength = 0;
+                        runStart = p;
+                        continue;
+                    }
+                }
+
+                if (c == quote) {
+                    p++;
+                    cellStarted = true;
+                    if (state == STATE_PLAIN) {
+                        state = STATE_QUOTED;
+                    } else if (state == STATE_QUOTED) {
+                        state = STATE_QUOTE_PENDING;
+                        protectedLength = record.currentCellLength();
+                    } else {
+                        record.append(quote);
+                        state = STATE_QUOTED;
+                    }
+                } else if (c == escape) {
+                    cellStarted = true;
+                    this.position = p + 1;
+                    boolean escaped = ensureAvailable(1);
+                    buf = this.buffer;
+                    lim = this.limit;
+                    p = this.position;
+                    if (escaped) {
+                        record.append(buf[p]);
+                        p++;
+                    } else {
+                        // 位于数据末尾的转义字符按原样保留
+                        record.append(c);
+                    }
+                    protectedLength = record.currentCellLength();
+                } else if (c == '\n' || c == '\r') {
+                    int lineBreak = LINE_BREAK_LF;
+                    p++;
+                    if (c == '\r') {
+                        lineBreak = LINE_BREAK_CR;
+                        this.position = p;
+                        if (ensureAvailable(1) && this.buffer[this.position] == '\n') {
+                            lineBreak = LINE_BREAK_CRLF;
+                            this.position++;
+                        }
+                        buf = this.buffer;
+                        lim = this.limit;
+                        p = this.position;
+                    }
+                    if (state == STATE_QUOTED) {
+                        checkCellLength(record);
+                        pendingLineBreak = lineBreak;
+                    } else {
+                        endCell(record, protectedLength);
+                        this.position = p;
+                        return true;
+                    }
+                } else if (trimWhitespace && (c == ' ' || c == '\t')) {
+                    // 仅在去除空白时登记为结构字符
+                    p++;
+                    if (state == STATE_QUOTED || cellStarted) {
+                        record.append(c);
+                    }
+                } else {
+                    // 引号内的分隔符首字符，或未能匹配完整多字符分隔符的首字符
+                    p++;
+                    cellStarted = true;
+                    record.append(c);
+                }
+                runStart = p;
+            }
+
+            if (p > runStart) {
+                cellStarted = true;
+                if (pendingLineBreak != LINE_BREAK_NONE) {
+                    appendLineBreak(record, pendingLineBreak);
+                    pendingLineBreak = LINE_BREAK_NONE;
+                }
+                record.append(buf, runStart, p - runStart);
+                checkCellLength(record);
+            }
+            this.position = p;
+
+            if (!ensureAvailable(1)) {
+                // 数据源结束：当前记录到此为止（包括未闭合引号的情况）
+                endCell(record, protectedLength);
+                return true;
+            }
+        }
+    }
+
+    private void appendLineBreak(CsvRecordBuffer record, int lineBreak) {
+        if (normalizeLineBreaks || lineBreak == LINE_BREAK_LF) {
+            record.append('\n');
+        } else if (lineBreak == LINE_BREAK_CR) {
+            record.append('\r');
+        } else {
+            record.append('\r');
+            record.append('\n');
+        }
+    }
+
+    /**
+     * 判断从 {@code p} 开始的字符是否与给定的字符序列相同；返回后 {@link #position} 指向该序列的起点。
+     */
+    private boolean matchesAhead(int p, char[] expected) throws IOException {
+        this.position = p;
+        if (expected.length == 1) {
+            return true;
+        }
+        if (!ensureAvailable(expected.length)) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer[position + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 跳过位于记录开头的注释行。
+     *
+     * @return 如果还有数据则返回 true，否则返回 false
+     */
+    private boolean skipCommentLines() throws IOException {
+        while (true) {
+            if (!ensureAvailable(1)) {
+                return false;
+            }
+            if (commentPrefix.length == 0 || buffer[position] != commentPrefix[0] || !matchesAhead(position, commentPrefix)) {
+                return true;
+            }
+            while (true) {
+                if (!ensureAvailable(1)) {
+                    return false;
+                }
+                char c = buffer[position++];
+                if (c == '\n') {
+                    break;
+                }
+                if (c == '\r') {
+                    if (ensureAvailable(1) && buffer[position] == '\n') {
+                        position++;
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private void endCell(CsvRecordBuffer record, int protectedLength) throws IOException {
+        if (trimWhitespace) {
+            record.trimCurrentCellEnd(protectedLength);
+        }
+        checkCellLength(record);
+        record.endCell();
+    }
+
+    private void checkCellLength(CsvRecordBuffer record) throws IOException {
+        if (record.currentCellLength() > maxCellLength) {
+            failure = new IOException("CSV cell exceeds the maximum length of " + maxCellLength + " chars");
+            throw failure;
+        }
+    }
+
+    /**
+     * 确保缓冲区中从 {@link #position} 开始至少有 {@code n} 个字符；必要时先将剩余字符移到缓冲区开头。
+     *
+     * @return 如果有足够的字符则返回 true；数据源已结束且字符不足时返回 false
+     */
+    private boolean ensureAvailable(int n) throws IOException {
+        while (limit - position < n) {
+            if (endOfInput) {
+                return false;
+            }
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                position = 0;
+            }
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
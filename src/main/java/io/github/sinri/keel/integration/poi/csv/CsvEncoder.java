@@ -0,0 +1,384 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.time.LocalDate;
+
+/**
+ * 带缓冲区的 CSV 编码器，将单元格内容按需加引号后编码写入输出流。
+ * <p>
+ * 单元格内容先复制到字符缓冲区，字符缓冲区写满时由同一个可复用的 {@link CharsetEncoder} 批量编码到字节缓冲区，
+ * 字节缓冲区写满时才写入输出流；因此每个单元格既不会生成中间字符串，也不会触发单独的写入调用。
+ * <p>
+ * 无法编码的字符替换为字符集的替换字节，与 {@link String#getBytes(Charset)} 的行为一致。
+ * <p>
+ * 数字、布尔值与日期直接格式化到字符缓冲区，不生成中间字符串；只要分隔符中不含这些值可能出现的字符，
+ * 它们就不可能需要引号，因此也不做引号检查。
+ * <p>
+ * 此类不是线程安全的。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvEncoder implements Closeable, Flushable {
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final OutputStream outputStream;
+    private final CharsetEncoder encoder;
+    private final String separator;
+    private final char separatorHead;
+    /**
+     * 分隔符中是否不含数字、字母与 {@code +-.}，即格式化后的数字、布尔值与日期都不需要加引号。
+     */
+    private final boolean plainValuesSafe;
+    private final char[] digits = new char[20];
+    private final StringBuilder scratch = new StringBuilder(32);
+    private final char[] chars;
+    private final CharBuffer charView;
+    private int charCount = 0;
+    private final ByteBuffer bytes;
+    private boolean closed = false;
+
+    /**
+     * @param outputStream 编码后的字节写入的输出流
+     * @param separator    分隔符，不能为空字符串
+     * @param charset      字符集
+     * @param bufferSize   字符缓冲区的大小，即每次批量编码的字符数；字节缓冲区按字符集的最大编码长度相应放大
+     */
+    CsvEncoder(OutputStream outputStream, String separator, Charset charset, int bufferSize) {
+        if (separator.isEmpty()) {
+            throw new IllegalArgumentException("separator must not be empty");
+        }
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("bufferSize must be at least 16");
+        }
+        this.outputStream = outputStream;
+        this.encoder = charset.newEncoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.separator = separator;
+        this.separatorHead = separator.charAt(0);
+        this.plainValuesSafe = separator.chars().noneMatch(c -> Character.isLetterOrDigit(c) || c == '+' || c == '-' || c == '.');
+        this.chars = new char[bufferSize];
+        this.charView = CharBuffer.wrap(chars);
+        this.bytes = ByteBuffer.allocate((int) Math.ceil(bufferSize * (double) encoder.maxBytesPerChar()));
+    }
+
+    /**
+     * 写入一个单元格的内容，不含分隔符。
+     * <p>
+     * 内容只扫描一次：仅当含有引号、换行或分隔符时才加引号，并将其中的引号写为两个引号。
+     *
+     * @param value 单元格内容；为 null 时视为空字符串
+     */
+    void writeCell(@Nullable String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuote(value)) {
+            append(value, 0, value.length());
+            return;
+        }
+        append('"');
+        int runStart = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) == '"') {
+                // 连同这个引号一起写入，下一段从同一个引号开始，即写为两个引号
+                append(value, runStart, i + 1);
+                runStart = i;
+            }
+        }
+        append(value, runStart, length);
+        append('"');
+    }
+
+    /**
+     * 写入一个整数单元格，不含分隔符。
+     *
+     * @param value 单元格的值
+     */
+    void writeLong(long value) throws IOException {
+        if (!plainValuesSafe) {
+            writeCell(String.valueOf(value));
+            return;
+        }
+        if (value == Long.MIN_VALUE) {
+            // 无法取绝对值的唯一情况
+            append("-9223372036854775808", 0, 20);
+            return;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int start = formatDigits(value);
+        append(digits, start, digits.length - start);
+    }
+
+    /**
+     * 写入一个浮点数单元格，不含分隔符，格式与 {@link Double#toString(double)} 相同。
+     *
+     * @param value 单元格的值
+     */
+    void writeDouble(double value) throws IOException {
+        if (!plainValuesSafe) {
+            writeCell(String.valueOf(value));
+            return;
+        }
+        scratch.setLength(0);
+        scratch.append(value);
+        appendScratch();
+    }
+
+    /**
+     * 写入一个十进制数单元格，不含分隔符，格式与 {@link BigDecimal#toPlainString()} 相同。
+     * <p>
+     * 有效数字不超过 18 位时直接由非标度值格式化，否则退回 {@link BigDecimal#toPlainString()}。
+     *
+     * @param value 单元格的值；为 null 时视为空单元格
+     */
+    void writeBigDecimal(@Nullable BigDecimal value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!plainValuesSafe || value.precision() > 18) {
+            writeCell(value.toPlainString());
+            return;
+        }
+        long unscaled = value.unscaledValue().longValue();
+        int scale = value.scale();
+        if (unscaled == 0 && scale <= 0) {
+            append('0');
+            return;
+        }
+        if (unscaled < 0) {
+            append('-');
+            unscaled = -unscaled;
+        }
+        int start = formatDigits(unscaled);
+        int length = digits.length - start;
+        if (scale <= 0) {
+            append(digits, start, length);
+            for (int i = 0; i < -scale; i++) {
+                append('0');
+            }
+        } else if (length > scale) {
+            append(digits, start, length - scale);
+            append('.');
+            append(digits, digits.length - scale, scale);
+        } else {
+            append('0');
+            append('.');
+            for (int i = length; i < scale; i++) {
+                append('0');
+            }
+            append(digits, start, length);
+        }
+    }
+
+    /**
+     * 写入一个布尔值单元格，不含分隔符，写为 {@code true} 或 {@code false}。
+     *
+     * @param value 单元格的值
+     */
+    void writeBoolean(boolean value) throws IOException {
+        String text = value ? "true" : "false";
+        if (!plainValuesSafe) {
+            writeCell(text);
+            return;
+        }
+        append(text, 0, text.length());
+    }
+
+    /**
+     * 写入一个日期单元格，不含分隔符，格式与 {@link LocalDate#toString()} 相同，即 {@code yyyy-MM-dd}。
+     *
+     * @param value 单元格的值；为 null 时视为空单元格
+     */
+    void writeLocalDate(@Nullable LocalDate value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        int year = value.getYear();
+        if (!plainValuesSafe || year < 0 || year > 9999) {
+            writeCell(value.toString());
+            return;
+        }
+        appendPadded(year, 4);
+        append('-');
+        appendPadded(value.getMonthValue(), 2);
+        append('-');
+        appendPadded(value.getDayOfMonth(), 2);
+    }
+
+    /**
+     * 写入分隔符。
+     */
+    void writeSeparator() throws IOException {
+        if (separator.length() == 1) {
+            append(separatorHead);
+        } else {
+            append(separator, 0, separator.length());
+        }
+    }
+
+    /**
+     * 写入行结束符 {@code \n}。
+     */
+    void writeRowEnding() throws IOException {
+        append('\n');
+    }
+
+    private boolean needsQuote(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+            if (c == separatorHead && (separator.length() == 1 || value.startsWith(separator, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 将非负整数的十进制数字写入 {@link #digits} 的末尾。
+     *
+     * @return 第一个数字在 {@link #digits} 中的位置
+     */
+    private int formatDigits(long value) {
+        int p = digits.length;
+        do {
+            digits[--p] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return p;
+    }
+
+    private void appendPadded(int value, int width) throws IOException {
+        int start = formatDigits(value);
+        for (int i = digits.length - start; i < width; i++) {
+            append('0');
+        }
+        append(digits, start, digits.length - start);
+    }
+
+    private void appendScratch() throws IOException {
+        int from = 0;
+        int to = scratch.length();
+        while (from < to) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            int n = Math.min(to - from, chars.length - charCount);
+            scratch.getChars(from, from + n, chars, charCount);
+            charCount += n;
+            from += n;
+        }
+    }
+
+    private void append(char[] src, int off, int len) throws IOException {
+        while (len > 0) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            int n = Math.min(len, chars.length - charCount);
+            System.arraycopy(src, off, chars, charCount, n);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (charCount == chars.length) {
+            encodeChars(false);
+        }
+        chars[charCount++] = c;
+    }
+
+    private void append(String s, int from, int to) throws IOException {
+        while (from < to) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            int n = Math.min(to - from, chars.length - charCount);
+            s.getChars(from, from + n, chars, charCount);
+            charCount += n;
+            from += n;
+        }
+    }
+
+    /**
+     * 将字符缓冲区中的字符编码到字节缓冲区；字节缓冲区写满时写入输出流。
+     * 未结束输入时，位于末尾、尚未配对的高代理字符保留在字符缓冲区中，等待与后续字符一起编码。
+     */
+    private void encodeChars(boolean endOfInput) throws IOException {
+        charView.limit(charCount).position(0);
+        while (true) {
+            CoderResult result = encoder.encode(charView, bytes, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else {
+                break;
+            }
+        }
+        int remaining = charView.remaining();
+        if (remaining > 0) {
+            System.arraycopy(chars, charView.position(), chars, 0, remaining);
+        }
+        charCount = remaining;
+    }
+
+    private void writeBytes() throws IOException {
+        if (bytes.position() > 0) {
+            outputStream.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+
+    /**
+     * 将缓冲区中的全部内容编码并写入输出流，然后刷新输出流。
+     */
+    @Override
+    public void flush() throws IOException {
+        encodeChars(false);
+        writeBytes();
+        outputStream.flush();
+    }
+
+    /**
+     * 写出缓冲区中的全部内容，然后关闭输出流。
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encodeChars(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+        } finally {
+            outputStream.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于内存映射的文件字符读取器。
+ * <p>
+ * 文件以固定大小的窗口依次映射，超过 2 GB 的文件也可以完整读取；字符直接从映射的字节解码到调用方提供的数组中，
+ * 不经过 {@code InputStreamReader} 与 {@code BufferedReader} 的中间缓冲区。
+ * <p>
+ * 对 UTF-8 与 US-ASCII，ASCII 字节直接转换为字符，只有非 ASCII 字节段才交给 {@link CharsetDecoder}；
+ * 对 ISO-8859-1，所有字节都直接转换。无法解码的字节替换为替换字符，与 {@code InputStreamReader} 的默认行为一致。
+ * <p>
+ * 每次 {@link #read(char[], int, int)} 调用请求的长度应至少为 2，以便容纳一个代理对。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvMappedFileReader extends Reader {
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final int FAST_PATH_NONE = 0;
+    private static final int FAST_PATH_ASCII = 1;
+    private static final int FAST_PATH_LATIN1 = 2;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final CharsetDecoder decoder;
+    private final int fastPath;
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+    private boolean endOfInput = false;
+
+    CsvMappedFileReader(Path path, Charset charset) throws IOException {
+        this(path, charset, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize 每个映射窗口的字节数，至少为 8，以便容纳任意一个完整的多字节字符
+     */
+    CsvMappedFileReader(Path path, Charset charset, int windowSize) throws IOException {
+        if (windowSize < 8) {
+            throw new IllegalArgumentException("windowSize must be at least 8");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            this.windowSize = windowSize;
+            this.decoder = charset.newDecoder()
+                                  .onMalformedInput(CodingErrorAction.REPLACE)
+                                  .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)) {
+                this.fastPath = FAST_PATH_ASCII;
+            } else if (charset.equals(StandardCharsets.ISO_8859_1)) {
+                this.fastPath = FAST_PATH_LATIN1;
+            } else {
+                this.fastPath = FAST_PATH_NONE;
+            }
+            this.window = mapWindow(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private MappedByteBuffer mapWindow(long start) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+    }
+
+    /**
+     * @return 当前窗口是否为文件的最后一个窗口
+     */
+    private boolean isLastWindow() {
+        return windowStart + window.limit() >= fileSize;
+    }
+
+    /**
+     * 从当前窗口中第一个未消费的字节开始映射下一个窗口。
+     *
+     * @return 如果还有未读取的字节则返回 true
+     */
+    private boolean slideWindow() throws IOException {
+        long next = windowStart + window.position();
+        if (next >= fileSize) {
+            return false;
+        }
+        windowStart = next;
+        window = mapWindow(next);
+        return true;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (endOfInput) {
+            return -1;
+        }
+        final int end = off + len;
+        int p = off;
+        while (p < end) {
+            if (!window.hasRemaining()) {
+                if (isLastWindow() || !slideWindow()) {
+                    CharBuffer out = CharBuffer.wrap(cbuf, p, end - p);
+                    decoder.decode(window, out, true);
+                    decoder.flush(out);
+                    p = out.position();
+                    endOfInput = true;
+                    break;
+                }
+            }
+
+            if (fastPath == FAST_PATH_LATIN1) {
+                int k = window.position();
+                int n = Math.min(end - p, window.limit() - k);
+                for (int i = 0; i < n; i++) {
+                    cbuf[p++] = (char) (window.get(k + i) & 0xFF);
+                }
+                window.position(k + n);
+                continue;
+            }
+
+            int decodeLimit = window.limit();
+            if (fastPath == FAST_PATH_ASCII) {
+                int k = window.position();
+                final int lim = window.limit();
+                while (p < end && k < lim) {
+                    byte b = window.get(k);
+                    if (b < 0) break;
+                    cbuf[p++] = (char) b;
+                    k++;
+                }
+                window.position(k);
+                if (p == end || k == lim) {
+                    continue;
+                }
+                // 非 ASCII 字节段：ASCII 字节不会出现在多字节序列内部，因此该段（连同其后一个 ASCII 字节，
+                // 以便识别不完整的序列）可以独立交给解码器
+                int r = k;
+                while (r < lim && window.get(r) < 0) r++;
+                decodeLimit = r < lim ? r + 1 : lim;
+            }
+
+            final int windowLimit = window.limit();
+            boolean lastBytes = isLastWindow() && decodeLimit == windowLimit;
+            window.limit(decodeLimit);
+            CharBuffer out = CharBuffer.wrap(cbuf, p, end - p);
+            CoderResult result = decoder.decode(window, out, lastBytes);
+            window.limit(windowLimit);
+            p = out.position();
+            if (result.isOverflow()) {
+                break;
+            }
+            if (window.position() < decodeLimit && decodeLimit == windowLimit && !lastBytes) {
+                // 窗口末尾是不完整的多字节序列，从该序列开始映射下一个窗口
+                slideWindow();
+            }
+        }
+        if (p == off && endOfInput) {
+            return -1;
+        }
+        return p - off;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,272 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.math.BigDecimal;
+
+/**
+ * CSV 单元格数字扫描器，在不构造 {@link BigDecimal}、不依赖异常的前提下判断并解析数字。
+ * <p>
+ * 可识别的格式与 {@link BigDecimal#BigDecimal(String)} 一致：
+ * 可选的正负号、整数与小数部分（至少一侧有数字）、可选的 {@code e}/{@code E} 指数。
+ * 含有非 ASCII 字符的内容（例如全角数字）交由 {@link BigDecimal} 判断，以保持与其完全一致。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvNumberScanner {
+    /**
+     * 不是数字。
+     */
+    static final int NOT_NUMBER = 0;
+    /**
+     * 只由可选正负号与 ASCII 数字组成的整数。
+     */
+    static final int INTEGER = 1;
+    /**
+     * 带有小数点或指数的数字。
+     */
+    static final int DECIMAL = 2;
+    /**
+     * 含有非 ASCII 字符，需要交由 {@link BigDecimal} 判断。
+     */
+    static final int NON_ASCII = 3;
+
+    /**
+     * 可以精确表示为 double 的 10 的幂。
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private CsvNumberScanner() {
+    }
+
+    /**
+     * 对字符序列进行一次扫描，判断其数字类型。
+     *
+     * @param s 要判断的字符序列
+     * @return {@link #NOT_NUMBER}、{@link #INTEGER}、{@link #DECIMAL} 或 {@link #NON_ASCII} 之一
+     */
+    static int classify(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        if (len == 0) return NOT_NUMBER;
+        char c = s.charAt(0);
+        if (c == '+' || c == '-') {
+            i++;
+        }
+
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < len; i++) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (seenPoint) fractionDigits++;
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (i == len) {
+            if (digits == 0) return NOT_NUMBER;
+            return seenPoint ? DECIMAL : INTEGER;
+        }
+        if (c >= 0x80) return NON_ASCII;
+        if (digits == 0 || (c != 'e' && c != 'E')) return NOT_NUMBER;
+
+        // 指数部分
+        i++;
+        if (i == len) return NOT_NUMBER;
+        c = s.charAt(i);
+        boolean negativeExponent = false;
+        if (c == '+' || c == '-') {
+            negativeExponent = c == '-';
+            i++;
+            if (i == len) return NOT_NUMBER;
+        }
+        long exponent = 0;
+        for (; i < len; i++) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (exponent <= Integer.MAX_VALUE) {
+                    exponent = exponent * 10 + (c - '0');
+                }
+            } else if (c >= 0x80) {
+                return NON_ASCII;
+            } else {
+                return NOT_NUMBER;
+            }
+        }
+        // 与 BigDecimal 一致：指数本身以及与小数位数换算后的标度都必须落在 int 范围内
+        long signedExponent = negativeExponent ? -exponent : exponent;
+        if (signedExponent < Integer.MIN_VALUE || signedExponent > Integer.MAX_VALUE) return NOT_NUMBER;
+        long scale = fractionDigits - signedExponent;
+        if (scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) return NOT_NUMBER;
+        return DECIMAL;
+    }
+
+    /**
+     * 判断字符序列是否可以解析为数字。
+     *
+     * @param s 要判断的字符序列
+     * @return 如果可以解析为数字则返回 true
+     */
+    static boolean isNumber(CharSequence s) {
+        int type = classify(s);
+        if (type == NON_ASCII) {
+            try {
+                new BigDecimal(s.toString());
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return type != NOT_NUMBER;
+    }
+
+    /**
+     * 将数字精确转换为 long。
+     * <p>
+     * 不超过 18 个字符的整数直接按字符累加；其余情况借助 {@link BigDecimal#longValueExact()}。
+     *
+     * @param s    要转换的字符序列
+     * @param type 该字符序列的数字类型
+     * @return 转换结果
+     * @throws NumberFormatException 当内容不是数字时抛出
+     * @throws ArithmeticException   当数字带有非零小数部分或超出 long 范围时抛出
+     */
+    static long toLong(CharSequence s, int type) {
+        if (type == INTEGER && s.length() <= 18) {
+            return accumulate(s);
+        }
+        return toBigDecimal(s, type).longValueExact();
+    }
+
+    /**
+     * 将数字精确转换为 int。
+     *
+     * @param s    要转换的字符序列
+     * @param type 该字符序列的数字类型
+     * @return 转换结果
+     * @throws NumberFormatException 当内容不是数字时抛出
+     * @throws ArithmeticException   当数字带有非零小数部分或超出 int 范围时抛出
+     * @see #toLong(CharSequence, int)
+     */
+    static int toInt(CharSequence s, int type) {
+        if (type == INTEGER && s.length() <= 9) {
+            return (int) accumulate(s);
+        }
+        return toBigDecimal(s, type).intValueExact();
+    }
+
+    /**
+     * 将数字转换为最接近的 double。
+     * <p>
+     * 有效数字不超过 15 位、十进制指数在 ±22 以内时，结果由一次精确的乘除法直接得到；
+     * 其余情况交由 {@link Double#parseDouble(String)} 完成正确舍入。
+     *
+     * @param s    要转换的字符序列
+     * @param type 该字符序列的数字类型
+     * @return 转换结果
+     * @throws NumberFormatException 当内容不是数字时抛出
+     */
+    static double toDouble(CharSequence s, int type) {
+        if (type == NOT_NUMBER) {
+            throw new NumberFormatException("Cell value is not a number: " + s);
+        }
+        if (type == NON_ASCII) {
+            return new BigDecimal(s.toString()).doubleValue();
+        }
+
+        int len = s.length();
+        int i = 0;
+        boolean negative = false;
+        char c = s.charAt(0);
+        if (c == '+' || c == '-') {
+            negative = c == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean seenPoint = false;
+        for (; i < len; i++) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (mantissa == 0 && c == '0') {
+                    // 前导零不计入有效数字
+                    if (seenPoint) exponent--;
+                } else if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significantDigits++;
+                    if (seenPoint) exponent--;
+                } else {
+                    // 超出精度的数字不再累加，随后将走慢路径
+                    significantDigits++;
+                }
+            } else if (c == '.') {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (i < len) {
+            i++;
+            boolean negativeExponent = false;
+            c = s.charAt(i);
+            if (c == '+' || c == '-') {
+                negativeExponent = c == '-';
+                i++;
+            }
+            int e = 0;
+            for (; i < len; i++) {
+                if (e < 100_000) {
+                    e = e * 10 + (s.charAt(i) - '0');
+                }
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (significantDigits <= 15 && exponent >= -22 && exponent <= 22) {
+            double d = mantissa;
+            d = exponent < 0 ? d / EXACT_POWERS_OF_TEN[-exponent] : d * EXACT_POWERS_OF_TEN[exponent];
+            return negative ? -d : d;
+        }
+        return Double.parseDouble(s.toString());
+    }
+
+    /**
+     * 将数字转换为 {@link BigDecimal}。
+     *
+     * @param s    要转换的字符序列
+     * @param type 该字符序列的数字类型
+     * @return 转换结果
+     * @throws NumberFormatException 当内容不是数字时抛出
+     */
+    static BigDecimal toBigDecimal(CharSequence s, int type) {
+        if (type == NOT_NUMBER) {
+            throw new NumberFormatException("Cell value is not a number: " + s);
+        }
+        return new BigDecimal(s.toString());
+    }
+
+    private static long accumulate(CharSequence s) {
+        int i = 0;
+        boolean negative = false;
+        char c = s.charAt(0);
+        if (c == '+' || c == '-') {
+            negative = c == '-';
+            i++;
+        }
+        long value = 0;
+        for (int len = s.length(); i < len; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 在单独的线程中预读数据源的输入流。
+ * <p>
+ * 读取线程将数据源（例如解压流）的内容按块放入有界队列，调用方从队列中取出数据块，
+ * 因此解压等读取开销与调用方的解析并行进行；预读的数据不超过队列容量与块大小的乘积。
+ * <p>
+ * 数据源抛出的异常在调用方读到对应位置时重新抛出。关闭此输入流会停止读取线程并关闭数据源。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvPipelinedInputStream extends InputStream {
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4;
+    private static final byte[] END = new byte[0];
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> queue;
+    private final Thread readerThread;
+    private volatile @Nullable Throwable failure;
+    private volatile boolean closed = false;
+
+    private byte[] current = new byte[0];
+    private int position = 0;
+    private boolean ended = false;
+
+    CsvPipelinedInputStream(InputStream source) {
+        this(source, DEFAULT_CHUNK_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    CsvPipelinedInputStream(InputStream source, int chunkSize, int queueCapacity) {
+        this.source = source;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.readerThread = new Thread(() -> pump(chunkSize), "keel-csv-pipelined-reader");
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    private void pump(int chunkSize) {
+        try {
+            while (!closed) {
+                byte[] chunk = new byte[chunkSize];
+                int n = source.readNBytes(chunk, 0, chunkSize);
+                if (n > 0) {
+                    queue.put(n == chunkSize ? chunk : Arrays.copyOf(chunk, n));
+                }
+                if (n < chunkSize) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // 被关闭操作中断
+        } catch (Throwable e) {
+            // 包括数据源抛出的运行时异常与错误，都要交给调用方，否则调用方会一直等待
+            failure = e;
+        } finally {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                // 被关闭操作中断，调用方不会再读取
+            }
+        }
+    }
+
+    /**
+     * 确保当前数据块中还有未读的字节。
+     *
+     * @return 如果还有数据则返回 true；数据源已结束时返回 false
+     */
+    private boolean ensureData() throws IOException {
+        while (position >= current.length) {
+            if (ended) {
+                return false;
+            }
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            try {
+                current = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for data");
+            }
+            position = 0;
+            if (current == END) {
+                ended = true;
+                var e = this.failure;
+                if (e instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (e instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e instanceof Error error) {
+                    throw error;
+                }
+                if (e != null) {
+                    throw new IOException("Failed to read the source stream", e);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        readerThread.interrupt();
+        queue.clear();
+        source.close();
+    }
+}
@@ -0,0 +1,437 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * CSV 记录缓冲区，保存一条已解析记录中所有单元格的内容。
+ * <p>
+ * 所有单元格的内容（已去除引号与转义）连续存放在同一个可复用的数组中，
+ * 每个单元格仅以其在数组中的结束偏移量表示，只有在需要时才生成字符串。
+ * <p>
+ * 缓冲区有两种存储方式：字符模式存放已解码的字符；字节模式存放尚未解码的原始字节，
+ * 仅在读取某个单元格时才按 {@link #byteCharset()} 解码。字节模式下偏移量以字节计。
+ * <p>
+ * 设置列投影后，未被选中的单元格的内容在追加时即被丢弃，只记录其（空的）边界，
+ * 因此解析器仍按原始列索引写入，但不会为这些单元格复制任何字符。
+ * <p>
+ * 设置单元格过滤条件后，被过滤的单元格在结束时立即求值；不满足条件时该记录被标记为已拒绝，
+ * 其余单元格的内容同样被丢弃，解析器只需继续扫描到记录末尾。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class CsvRecordBuffer {
+    private static final char[] NO_CHARS = new char[0];
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final @Nullable Charset byteCharset;
+    private char[] chars;
+    private byte[] bytes;
+    private int length;
+    private int[] cellEnds;
+    private int cellCount;
+    /**
+     * 按原始列索引标记被选中的列；为 null 时不做投影。
+     */
+    private boolean @Nullable [] selected;
+    /**
+     * 当前正在写入的单元格是否未被选中，其内容应被丢弃。
+     */
+    private boolean skipping = false;
+    /**
+     * 按原始列索引排列的过滤条件；为 null 时不做过滤。
+     */
+    private @Nullable CsvCellFilter @Nullable [] filters;
+    private final CsvCharSlice filterSlice = new CsvCharSlice();
+    private boolean rejected = false;
+    /**
+     * 每次清空缓冲区时递增，用于识别已失效的行视图。
+     */
+    private long generation = 0;
+
+    /**
+     * 创建字符模式的记录缓冲区。
+     */
+    CsvRecordBuffer() {
+        this(null, new char[256], NO_BYTES, 0, new int[16], 0);
+    }
+
+    /**
+     * 创建字节模式的记录缓冲区。
+     *
+     * @param byteCharset 原始字节的字符集，须以单字节表示全部 ASCII 字符，且 ASCII 字节不会出现在多字节字符内部
+     */
+    CsvRecordBuffer(Charset byteCharset) {
+        this(byteCharset, NO_CHARS, new byte[256], 0, new int[16], 0);
+    }
+
+    private CsvRecordBuffer(@Nullable Charset byteCharset, char[] chars, byte[] bytes, int length, int[] cellEnds, int cellCount) {
+        this.byteCharset = byteCharset;
+        this.chars = chars;
+        this.bytes = bytes;
+        this.length = length;
+        this.cellEnds = cellEnds;
+        this.cellCount = cellCount;
+    }
+
+    /**
+     * @return 字节模式下原始字节的字符集；字符模式下为 null
+     */
+    @Nullable Charset byteCharset() {
+        return byteCharset;
+    }
+
+    /**
+     * 清空缓冲区，准备接收下一条记录。
+     */
+    void reset() {
+        length = 0;
+        cellCount = 0;
+        generation++;
+        rejected = false;
+        skipping = isSkipped(0);
+    }
+
+    /**
+     * 设置列投影，从下一条记录开始生效。
+     *
+     * @param selected 按原始列索引标记被选中的列，超出数组长度的列视为未选中；为 null 时取消投影
+     */
+    void setProjection(boolean @Nullable [] selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * 设置单元格过滤条件，从下一条记录开始生效。被过滤的列必须同时被列投影选中（如果设置了列投影）。
+     *
+     * @param filters 按原始列索引排列的过滤条件，没有条件的列为 null；为 null 时取消过滤
+     */
+    void setFilters(@Nullable CsvCellFilter @Nullable [] filters) {
+        this.filters = filters;
+    }
+
+    /**
+     * 判断当前记录是否满足全部过滤条件；记录中没有被过滤的列时视为不满足。
+     *
+     * @return 满足全部过滤条件则返回 true
+     */
+    boolean accepted() {
+        var f = this.filters;
+        return !rejected && (f == null || cellCount >= f.length);
+    }
+
+    private boolean isSkipped(int i) {
+        var s = this.selected;
+        return s != null && (i >= s.length || !s[i]);
+    }
+
+    /**
+     * @return 当前记录的代数，每条新记录都会递增
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * 复制当前记录，生成一个大小恰好、不再被复用的独立缓冲区。
+     *
+     * @return 当前记录的独立副本
+     */
+    CsvRecordBuffer copy() {
+        return new CsvRecordBuffer(
+                byteCharset,
+                byteCharset == null ? Arrays.copyOf(chars, length) : NO_CHARS,
+                byteCharset == null ? NO_BYTES : Arrays.copyOf(bytes, length),
+                length,
+                Arrays.copyOf(cellEnds, Math.max(cellCount, 1)), cellCount
+        );
+    }
+
+    /**
+     * 向当前单元格追加一段字符。
+     *
+     * @param src 源字符数组
+     * @param off 起始偏移量
+     * @param len 字符数量
+     */
+    void append(char[] src, int off, int len) {
+        if (len <= 0 || skipping) return;
+        ensureCharCapacity(length + len);
+        System.arraycopy(src, off, chars, length, len);
+        length += len;
+    }
+
+    /**
+     * 向当前单元格追加一个字符。
+     *
+     * @param c 要追加的字符
+     */
+    void append(char c) {
+        if (skipping) return;
+        ensureCharCapacity(length + 1);
+        chars[length++] = c;
+    }
+
+    /**
+     * 向当前单元格追加一段原始字节，仅用于字节模式。
+     *
+     * @param src 源字节数组
+     * @param off 起始偏移量
+     * @param len 字节数量
+     */
+    void append(byte[] src, int off, int len) {
+        if (len <= 0 || skipping) return;
+        ensureByteCapacity(length + len);
+        System.arraycopy(src, off, bytes, length, len);
+        length += len;
+    }
+
+    /**
+     * 向当前单元格追加一个原始字节，仅用于字节模式。
+     *
+     * @param b 要追加的字节
+     */
+    void append(byte b) {
+        if (skipping) return;
+        ensureByteCapacity(length + 1);
+        bytes[length++] = b;
+    }
+
+    /**
+     * 结束当前单元格。
+     */
+    void endCell() {
+        if (cellCount == cellEnds.length) {
+            cellEnds = Arrays.copyOf(cellEnds, cellEnds.length * 2);
+        }
+        cellEnds[cellCount++] = length;
+        var f = this.filters;
+        if (f != null && !rejected && cellCount <= f.length) {
+            var filter = f[cellCount - 1];
+            if (filter != null && !filter.test(this, cellCount - 1, filterSlice)) {
+                rejected = true;
+            }
+        }
+        skipping = rejected || isSkipped(cellCount);
+    }
+
+    /**
+     * 去除当前单元格末尾的空格与制表符，但保留单元格的前 {@code protectedLength} 个字符，仅用于字符模式。
+     *
+     * @param protectedLength 不可去除的前缀长度
+     */
+    void trimCurrentCellEnd(int protectedLength) {
+        int min = length - currentCellLength() + protectedLength;
+        while (length > min && (chars[length - 1] == ' ' || chars[length - 1] == '\t')) {
+            length--;
+        }
+    }
+
+    /**
+     * @return 当前正在写入的单元格已累积的长度（字节模式下以字节计）
+     */
+    int currentCellLength() {
+        return length - (cellCount == 0 ? 0 : cellEnds[cellCount - 1]);
+    }
+
+    /**
+     * @return 已结束的单元格数量
+     */
+    int cellCount() {
+        return cellCount;
+    }
+
+    /**
+     * @param i 单元格索引
+     * @return 指定单元格在存储数组中的起始偏移量
+     */
+    int cellStart(int i) {
+        checkCellIndex(i);
+        return i == 0 ? 0 : cellEnds[i - 1];
+    }
+
+    /**
+     * @param i 单元格索引
+     * @return 指定单元格在存储数组中的结束偏移量（不含）
+     */
+    int cellEnd(int i) {
+        checkCellIndex(i);
+        return cellEnds[i];
+    }
+
+    /**
+     * 获取指定单元格的字符数；字节模式下仅当单元格含有非 ASCII 字节时才需要解码。
+     *
+     * @param i 单元格索引
+     * @return 单元格内容的字符数
+     */
+    int cellLength(int i) {
+        int start = cellStart(i);
+        int end = cellEnds[i];
+        if (byteCharset != null && !isAscii(start, end)) {
+            return cellString(i).length();
+        }
+        return end - start;
+    }
+
+    /**
+     * 判断指定单元格的内容是否与给定字符序列相同；字节模式下仅当单元格含有非 ASCII 字节时才需要解码。
+     *
+     * @param i        单元格索引
+     * @param expected 要比较的字符序列
+     * @return 内容相同则返回 true，否则返回 false
+     */
+    boolean cellContentEquals(int i, CharSequence expected) {
+        int start = cellStart(i);
+        int end = cellEnds[i];
+        if (byteCharset != null) {
+            if (!isAscii(start, end)) {
+                return cellString(i).contentEquals(expected);
+            }
+            if (end - start != expected.length()) {
+                return false;
+            }
+            for (int k = start; k < end; k++) {
+                if (bytes[k] != expected.charAt(k - start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int k = start; k < end; k++) {
+            if (chars[k] != expected.charAt(k - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断指定单元格的内容是否以给定字符串开头；字节模式下仅当前缀含有非 ASCII 字符时才需要解码。
+     *
+     * @param i      单元格索引
+     * @param prefix 前缀
+     * @return 以该前缀开头则返回 true，否则返回 false
+     */
+    boolean cellStartsWith(int i, String prefix) {
+        int start = cellStart(i);
+        int end = cellEnds[i];
+        int n = prefix.length();
+        if (byteCharset != null) {
+            for (int k = 0; k < n; k++) {
+                if (prefix.charAt(k) >= 0x80) {
+                    return cellString(i).startsWith(prefix);
+                }
+            }
+            // 前缀全为 ASCII 时逐字节比较：ASCII 字节不会出现在多字节字符内部
+            if (end - start < n) {
+                return false;
+            }
+            for (int k = 0; k < n; k++) {
+                if (bytes[start + k] != prefix.charAt(k)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (end - start < n) {
+            return false;
+        }
+        for (int k = 0; k < n; k++) {
+            if (chars[start + k] != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 令给定的字符序列指向指定单元格的内容。
+     *
+     * @param i     单元格索引
+     * @param slice 要复用的字符序列
+     * @return 指向该单元格内容的字符序列
+     */
+    CsvCharSlice cellSlice(int i, CsvCharSlice slice) {
+        int start = cellStart(i);
+        var charset = this.byteCharset;
+        if (charset != null) {
+            return slice.set(bytes, start, cellEnds[i], charset);
+        }
+        return slice.set(chars, start, cellEnds[i]);
+    }
+
+    /**
+     * 将指定单元格的内容生成为字符串。
+     *
+     * @param i 单元格索引
+     * @return 单元格内容
+     */
+    String cellString(int i) {
+        int start = cellStart(i);
+        var charset = this.byteCharset;
+        if (charset != null) {
+            return new String(bytes, start, cellEnds[i] - start, charset);
+        }
+        return new String(chars, start, cellEnds[i] - start);
+    }
+
+    /**
+     * 将当前记录生成为独立的 {@link CsvRow} 对象。
+     *
+     * @return 包含当前记录所有单元格的 CSV 行
+     */
+    CsvRow toCsvRow() {
+        CsvRow row = new CsvRow();
+        for (int i = 0; i < cellCount; i++) {
+            row.addCell(new CsvCell(cellString(i)));
+        }
+        return row;
+    }
+
+    /**
+     * 将当前记录中指定的列按给定顺序生成为 {@link CsvRow} 对象。
+     *
+     * @param columns 原始列索引，按投影顺序排列
+     * @return 依次包含指定列的 CSV 行；记录中没有的列为值为 null 的单元格
+     */
+    CsvRow toCsvRow(int[] columns) {
+        CsvRow row = new CsvRow();
+        for (int column : columns) {
+            row.addCell(new CsvCell(column < cellCount ? cellString(column) : null));
+        }
+        return row;
+    }
+
+    private boolean isAscii(int start, int end) {
+        for (int k = start; k < end; k++) {
+            if (bytes[k] < 0) return false;
+        }
+        return true;
+    }
+
+    private void checkCellIndex(int i) {
+        if (i < 0 || i >= cellCount) {
+            throw new IndexOutOfBoundsException("Cell index " + i + " out of bounds for length " + cellCount);
+        }
+    }
+
+    private void ensureCharCapacity(int required) {
+        if (required > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(required, chars.length * 2));
+        }
+    }
+
+    private void ensureByteCapacity(int required) {
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
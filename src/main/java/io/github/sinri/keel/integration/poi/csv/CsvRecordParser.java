@@ -0,0 +1,38 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * CSV 记录解析器，将数据源逐条解析为 {@link CsvRecordBuffer} 中的记录。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+interface CsvRecordParser extends Closeable {
+    /**
+     * 创建一个与此解析器的存储方式相匹配的记录缓冲区。
+     *
+     * @return 新的记录缓冲区
+     */
+    CsvRecordBuffer newRecordBuffer();
+
+    /**
+     * 设置单个单元格允许的最大长度。
+     *
+     * @param maxCellLength 单个单元格允许的最大长度，必须为正数
+     */
+    void setMaxCellLength(int maxCellLength);
+
+    /**
+     * 解析下一条记录并写入指定的记录缓冲区。
+     *
+     * @param record 由 {@link #newRecordBuffer()} 创建的记录缓冲区，解析前会被清空
+     * @return 如果解析到一条记录则返回 true；如果已没有更多数据则返回 false
+     * @throws IOException 当读取数据源发生 IO 异常，或单元格长度超出限制时抛出；
+     *                     单元格长度超出限制后，之后的每次调用都会再次抛出同一异常
+     */
+    boolean parseNext(CsvRecordBuffer record) throws IOException;
+}
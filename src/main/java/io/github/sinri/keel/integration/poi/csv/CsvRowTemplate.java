@@ -0,0 +1,123 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * CSV 行模板，由表头行生成，定义列名与列索引的映射关系；
+ * 与 {@link io.github.sinri.keel.integration.poi.excel.entity.KeelSheetMatrixRowTemplate} 相对应。
+ * <p>
+ * 同一个模板由读取器产生的所有 {@link CsvTemplatedRow} 共享。按列名查找只需在循环之外通过
+ * {@link #column(String)} 编译一次，得到的 {@link CsvColumn} 在每一行上都是直接的索引访问：
+ * <pre>{@code
+ * CsvRowTemplate template = reader.readHeader();
+ * CsvColumn amount = template.column("amount");
+ * CsvTemplatedRow row;
+ * while ((row = reader.nextTemplated()) != null) {
+ *     total += row.getCell(amount).getLong();
+ * }
+ * }</pre>
+ * 表头中有重名的列时，按列名查找得到第一个同名的列。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class CsvRowTemplate {
+    private final List<String> columnNames;
+    private final Map<String, CsvColumn> columns;
+
+    private CsvRowTemplate(List<String> columnNames) {
+        this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+        this.columns = new HashMap<>(columnNames.size() * 2);
+        for (int i = 0; i < columnNames.size(); i++) {
+            String name = columnNames.get(i);
+            this.columns.putIfAbsent(name, new CsvColumn(this, name, i));
+        }
+    }
+
+    /**
+     * 创建行模板实例。
+     *
+     * @param headerRow 表头行的列名列表
+     * @return 行模板实例
+     */
+    public static CsvRowTemplate create(List<String> headerRow) {
+        return new CsvRowTemplate(headerRow);
+    }
+
+    /**
+     * 由已读取的表头行创建行模板实例，值为 null 的单元格视为空列名。
+     *
+     * @param headerRow 表头行
+     * @return 行模板实例
+     */
+    public static CsvRowTemplate create(CsvRow headerRow) {
+        List<String> names = new ArrayList<>(headerRow.size());
+        for (int i = 0; i < headerRow.size(); i++) {
+            names.add(Objects.requireNonNullElse(headerRow.getCell(i).getString(), ""));
+        }
+        return new CsvRowTemplate(names);
+    }
+
+    /**
+     * 获取指定索引处的列名。
+     *
+     * @param i 列索引，从 0 开始
+     * @return 指定索引处的列名
+     * @throws IndexOutOfBoundsException 当索引超出范围时抛出
+     */
+    public String getColumnName(int i) {
+        return columnNames.get(i);
+    }
+
+    /**
+     * 获取指定列名的索引。
+     *
+     * @param name 要查找的列名
+     * @return 第一个同名列的索引，如果未找到则返回 null
+     */
+    public @Nullable Integer getColumnIndex(String name) {
+        CsvColumn column = columns.get(name);
+        return column == null ? null : column.getIndex();
+    }
+
+    /**
+     * 获取指定列名对应的列访问器，应在逐行处理之前调用一次并复用其结果。
+     *
+     * @param name 列名
+     * @return 第一个同名列的访问器
+     * @throws IllegalArgumentException 当模板中没有该列时抛出
+     */
+    public CsvColumn column(String name) {
+        CsvColumn column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("No such column in CSV header: " + name);
+        }
+        return column;
+    }
+
+    /**
+     * 获取所有列名列表。
+     *
+     * @return 不可修改的列名列表
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * 获取表头中的列数。
+     *
+     * @return 表头中的列数
+     */
+    public int size() {
+        return columnNames.size();
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * CSV 行视图，直接引用读取器内部共享的记录缓冲区。
+ * <p>
+ * 与 {@link CsvRow} 不同，行视图只保存记录缓冲区与各列的偏移量索引，
+ * 仅在访问某一列时才为该列生成字符串或 {@link CsvCell}，适合只读取少数几列的过滤与投影场景。
+ * <p>
+ * 由 {@link KeelCsvReader#nextView()} 得到的行视图只在下一次读取之前有效，之后访问将抛出
+ * {@link IllegalStateException}；如需在下一次读取之后继续持有该行，请调用 {@link #detach()}。
+ * <p>
+ * 由 {@link KeelCsvReader#current()} 得到的行视图是游标，每次 {@link KeelCsvReader#advance()} 之后
+ * 同一个实例会重新指向新的记录，并复用其单元格缓存。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class CsvRowView {
+    private final CsvRecordBuffer record;
+    private final boolean detached;
+    private long generation;
+    private @Nullable CsvCell @Nullable [] cellCache;
+    private @Nullable CsvCharSlice slice;
+
+    CsvRowView(CsvRecordBuffer record, boolean detached) {
+        this.record = record;
+        this.generation = record.generation();
+        this.detached = detached;
+    }
+
+    /**
+     * 令此行视图指向记录缓冲区中的最新记录，并清空单元格缓存以便复用。
+     */
+    void rebind() {
+        this.generation = record.generation();
+        var cache = this.cellCache;
+        if (cache != null) {
+            if (cache.length >= record.cellCount()) {
+                Arrays.fill(cache, null);
+            } else {
+                this.cellCache = null;
+            }
+        }
+    }
+
+    /**
+     * 获取此行中的单元格数量。
+     *
+     * @return 此行中的单元格数量
+     */
+    public int size() {
+        checkValid();
+        return record.cellCount();
+    }
+
+    /**
+     * 获取指定索引处单元格的字符串值；每次调用都会生成新的字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处单元格的字符串值
+     */
+    public String getString(int i) {
+        checkValid();
+        return record.cellString(i);
+    }
+
+    /**
+     * 获取指定索引处的 CSV 单元格；同一列的单元格只会生成一次。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处的 CSV 单元格
+     */
+    public CsvCell getCell(int i) {
+        checkValid();
+        var cache = this.cellCache;
+        if (cache == null) {
+            cache = new CsvCell[record.cellCount()];
+            this.cellCache = cache;
+        }
+        var cell = cache[i];
+        if (cell == null) {
+            cell = new CsvCell(record.cellString(i));
+            cache[i] = cell;
+        }
+        return cell;
+    }
+
+    /**
+     * 获取指定索引处单元格的字符数；除按字节解析且含有非 ASCII 字符的单元格外，不生成字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处单元格的字符数
+     */
+    public int getLength(int i) {
+        checkValid();
+        return record.cellLength(i);
+    }
+
+    /**
+     * 判断指定索引处的单元格是否为空字符串，不生成字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处的单元格是否为空字符串
+     */
+    public boolean isEmpty(int i) {
+        checkValid();
+        return record.cellEnd(i) == record.cellStart(i);
+    }
+
+    /**
+     * 判断指定索引处单元格的内容是否与给定字符序列相同；除按字节解析且含有非 ASCII 字符的单元格外，不生成字符串。
+     *
+     * @param i        单元格的索引
+     * @param expected 要比较的字符序列
+     * @return 内容相同则返回 true，否则返回 false
+     */
+    public boolean contentEquals(int i, CharSequence expected) {
+        checkValid();
+        return record.cellContentEquals(i, expected);
+    }
+
+    /**
+     * 判断指定索引处单元格的值是否可以解析为数字，不生成字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处单元格的值是否可以解析为数字
+     * @see CsvCell#isNumber()
+     */
+    public boolean isNumber(int i) {
+        return CsvNumberScanner.isNumber(slice(i));
+    }
+
+    /**
+     * 获取指定索引处单元格值对应的 long 值，整数直接从缓冲区解析，不生成字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处单元格值对应的 long 值
+     * @throws NumberFormatException 当单元格值无法解析为数字时抛出
+     * @throws ArithmeticException   当数字带有非零小数部分或超出 long 范围时抛出
+     * @see CsvCell#getLong()
+     */
+    public long getLong(int i) throws NumberFormatException, ArithmeticException {
+        CsvCharSlice s = slice(i);
+        return CsvNumberScanner.toLong(s, CsvNumberScanner.classify(s));
+    }
+
+    /**
+     * 获取指定索引处单元格值对应的 int 值，整数直接从缓冲区解析，不生成字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处单元格值对应的 int 值
+     * @throws NumberFormatException 当单元格值无法解析为数字时抛出
+     * @throws ArithmeticException   当数字带有非零小数部分或超出 int 范围时抛出
+     * @see CsvCell#getInt()
+     */
+    public int getInt(int i) throws NumberFormatException, ArithmeticException {
+        CsvCharSlice s = slice(i);
+        return CsvNumberScanner.toInt(s, CsvNumberScanner.classify(s));
+    }
+
+    /**
+     * 获取指定索引处单元格值对应的最接近的 double 值，常见精度的数字直接从缓冲区解析，不生成字符串。
+     *
+     * @param i 单元格的索引
+     * @return 指定索引处单元格值对应的 double 值
+     * @throws NumberFormatException 当单元格值无法解析为数字时抛出
+     * @see CsvCell#getDouble()
+     */
+    public double getDouble(int i) throws NumberFormatException {
+        CsvCharSlice s = slice(i);
+        return CsvNumberScanner.toDouble(s, CsvNumberScanner.classify(s));
+    }
+
+    private CsvCharSlice slice(int i) {
+        checkValid();
+        var s = this.slice;
+        if (s == null) {
+            s = new CsvCharSlice();
+            this.slice = s;
+        }
+        return record.cellSlice(i, s);
+    }
+
+    /**
+     * 判断此行视图是否已脱离读取器的共享缓冲区。
+     *
+     * @return 如果此行视图拥有独立的缓冲区则返回 true
+     */
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * 将此行复制到独立的缓冲区，得到可在后续读取之后继续使用的行视图。
+     * <p>
+     * 已脱离的行视图调用此方法将返回自身。
+     *
+     * @return 拥有独立缓冲区的行视图
+     */
+    public CsvRowView detach() {
+        checkValid();
+        if (detached) {
+            return this;
+        }
+        return new CsvRowView(record.copy(), true);
+    }
+
+    /**
+     * 将此行所有单元格生成为 {@link CsvRow} 对象。
+     *
+     * @return 包含此行所有单元格的 CSV 行
+     */
+    public CsvRow toCsvRow() {
+        checkValid();
+        return record.toCsvRow();
+    }
+
+    private void checkValid() {
+        if (record.generation() != generation) {
+            throw new IllegalStateException("This CsvRowView has been invalidated by a later read; call detach() to retain a row");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.vertx.core.json.JsonObject;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * 带有行模板的 CSV 行，可以按列索引、列名或预先编译的 {@link CsvColumn} 取值；
+ * 与 {@link io.github.sinri.keel.integration.poi.excel.entity.KeelSheetMatrixTemplatedRow} 相对应。
+ * <p>
+ * 行中的单元格少于表头的列数时，缺少的列视为值为 null 的单元格（参见 {@link CsvCell#isNull()}）。
+ * <p>
+ * 读取器设置了列投影（参见 {@link KeelCsvReader#setProjection(String...)}）时，原始行只含被选中的列，
+ * 但仍按表头中的列索引、列名或列访问器取值；访问未被选中的列将抛出 {@link IllegalArgumentException}。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class CsvTemplatedRow {
+    private final CsvRowTemplate template;
+    private final CsvRow row;
+    /**
+     * 表头列索引到原始行中位置的映射，未被选中的列为 -1；为 null 时原始行包含全部列。
+     */
+    private final int @Nullable [] columnMap;
+
+    /**
+     * 构造函数，使用指定的模板和原始行创建模板化行。
+     *
+     * @param template 行模板
+     * @param row      原始行
+     */
+    public CsvTemplatedRow(CsvRowTemplate template, CsvRow row) {
+        this(template, row, null);
+    }
+
+    CsvTemplatedRow(CsvRowTemplate template, CsvRow row, int @Nullable [] columnMap) {
+        this.template = template;
+        this.row = row;
+        this.columnMap = columnMap;
+    }
+
+    /**
+     * 获取行模板。
+     *
+     * @return 行模板
+     */
+    public CsvRowTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * 获取原始行。
+     *
+     * @return 原始行；设置了列投影时只含被选中的列，按投影顺序排列
+     */
+    public CsvRow getRawRow() {
+        return row;
+    }
+
+    /**
+     * 获取指定索引处的单元格。
+     *
+     * @param i 列索引
+     * @return 指定索引处的单元格；行中没有该列时返回值为 null 的单元格
+     * @throws IllegalArgumentException 当该列未被列投影选中时抛出
+     */
+    public CsvCell getCell(int i) {
+        int k = i;
+        var map = this.columnMap;
+        if (map != null) {
+            k = i < map.length ? map[i] : -1;
+            if (k < 0) {
+                throw new IllegalArgumentException("Column " + i + " is not included in the CSV projection");
+            }
+        }
+        return k < row.size() ? row.getCell(k) : new CsvCell(null);
+    }
+
+    /**
+     * 通过预先编译的列访问器获取单元格，开销与按索引访问相同。
+     *
+     * @param column 由此行的模板产生的列访问器
+     * @return 该列的单元格；行中没有该列时返回值为 null 的单元格
+     * @throws IllegalArgumentException 当列访问器不属于此行的模板时抛出
+     */
+    public CsvCell getCell(CsvColumn column) {
+        if (column.getTemplate() != template) {
+            throw new IllegalArgumentException("Column " + column + " belongs to a different CSV template");
+        }
+        return getCell(column.getIndex());
+    }
+
+    /**
+     * 按列名获取单元格；在逐行处理的循环中请改用 {@link #getCell(CsvColumn)}。
+     *
+     * @param name 列名
+     * @return 该列的单元格；行中没有该列时返回值为 null 的单元格
+     * @throws IllegalArgumentException 当模板中没有该列时抛出
+     */
+    public CsvCell getCell(String name) {
+        return getCell(template.column(name).getIndex());
+    }
+
+    /**
+     * 通过预先编译的列访问器获取单元格的字符串值。
+     *
+     * @param column 由此行的模板产生的列访问器
+     * @return 该列的字符串值；行中没有该列时返回 null
+     */
+    public @Nullable String getString(CsvColumn column) {
+        return getCell(column).getString();
+    }
+
+    /**
+     * 按列名获取单元格的字符串值。
+     *
+     * @param name 列名
+     * @return 该列的字符串值；行中没有该列时返回 null
+     * @throws IllegalArgumentException 当模板中没有该列时抛出
+     */
+    public @Nullable String getString(String name) {
+        return getCell(name).getString();
+    }
+
+    /**
+     * 将行数据转换为 JSON 对象，以模板中的列名为键、对应的字符串值为值；设置了列投影时只含被选中的列。
+     *
+     * @return 包含行数据的 JSON 对象
+     */
+    public JsonObject toJsonObject() {
+        var x = new JsonObject();
+        var map = this.columnMap;
+        for (int i = 0; i < template.size(); i++) {
+            if (map != null && (i >= map.length || map[i] < 0)) {
+                continue;
+            }
+            x.put(template.getColumnName(i), getCell(i).getString());
+        }
+        return x;
+    }
+}
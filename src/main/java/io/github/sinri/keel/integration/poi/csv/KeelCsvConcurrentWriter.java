@@ -0,0 +1,193 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 支持多个线程同时写入的 CSV 写入器。
+ * <p>
+ * 各生产者线程只提交完整的行：行被复制后放入无锁队列，由唯一的编码线程依次取出，
+ * 交给内部的 {@link KeelCsvWriter} 编码并写入输出流。生产者之间、生产者与编码线程之间都不需要获取监视器锁。
+ * <p>
+ * 同一个生产者线程提交的行按提交顺序写出；不同生产者线程提交的行之间的先后顺序不作保证，但每一行都是完整的。
+ * <p>
+ * 队列中尚未写出的行数达到上限时，生产者线程会短暂休眠等待编码线程追上，以免占用无限的内存。
+ * 编码线程写入失败后，之后的 {@link #writeRow(List)} 与 {@link #close()} 都会抛出该异常。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public class KeelCsvConcurrentWriter implements Closeable {
+    /**
+     * 默认允许在队列中等待写出的最大行数。
+     */
+    public static final int DEFAULT_MAX_PENDING_ROWS = 65536;
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final KeelCsvWriter writer;
+    private final ConcurrentLinkedQueue<String[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingRows = new AtomicInteger();
+    private final int maxPendingRows;
+    private final Thread encoderThread;
+    private volatile boolean encoderParked = false;
+    private volatile boolean closed = false;
+    private volatile @Nullable IOException failure;
+
+    /**
+     * 构造函数，使用 UTF-8 字符集与逗号分隔符创建并发 CSV 写入器。
+     *
+     * @param outputStream 用于写入 CSV 数据的输出流
+     */
+    public KeelCsvConcurrentWriter(OutputStream outputStream) {
+        this(outputStream, ",", StandardCharsets.UTF_8, DEFAULT_MAX_PENDING_ROWS);
+    }
+
+    /**
+     * 构造函数，使用指定的输出流、分隔符、字符集与队列上限创建并发 CSV 写入器，并启动编码线程。
+     *
+     * @param outputStream   用于写入 CSV 数据的输出流
+     * @param separator      CSV 文件中使用的分隔符
+     * @param charset        CSV 文件的字符集
+     * @param maxPendingRows 允许在队列中等待写出的最大行数，必须为正数
+     */
+    public KeelCsvConcurrentWriter(OutputStream outputStream, String separator, Charset charset, int maxPendingRows) {
+        if (maxPendingRows <= 0) {
+            throw new IllegalArgumentException("maxPendingRows must be positive");
+        }
+        this.writer = KeelCsvWriter.singleWriter(outputStream, separator, charset);
+        this.maxPendingRows = maxPendingRows;
+        this.encoderThread = new Thread(this::drain, "keel-csv-concurrent-writer");
+        this.encoderThread.setDaemon(true);
+        this.encoderThread.start();
+    }
+
+    /**
+     * 提交一行数据，可由任意线程调用。
+     * <p>
+     * 行在提交时被复制，之后修改传入的列表不会影响写出的内容。
+     *
+     * @param row 要写入的行数据列表
+     * @throws IOException 当编码线程此前写入失败时抛出
+     * @throws IllegalStateException 当写入器已关闭时抛出
+     */
+    public void writeRow(List<String> row) throws IOException {
+        checkOpen();
+        while (pendingRows.get() >= maxPendingRows) {
+            // 等待期间编码线程可能失败或写入器被关闭，此时队列不会再被消费
+            checkOpen();
+            LockSupport.parkNanos(BACKOFF_NANOS);
+        }
+        String[] copy = row.toArray(new String[0]);
+        pendingRows.incrementAndGet();
+        queue.offer(copy);
+        if (encoderParked) {
+            LockSupport.unpark(encoderThread);
+        }
+        // 入队之后再检查一次：失败时队列已被清空；关闭后若该行仍在队列中，编码线程可能已经退出
+        checkFailure();
+        if (closed && queue.remove(copy)) {
+            pendingRows.decrementAndGet();
+            throw new IllegalStateException("The CSV writer has been closed");
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The CSV writer has been closed");
+        }
+        checkFailure();
+    }
+
+    /**
+     * 等待队列中的行全部写出后关闭写入器与输出流；此后提交的行将被拒绝。
+     * <p>
+     * 调用前应确保各生产者线程都已完成提交，与关闭同时进行的提交可能不会被写出。
+     *
+     * @throws IOException 当编码线程写入失败，或关闭输出流失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(encoderThread);
+        boolean interrupted = false;
+        while (encoderThread.isAlive()) {
+            try {
+                encoderThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                throw e;
+            }
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        var e = this.failure;
+        if (e != null) {
+            throw new IOException("CSV encoder thread failed", e);
+        }
+    }
+
+    /**
+     * 编码线程的主循环：取出队列中的行依次写入，队列为空时休眠，直到有新的行提交或写入器关闭。
+     */
+    private void drain() {
+        try {
+            while (true) {
+                String[] row = queue.poll();
+                if (row != null) {
+                    writer.blockWriteRow(Arrays.asList(row));
+                    pendingRows.decrementAndGet();
+                    continue;
+                }
+                if (closed) {
+                    // 关闭前提交的行可能在上一次检查之后才入队
+                    if (queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                encoderParked = true;
+                // 设置标记后再检查一次，避免错过标记设置之前提交的行
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.park(this);
+                }
+                encoderParked = false;
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException(e));
+        }
+    }
+
+    private void fail(IOException e) {
+        failure = e;
+        queue.clear();
+        pendingRows.set(0);
+    }
+}
@@ -0,0 +1,325 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 面向本地大文件的并行 CSV 读取器。
+ * <p>
+ * 读取过程分为三步：
+ * <ol>
+ *     <li>按 {@link #setChunkSize(int)} 将文件划分为若干字节区间，并行统计每个区间内的引号数量；</li>
+ *     <li>根据前缀引号数量的奇偶性判断每个区间起点是否位于引号内，从起点向后找到第一个位于引号外的
+ *     {@code \n}，将其后一个字节作为该区间的实际起点，从而保证每个区间都从完整记录开始；</li>
+ *     <li>在 {@link ForkJoinPool} 上通过内存映射并行解析各区间，并按原始顺序或完成顺序交付行。</li>
+ * </ol>
+ * 解析规则与 {@link KeelCsvReader} 完全一致。由于区间边界只选在 {@code \n} 之后，
+ * 只使用 {@code \r} 作为行结束符的文件无法被切分，将退化为单线程解析。
+ * <p>
+ * 字节层面的边界识别要求引号与换行在该字符集中是单字节且不会出现在多字节字符内部，
+ * 因此仅支持 UTF-8、US-ASCII、ISO-8859-1、GBK 与 GB18030。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public class KeelCsvParallelReader {
+    private static final Set<String> SUPPORTED_CHARSETS = Set.of(
+            StandardCharsets.UTF_8.name(),
+            StandardCharsets.US_ASCII.name(),
+            StandardCharsets.ISO_8859_1.name(),
+            "GBK",
+            "GB18030"
+    );
+    private static final int SCAN_BLOCK_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Charset charset;
+    private final String separator;
+    private int chunkSize = 8 * 1024 * 1024;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private boolean ordered = true;
+
+    /**
+     * 构造函数，使用指定的文件路径、字符集和分隔符创建并行 CSV 读取器。
+     *
+     * @param path      CSV 文件路径
+     * @param charset   CSV 文件的字符集，须为 UTF-8、US-ASCII、ISO-8859-1、GBK 或 GB18030
+     * @param separator CSV 文件中使用的分隔符
+     * @throws IllegalArgumentException 当字符集不受支持时抛出
+     */
+    public KeelCsvParallelReader(Path path, Charset charset, String separator) {
+        if (!SUPPORTED_CHARSETS.contains(charset.name())) {
+            throw new IllegalArgumentException("Charset not supported for parallel reading: " + charset.name());
+        }
+        this.path = path;
+        this.charset = charset;
+        this.separator = separator;
+    }
+
+    /**
+     * 构造函数，使用 UTF-8 字符集与逗号分隔符创建并行 CSV 读取器。
+     *
+     * @param path CSV 文件路径
+     */
+    public KeelCsvParallelReader(Path path) {
+        this(path, StandardCharsets.UTF_8, ",");
+    }
+
+    /**
+     * 设置每个区间的目标字节数，默认为 8 MB。
+     * <p>
+     * 实际区间会向后延伸到下一条记录的起点。区间越大，每个任务暂存的行越多。
+     *
+     * @param chunkSize 每个区间的目标字节数
+     * @return 当前读取器，支持链式调用
+     */
+    public KeelCsvParallelReader setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * 设置执行解析任务的线程池，默认为 {@link ForkJoinPool#commonPool()}。
+     *
+     * @param pool 执行解析任务的线程池
+     * @return 当前读取器，支持链式调用
+     */
+    public KeelCsvParallelReader setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * 设置是否按文件中的原始顺序交付行，默认为 true。
+     * <p>
+     * 按顺序交付时，消费者在调用线程中被依次调用，同一时刻在内存中暂存的区间数量不超过线程池并行度的两倍；
+     * 不按顺序交付时，消费者会在线程池的多个工作线程中被并发调用，吞吐量最高，但消费者必须是线程安全的。
+     *
+     * @param ordered 是否按原始顺序交付行
+     * @return 当前读取器，支持链式调用
+     */
+    public KeelCsvParallelReader setOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * 以阻塞方式并行读取整个文件，并将每一行交给指定的消费者。
+     * <p>
+     * 消费者抛出异常或解析失败时，其余区间停止解析；此方法在所有已开始的任务结束后才抛出异常，
+     * 因此返回或抛出异常之后消费者不会再被调用。
+     *
+     * @param rowConsumer 行消费者
+     * @return 读取的总行数
+     * @throws IOException 当读取文件发生 IO 异常时抛出
+     */
+    public long forEach(Consumer<CsvRow> rowConsumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = computeChunkBoundaries(channel);
+            int chunkCount = boundaries.length - 1;
+            if (ordered) {
+                return readOrdered(channel, boundaries, chunkCount, rowConsumer);
+            } else {
+                return readUnordered(channel, boundaries, chunkCount, rowConsumer);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long readOrdered(FileChannel channel, long[] boundaries, int chunkCount, Consumer<CsvRow> rowConsumer) {
+        int window = Math.max(2, pool.getParallelism() * 2);
+        AtomicBoolean stopped = new AtomicBoolean();
+        Deque<ForkJoinTask<List<CsvRow>>> inFlight = new ArrayDeque<>();
+        int nextChunk = 0;
+        long rowCount = 0;
+        try {
+            while (nextChunk < chunkCount || !inFlight.isEmpty()) {
+                while (nextChunk < chunkCount && inFlight.size() < window) {
+                    long start = boundaries[nextChunk];
+                    long end = boundaries[nextChunk + 1];
+                    inFlight.addLast(pool.submit(() -> {
+                        List<CsvRow> rows = new ArrayList<>();
+                        parseChunk(channel, start, end, stopped, rows::add);
+                        return rows;
+                    }));
+                    nextChunk++;
+                }
+                List<CsvRow> rows = inFlight.removeFirst().join();
+                for (CsvRow row : rows) {
+                    rowConsumer.accept(row);
+                }
+                rowCount += rows.size();
+            }
+        } finally {
+            // 正常结束时已没有未完成的任务；否则通知其余任务停止，并等待正在执行的任务结束
+            stopped.set(true);
+            inFlight.forEach(ForkJoinTask::quietlyJoin);
+        }
+        return rowCount;
+    }
+
+    private long readUnordered(FileChannel channel, long[] boundaries, int chunkCount, Consumer<CsvRow> rowConsumer) {
+        AtomicLong rowCount = new AtomicLong();
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            long start = boundaries[i];
+            long end = boundaries[i + 1];
+            tasks.add(pool.submit(() -> {
+                try {
+                    rowCount.addAndGet(parseChunk(channel, start, end, stopped, rowConsumer));
+                } catch (RuntimeException | Error e) {
+                    stopped.set(true);
+                    throw e;
+                }
+            }));
+        }
+        try {
+            tasks.forEach(ForkJoinTask::join);
+        } finally {
+            // 消费者在工作线程中被调用，必须等所有任务结束后才能返回
+            stopped.set(true);
+            tasks.forEach(ForkJoinTask::quietlyJoin);
+        }
+        return rowCount.get();
+    }
+
+    /**
+     * 解析 {@code [start, end)} 区间内的所有记录；{@code stopped} 被设置后不再交付行。
+     *
+     * @return 解析的行数
+     */
+    private long parseChunk(FileChannel channel, long start, long end, AtomicBoolean stopped, Consumer<CsvRow> rowConsumer) {
+        if (stopped.get()) {
+            return 0;
+        }
+        try {
+            long length = end - start;
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("A single CSV chunk exceeds 2 GB; the file cannot be split at record boundaries");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            // 与 InputStreamReader 的默认行为一致：无法解码的字节替换为替换字符
+            CharBuffer chars = charset.newDecoder()
+                                      .onMalformedInput(CodingErrorAction.REPLACE)
+                                      .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                                      .decode(mapped);
+            long rowCount = 0;
+            try (CsvRecordParser parser = new CsvDialect().setSeparator(separator).createParser(
+                    new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining())
+            )) {
+                CsvRecordBuffer record = parser.newRecordBuffer();
+                while (!stopped.get() && parser.parseNext(record)) {
+                    rowConsumer.accept(record.toCsvRow());
+                    rowCount++;
+                }
+            }
+            return rowCount;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 计算各区间的实际边界，返回的数组首元素为 0、末元素为文件大小，且严格递增。
+     */
+    private long[] computeChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int nominalCount = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+        // 第一遍：并行统计每个名义区间内的引号数量
+        List<ForkJoinTask<Long>> quoteCountTasks = new ArrayList<>(nominalCount);
+        for (int i = 0; i < nominalCount; i++) {
+            long start = (long) i * chunkSize;
+            long end = Math.min(size, start + chunkSize);
+            quoteCountTasks.add(pool.submit(() -> countQuotes(channel, start, end)));
+        }
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long quotesBefore = 0;
+        for (int i = 1; i < nominalCount; i++) {
+            quotesBefore += quoteCountTasks.get(i - 1).join();
+            long nominalStart = (long) i * chunkSize;
+            long previous = boundaries.get(boundaries.size() - 1);
+            if (previous >= nominalStart) {
+                // 上一个区间已因超长记录延伸越过此处，由其后的名义起点继续切分
+                continue;
+            }
+            long boundary = findRecordStart(channel, nominalStart, (quotesBefore & 1) == 1, size);
+            if (boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        quoteCountTasks.forEach(ForkJoinTask::join);
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    private long countQuotes(FileChannel channel, long start, long end) {
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            long count = 0;
+            for (int i = 0, n = mapped.limit(); i < n; i++) {
+                if (mapped.get(i) == '"') count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 从指定位置向后寻找第一个位于引号外的 {@code \n}，返回其后一个字节的位置；找不到时返回文件大小。
+     */
+    private static long findRecordStart(FileChannel channel, long from, boolean inQuotes, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+        long position = from;
+        while (position < size) {
+            block.clear();
+            int n = channel.read(block, position);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                byte b = block.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+}
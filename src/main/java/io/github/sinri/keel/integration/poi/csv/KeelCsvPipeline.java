@@ -0,0 +1,328 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 基于 {@link KeelCsvReader} 的三段式 CSV 处理流水线，让单个大文件的导入可以同时利用多个处理器核心。
+ * <p>
+ * 流水线由三个阶段组成，阶段之间以有界的环形缓冲区（{@link ArrayBlockingQueue}）相连：
+ * <ol>
+ *     <li>读取线程从 {@link KeelCsvReader} 中依次切分出记录，只复制其原始内容与单元格边界，每 {@link #setBatchSize(int)} 行打包为一批；</li>
+ *     <li>{@link #setWorkers(int)} 个转换线程并行地为每一行生成单元格字符串与 {@link CsvRow}，再交给转换函数解析为业务对象；</li>
+ *     <li>调用 {@link #forEach(Consumer)} 的线程将转换结果依次交给消费者。</li>
+ * </ol>
+ * 缓冲区写满时上游阶段阻塞等待，同一时刻在内存中的批数不超过
+ * {@code 2 * queueCapacity + workers}，因此内存占用与文件大小无关。
+ * <pre>{@code
+ * try (KeelCsvReader reader = KeelCsvReader.open(path)) {
+ *     new KeelCsvPipeline<>(reader, row -> new Order(row.getCell(0).getString(), row.getCell(1).getNumber()))
+ *             .setWorkers(4)
+ *             .forEach(orderRepository::save);
+ * }
+ * }</pre>
+ * 记录的切分依赖引号状态，只能按顺序进行，因此始终在读取线程中完成；
+ * 单元格字符串与行对象的创建、单元格的解析与转换都在转换线程中并行进行。
+ * <p>
+ * 流水线不负责关闭读取器；在 {@link #forEach(Consumer)} 返回之前，读取器不能被其他线程使用。
+ *
+ * @param <T> 转换结果的类型
+ * @since 5.0.0
+ */
+@NullMarked
+public class KeelCsvPipeline<T> {
+    private static final long POLL_MILLIS = 50;
+
+    private final KeelCsvReader reader;
+    private final Function<CsvRow, ? extends @Nullable T> converter;
+    private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private int batchSize = 256;
+    private int queueCapacity = 16;
+    private boolean ordered = true;
+
+    /**
+     * 构造函数，使用指定的读取器与转换函数创建流水线。
+     *
+     * @param reader    提供记录的 CSV 读取器
+     * @param converter 将一行转换为结果的函数，会在多个转换线程中被并发调用；返回 null 时该行被丢弃
+     */
+    public KeelCsvPipeline(KeelCsvReader reader, Function<CsvRow, ? extends @Nullable T> converter) {
+        this.reader = reader;
+        this.converter = converter;
+    }
+
+    /**
+     * 设置转换线程的数量，默认为可用处理器数减一（读取线程占用一个），且至少为 1。
+     *
+     * @param workers 转换线程的数量
+     * @return 当前流水线，支持链式调用
+     */
+    public KeelCsvPipeline<T> setWorkers(int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * 设置每一批包含的行数，默认为 256。
+     * <p>
+     * 阶段之间以批为单位传递，批越大，线程间交接的开销越小，但每一批暂存的行也越多。
+     *
+     * @param batchSize 每一批包含的行数
+     * @return 当前流水线，支持链式调用
+     */
+    public KeelCsvPipeline<T> setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * 设置阶段之间每个缓冲区可以容纳的批数，默认为 16。
+     *
+     * @param queueCapacity 每个缓冲区可以容纳的批数
+     * @return 当前流水线，支持链式调用
+     */
+    public KeelCsvPipeline<T> setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * 设置是否按文件中的原始顺序交付结果，默认为 true。
+     * <p>
+     * 按顺序交付时，先完成转换的批会暂存到其前面的批交付之后；暂存的批同样计入内存上限，
+     * 因此一个转换较慢的批会使读取线程暂停，而不会让暂存无限增长。
+     *
+     * @param ordered 是否按原始顺序交付结果
+     * @return 当前流水线，支持链式调用
+     */
+    public KeelCsvPipeline<T> setOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * 以阻塞方式运行流水线直到读完全部记录，并在调用线程中将每一个转换结果交给消费者。
+     * <p>
+     * 任一阶段失败时，其余阶段随之停止，该异常在调用线程中重新抛出：
+     * 读取失败抛出原始的 {@link IOException}，转换函数或消费者抛出的运行时异常按原样抛出。
+     *
+     * @param consumer 结果消费者，只在调用线程中被依次调用
+     * @return 交付给消费者的结果数量
+     * @throws IOException 当读取 CSV 源失败，或调用线程在等待时被中断时抛出
+     */
+    public long forEach(Consumer<? super T> consumer) throws IOException {
+        BlockingQueue<Batch<CsvRecordBuffer>> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Batch<T>> converted = new ArrayBlockingQueue<>(queueCapacity);
+        // 读取线程每放出一批取得一个许可，结果交付后归还，从而限制包括重排暂存在内的全部在途批数
+        Semaphore window = new Semaphore(2 * queueCapacity + workers);
+        AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>(workers + 1);
+        threads.add(newThread("keel-csv-pipeline-reader", () -> read(parsed, window, failure)));
+        for (int i = 0; i < workers; i++) {
+            threads.add(newThread("keel-csv-pipeline-worker-" + i, () -> convert(parsed, converted, failure)));
+        }
+        threads.forEach(Thread::start);
+        try {
+            return consume(converted, window, failure, consumer);
+        } finally {
+            // 正常结束时各线程均已退出；提前结束时中断仍在等待缓冲区的线程
+            threads.forEach(Thread::interrupt);
+            joinAll(threads);
+        }
+    }
+
+    private static Thread newThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 第一阶段：切分记录并复制为独立的记录缓冲区，打包为批，读完后为每个转换线程放入一个结束标记。
+     */
+    private void read(BlockingQueue<Batch<CsvRecordBuffer>> parsed, Semaphore window, AtomicReference<@Nullable Throwable> failure) {
+        try {
+            long sequence = 0;
+            List<CsvRecordBuffer> rows = new ArrayList<>(batchSize);
+            CsvRecordBuffer record;
+            while ((record = reader.nextRecord()) != null) {
+                rows.add(record);
+                if (rows.size() == batchSize) {
+                    window.acquire();
+                    parsed.put(new Batch<>(sequence++, rows));
+                    rows = new ArrayList<>(batchSize);
+                }
+            }
+            if (!rows.isEmpty()) {
+                window.acquire();
+                parsed.put(new Batch<>(sequence, rows));
+            }
+            for (int i = 0; i < workers; i++) {
+                parsed.put(Batch.end());
+            }
+        } catch (InterruptedException e) {
+            // 其他阶段失败或消费者提前结束
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * 第二阶段：为每一批中的记录生成 {@link CsvRow} 并转换；收到结束标记后将其转交给消费阶段并退出。
+     */
+    private void convert(BlockingQueue<Batch<CsvRecordBuffer>> parsed, BlockingQueue<Batch<T>> converted, AtomicReference<@Nullable Throwable> failure) {
+        try {
+            while (true) {
+                Batch<CsvRecordBuffer> batch = parsed.take();
+                if (batch.isEnd()) {
+                    converted.put(Batch.end());
+                    return;
+                }
+                List<T> results = new ArrayList<>(batch.rows.size());
+                for (CsvRecordBuffer record : batch.rows) {
+                    T result = converter.apply(reader.toCsvRow(record));
+                    if (result != null) {
+                        results.add(result);
+                    }
+                }
+                converted.put(new Batch<>(batch.sequence, results));
+            }
+        } catch (InterruptedException e) {
+            // 其他阶段失败或消费者提前结束
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * 第三阶段：在调用线程中交付结果，直到收到全部转换线程的结束标记。
+     */
+    private long consume(BlockingQueue<Batch<T>> converted, Semaphore window, AtomicReference<@Nullable Throwable> failure, Consumer<? super T> consumer) throws IOException {
+        Map<Long, List<T>> pending = new HashMap<>();
+        long nextSequence = 0;
+        long delivered = 0;
+        int ended = 0;
+        while (ended < workers) {
+            Batch<T> batch = take(converted, failure);
+            if (batch.isEnd()) {
+                ended++;
+                continue;
+            }
+            if (!ordered) {
+                delivered += deliver(batch.rows, consumer);
+                window.release();
+                continue;
+            }
+            pending.put(batch.sequence, batch.rows);
+            List<T> rows;
+            while ((rows = pending.remove(nextSequence)) != null) {
+                delivered += deliver(rows, consumer);
+                window.release();
+                nextSequence++;
+            }
+        }
+        // 结束标记之后不会再有失败，但读取线程可能在放入结束标记之前失败
+        rethrowIfFailed(failure);
+        return delivered;
+    }
+
+    private long deliver(List<T> rows, Consumer<? super T> consumer) {
+        for (T row : rows) {
+            consumer.accept(row);
+        }
+        return rows.size();
+    }
+
+    private Batch<T> take(BlockingQueue<Batch<T>> converted, AtomicReference<@Nullable Throwable> failure) throws IOException {
+        try {
+            while (true) {
+                rethrowIfFailed(failure);
+                Batch<T> batch = converted.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    return batch;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the CSV pipeline");
+        }
+    }
+
+    private static void rethrowIfFailed(AtomicReference<@Nullable Throwable> failure) throws IOException {
+        Throwable e = failure.get();
+        if (e == null) {
+            return;
+        }
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        }
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IOException("CSV pipeline stage failed", e);
+    }
+
+    private static void joinAll(List<Thread> threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 阶段之间传递的一批行，按读取顺序编号；编号为负数的批是结束标记。
+     */
+    private static final class Batch<R> {
+        private final long sequence;
+        private final List<R> rows;
+
+        private Batch(long sequence, List<R> rows) {
+            this.sequence = sequence;
+            this.rows = rows;
+        }
+
+        private static <R> Batch<R> end() {
+            return new Batch<>(-1, List.of());
+        }
+
+        private boolean isEnd() {
+            return sequence < 0;
+        }
+    }
+}
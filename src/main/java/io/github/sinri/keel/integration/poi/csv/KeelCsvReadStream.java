@@ -0,0 +1,467 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 非阻塞的 CSV 行读取流，将陆续到达的 {@link Buffer} 数据块解析为 {@link CsvRow}。
+ * <p>
+ * 与 {@link KeelCsvReader} 不同，此类不从阻塞的 {@link java.io.InputStream} 中拉取数据，
+ * 而是由上游（例如 HTTP 上传或 {@code AsyncFile}）推送数据块，因此可以直接在事件循环中使用：
+ * <pre>{@code
+ * KeelCsvReadStream.wrap(request, StandardCharsets.UTF_8, new CsvDialect())
+ *                  .handler(row -> ...)
+ *                  .endHandler(v -> ...);
+ * }</pre>
+ * 也可以不指定上游，自行调用 {@link #handle(Buffer)} 推送数据块，并在数据结束时调用 {@link #end()}。
+ * <p>
+ * 数据块被增量解码后暂存，只有在确认一条记录已经完整到达时才交给解析器，因此解析过程不会等待数据；
+ * 暂存的数据仅包含尚未解析的部分，不会缓存整个文件。跨数据块的多字节字符与换行均能正确处理，
+ * 解析规则与 {@link KeelCsvReader} 使用相同方言时完全一致。
+ * <p>
+ * 流支持 {@link #pause()}、{@link #resume()} 与 {@link #fetch(long)} 背压：需求耗尽时暂停上游，
+ * 需求恢复且暂存的数据不足一行时恢复上游。
+ * <p>
+ * 此类不是线程安全的，应当在上游所在的 Vert.x 上下文中使用。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public class KeelCsvReadStream implements ReadStream<CsvRow>, Handler<Buffer> {
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final @Nullable ReadStream<Buffer> source;
+    private final CharsetDecoder decoder;
+    private final CsvRecordParser parser;
+    private final CsvRecordBuffer record;
+
+    private final char[] separator;
+    private final char quote;
+    /**
+     * 转义字符；未使用转义字符时为 -1，与 {@link CsvDialectRecordParser} 的处理一致。
+     */
+    private final int escape;
+    private final char[] commentPrefix;
+    /**
+     * 解析器在一条记录的行结束符之后最多需要预读的字符数。
+     */
+    private final int lookahead;
+
+    /**
+     * 已解码、尚未被解析器读取的字符暂存在 {@code [readPosition, writePosition)} 中。
+     */
+    private char[] pending = new char[1024];
+    private int readPosition = 0;
+    private int scanPosition = 0;
+    private int writePosition = 0;
+    /**
+     * 上一个数据块末尾未能构成完整字符的字节。
+     */
+    private byte[] undecoded = NO_BYTES;
+
+    private boolean scanInQuotes = false;
+    private boolean scanAtRecordStart = true;
+    private boolean scanInComment = false;
+    /**
+     * 已完整到达、尚未解析的记录数。
+     */
+    private long completeRecords = 0;
+
+    private long demand = Long.MAX_VALUE;
+    private boolean emitting = false;
+    private boolean inputEnded = false;
+    private boolean finished = false;
+    private boolean sourcePaused = false;
+
+    private @Nullable Handler<CsvRow> rowHandler;
+    private @Nullable Handler<Void> endHandler;
+    private @Nullable Handler<Throwable> exceptionHandler;
+
+    /**
+     * 构造函数，创建一个由调用方通过 {@link #handle(Buffer)} 与 {@link #end()} 推送数据的 CSV 读取流。
+     *
+     * @param charset CSV 数据的字符集
+     * @param dialect CSV 方言
+     * @throws IllegalArgumentException 当方言的各项设置相互冲突时抛出
+     */
+    public KeelCsvReadStream(Charset charset, CsvDialect dialect) {
+        this(null, charset, dialect);
+    }
+
+    private KeelCsvReadStream(@Nullable ReadStream<Buffer> source, Charset charset, CsvDialect dialect) {
+        this.source = source;
+        this.decoder = charset.newDecoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.parser = dialect.createParser(new PendingReader());
+        this.record = parser.newRecordBuffer();
+
+        this.separator = dialect.getSeparator().toCharArray();
+        this.quote = dialect.getQuote();
+        Character escapeChar = dialect.getEscape();
+        this.escape = escapeChar == null || escapeChar == quote ? -1 : escapeChar;
+        String prefix = dialect.getCommentPrefix();
+        this.commentPrefix = prefix == null ? new char[0] : prefix.toCharArray();
+        this.lookahead = Math.max(1, Math.max(separator.length, commentPrefix.length));
+    }
+
+    /**
+     * 包装上游的数据块读取流，创建 CSV 读取流。
+     * <p>
+     * 设置行处理器后开始从上游接收数据；上游结束时，剩余的数据被解析完毕后触发结束处理器。
+     *
+     * @param source  上游的数据块读取流
+     * @param charset CSV 数据的字符集
+     * @param dialect CSV 方言
+     * @return 解析上游数据的 CSV 读取流
+     * @throws IllegalArgumentException 当方言的各项设置相互冲突时抛出
+     */
+    public static KeelCsvReadStream wrap(ReadStream<Buffer> source, Charset charset, CsvDialect dialect) {
+        return new KeelCsvReadStream(source, charset, dialect);
+    }
+
+    /**
+     * 包装上游的数据块读取流，使用 UTF-8 字符集与默认方言创建 CSV 读取流。
+     *
+     * @param source 上游的数据块读取流
+     * @return 解析上游数据的 CSV 读取流
+     * @see #wrap(ReadStream, Charset, CsvDialect)
+     */
+    public static KeelCsvReadStream wrap(ReadStream<Buffer> source) {
+        return wrap(source, StandardCharsets.UTF_8, new CsvDialect());
+    }
+
+    /**
+     * 设置单个单元格允许的最大长度，默认不限制；超出限制时通过异常处理器报告 {@link IOException}，并停止解析。
+     *
+     * @param maxCellLength 单个单元格允许的最大字符数，必须为正数
+     * @return 当前 CSV 读取流，支持链式调用
+     */
+    public KeelCsvReadStream setMaxCellLength(int maxCellLength) {
+        this.parser.setMaxCellLength(maxCellLength);
+        return this;
+    }
+
+    /**
+     * 推送一个数据块。
+     *
+     * @param chunk 数据块，可以在任意字节处切分
+     * @throws IllegalStateException 当已调用过 {@link #end()} 时抛出
+     */
+    @Override
+    public void handle(Buffer chunk) {
+        if (inputEnded) {
+            throw new IllegalStateException("The CSV stream has already ended");
+        }
+        if (finished) {
+            return;
+        }
+        decode(chunk.getBytes(), false);
+        scan();
+        emit();
+    }
+
+    /**
+     * 通知数据已全部推送；剩余的数据被解析完毕后触发结束处理器。
+     */
+    public void end() {
+        if (inputEnded) {
+            return;
+        }
+        inputEnded = true;
+        if (finished) {
+            return;
+        }
+        decode(NO_BYTES, true);
+        emit();
+    }
+
+    @Override
+    public KeelCsvReadStream exceptionHandler(@Nullable Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public KeelCsvReadStream handler(@Nullable Handler<CsvRow> handler) {
+        this.rowHandler = handler;
+        var upstream = this.source;
+        if (upstream != null) {
+            if (handler != null) {
+                upstream.endHandler(v -> end());
+                upstream.exceptionHandler(this::fail);
+                upstream.handler(this);
+            } else {
+                upstream.handler(null);
+                upstream.endHandler(null);
+                upstream.exceptionHandler(null);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public KeelCsvReadStream pause() {
+        demand = 0L;
+        return this;
+    }
+
+    @Override
+    public KeelCsvReadStream resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public KeelCsvReadStream fetch(long amount) {
+        if (amount < 0L) {
+            throw new IllegalArgumentException("amount must not be negative");
+        }
+        demand += amount;
+        if (demand < 0L) {
+            demand = Long.MAX_VALUE;
+        }
+        emit();
+        return this;
+    }
+
+    @Override
+    public KeelCsvReadStream endHandler(@Nullable Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    /**
+     * 在需求允许的范围内解析并发送已完整到达的记录。
+     */
+    private void emit() {
+        if (emitting) {
+            return;
+        }
+        emitting = true;
+        try {
+            while (demand > 0L && !finished) {
+                if (completeRecords == 0 && !inputEnded) {
+                    // 暂存的数据不足一行：恢复上游；上游可能同步推送数据，因此恢复后再检查一次
+                    if (resumeSource()) {
+                        continue;
+                    }
+                    break;
+                }
+                boolean parsed;
+                try {
+                    parsed = parser.parseNext(record);
+                } catch (IOException e) {
+                    fail(e);
+                    return;
+                }
+                if (!parsed) {
+                    finished = true;
+                    var handler = this.endHandler;
+                    if (handler != null) {
+                        handler.handle(null);
+                    }
+                    return;
+                }
+                if (!inputEnded) {
+                    completeRecords--;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                var handler = this.rowHandler;
+                if (handler != null) {
+                    handler.handle(record.toCsvRow());
+                }
+            }
+            if (demand == 0L && !finished) {
+                pauseSource();
+            }
+        } finally {
+            emitting = false;
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        finished = true;
+        pauseSource();
+        var handler = this.exceptionHandler;
+        if (handler != null) {
+            handler.handle(throwable);
+        }
+    }
+
+    private boolean resumeSource() {
+        var upstream = this.source;
+        if (upstream == null || !sourcePaused) {
+            return false;
+        }
+        sourcePaused = false;
+        upstream.resume();
+        return true;
+    }
+
+    private void pauseSource() {
+        var upstream = this.source;
+        if (upstream != null && !sourcePaused && !inputEnded) {
+            sourcePaused = true;
+            upstream.pause();
+        }
+    }
+
+    /**
+     * 将数据块解码后追加到暂存区；多字节字符被切断时，其已到达的字节留待下一个数据块。
+     */
+    private void decode(byte[] bytes, boolean endOfInput) {
+        ByteBuffer in;
+        if (undecoded.length == 0) {
+            in = ByteBuffer.wrap(bytes);
+        } else {
+            byte[] joined = Arrays.copyOf(undecoded, undecoded.length + bytes.length);
+            System.arraycopy(bytes, 0, joined, undecoded.length, bytes.length);
+            in = ByteBuffer.wrap(joined);
+        }
+        compact((int) Math.ceil(in.remaining() * (double) decoder.maxCharsPerByte()) + 1);
+
+        while (true) {
+            CharBuffer out = CharBuffer.wrap(pending, writePosition, pending.length - writePosition);
+            CoderResult result = decoder.decode(in, out, endOfInput);
+            if (!result.isOverflow() && endOfInput) {
+                result = decoder.flush(out);
+            }
+            writePosition = out.position();
+            if (!result.isOverflow()) {
+                break;
+            }
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+
+        undecoded = in.hasRemaining() ? Arrays.copyOfRange(in.array(), in.position(), in.limit()) : NO_BYTES;
+    }
+
+    /**
+     * 丢弃已被读取并扫描过的字符，并确保暂存区至少还能追加 {@code required} 个字符。
+     */
+    private void compact(int required) {
+        int discard = Math.min(readPosition, scanPosition);
+        if (discard > 0) {
+            System.arraycopy(pending, discard, pending, 0, writePosition - discard);
+            readPosition -= discard;
+            scanPosition -= discard;
+            writePosition -= discard;
+        }
+        if (pending.length - writePosition < required) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, writePosition + required));
+        }
+    }
+
+    /**
+     * 从上次停止的位置继续扫描暂存区，统计已完整到达的记录。
+     * <p>
+     * 扫描只识别决定记录边界的字符：引号、转义字符、多字符分隔符与位于记录开头的注释前缀；
+     * 一条记录只有在其行结束符之后已到达 {@link #lookahead} 个字符时才被计入，以保证解析器的预读不会越过已到达的数据。
+     */
+    private void scan() {
+        final char[] buf = this.pending;
+        final int lim = this.writePosition;
+        int p = this.scanPosition;
+
+        while (p < lim) {
+            char c = buf[p];
+            if (scanAtRecordStart) {
+                if (commentPrefix.length > 0 && c == commentPrefix[0]) {
+                    if (lim - p < commentPrefix.length) {
+                        break;
+                    }
+                    if (Arrays.equals(buf, p, p + commentPrefix.length, commentPrefix, 0, commentPrefix.length)) {
+                        scanInComment = true;
+                        scanAtRecordStart = false;
+                        p += commentPrefix.length;
+                        continue;
+                    }
+                }
+                scanAtRecordStart = false;
+            }
+
+            if (c == '\n' || c == '\r') {
+                if (scanInQuotes) {
+                    p++;
+                    continue;
+                }
+                int end = p + 1;
+                if (c == '\r') {
+                    if (end == lim) {
+                        break;
+                    }
+                    if (buf[end] == '\n') {
+                        end++;
+                    }
+                }
+                if (lim - end < lookahead) {
+                    break;
+                }
+                if (!scanInComment) {
+                    completeRecords++;
+                }
+                scanInComment = false;
+                scanAtRecordStart = true;
+                p = end;
+            } else if (scanInComment) {
+                p++;
+            } else if (c == quote) {
+                scanInQuotes = !scanInQuotes;
+                p++;
+            } else if (c == escape) {
+                if (lim - p < 2) {
+                    break;
+                }
+                p += 2;
+            } else if (c == separator[0] && separator.length > 1 && !scanInQuotes) {
+                if (lim - p < separator.length) {
+                    break;
+                }
+                p += Arrays.equals(buf, p, p + separator.length, separator, 0, separator.length) ? separator.length : 1;
+            } else {
+                p++;
+            }
+        }
+        this.scanPosition = p;
+    }
+
+    /**
+     * 解析器的数据源，从暂存区读取字符；只有在确认数据足够时才会被读取，因此不会阻塞。
+     */
+    private final class PendingReader extends Reader {
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            int available = writePosition - readPosition;
+            if (available == 0) {
+                if (inputEnded) {
+                    return -1;
+                }
+                throw new IllegalStateException("CSV parser read beyond the received data");
+            }
+            int n = Math.min(len, available);
+            System.arraycopy(pending, readPosition, cbuf, off, n);
+            readPosition += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package io.github.sinri.keel.integration.poi.csv;
 
+import io.github.sinri.keel.integration.poi.csv.spi.CsvCompressionCodec;
 import io.vertx.core.Future;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
@@ -15,6 +20,7 @@ import java.util.function.Function;
  * CSV 文件读取器，提供对 CSV 文件的解析和读取功能。
  * <p>
  * 推荐使用静态方法 {@link KeelCsvReader#read(InputStream, Charset, String, Function)}。
+ * 如需在事件循环中解析由上游推送的数据块（例如 HTTP 上传），请使用 {@link KeelCsvReadStream}。
  * <p>
  *     TODO: 将来实现 {@link Iterator} 接口，并移除所有异步方法。
  *
@@ -22,18 +28,45 @@ import java.util.function.Function;
  */
 @NullMarked
 public class KeelCsvReader implements Closeable {
-    private final BufferedReader br;
-    private final String separator;
+    private final CsvRecordParser parser;
+    private final CsvRecordBuffer record;
+    private @Nullable CsvRowView cursor;
+    private boolean cursorPositioned = false;
+    private @Nullable CsvRowTemplate template;
+    /**
+     * 列投影选中的原始列索引，按投影顺序排列；为 null 时不做投影。
+     */
+    private int @Nullable [] projection;
+    /**
+     * 原始列索引到投影中位置的映射，未被选中的列为 -1。
+     */
+    private int @Nullable [] projectionMap;
+    /**
+     * 按原始列索引标记被列投影选中的列。
+     */
+    private boolean @Nullable [] projectionMask;
+    /**
+     * 按原始列索引排列的单元格过滤条件，没有条件的列为 null；为 null 时不做过滤。
+     */
+    private @Nullable CsvCellFilter @Nullable [] filters;
 
     /**
      * 构造函数，使用指定的 BufferedReader 和分隔符创建 CSV 读取器。
      *
      * @param br        用于读取 CSV 数据的 BufferedReader
-     * @param separator CSV 文件中使用的分隔符
+     * @param separator CSV 文件中使用的分隔符，可以由多个字符组成
      */
     public KeelCsvReader(BufferedReader br, String separator) {
-        this.br = br;
-        this.separator = separator;
+        this((Reader) br, separator);
+    }
+
+    private KeelCsvReader(Reader reader, String separator) {
+        this(new CsvDialect().setSeparator(separator).createParser(reader));
+    }
+
+    private KeelCsvReader(CsvRecordParser parser) {
+        this.parser = parser;
+        this.record = parser.newRecordBuffer();
     }
 
     public KeelCsvReader(InputStream inputStream, Charset charset) {
@@ -42,19 +75,304 @@ public class KeelCsvReader implements Closeable {
 
     /**
      * 构造函数，使用指定的输入流、字符集和分隔符创建 CSV 读取器。
+     * <p>
+     * 字符集为 UTF-8、US-ASCII 或 ISO-8859-1 时，直接在原始字节上解析记录结构，
+     * 只有被读取的单元格才会解码；其他字符集（例如 GBK）先解码为字符再解析。
      *
      * @param inputStream 用于读取 CSV 数据的输入流
      * @param charset     CSV 文件的字符集
      * @param separator   CSV 文件中使用的分隔符
      */
     public KeelCsvReader(InputStream inputStream, Charset charset, String separator) {
-        this(new BufferedReader(new InputStreamReader(inputStream, charset)), separator);
+        this(inputStream, charset, new CsvDialect().setSeparator(separator));
+    }
+
+    /**
+     * 构造函数，使用指定的输入流、字符集和 CSV 方言创建 CSV 读取器。
+     * <p>
+     * 方言在此时被编译为解析器，之后对方言的修改不会影响此读取器。
+     *
+     * @param inputStream 用于读取 CSV 数据的输入流
+     * @param charset     CSV 文件的字符集
+     * @param dialect     CSV 方言
+     * @throws IllegalArgumentException 当方言的各项设置相互冲突时抛出
+     */
+    public KeelCsvReader(InputStream inputStream, Charset charset, CsvDialect dialect) {
+        // 解析器自带缓冲区，无需再包装 BufferedReader
+        this(dialect.createParser(inputStream, charset));
     }
 
     public KeelCsvReader(BufferedReader br) {
         this(br, ",");
     }
 
+    /**
+     * 创建读取可能被压缩的 CSV 数据的读取器。
+     * <p>
+     * 按数据开头的魔数自动识别压缩格式（参见 {@link CsvCompression}），未压缩的数据按原样读取。
+     * 启用流水线时，数据的读取与解压在单独的线程中进行，与解析并行；关闭读取器时该线程随之停止。
+     *
+     * @param inputStream 可能被压缩的 CSV 数据的输入流
+     * @param charset     CSV 数据（解压后）的字符集
+     * @param dialect     CSV 方言
+     * @param pipelined   是否在单独的线程中读取与解压数据
+     * @return CSV 读取器
+     * @throws IOException 当读取数据开头或压缩头部失败时抛出
+     */
+    public static KeelCsvReader decompressing(InputStream inputStream, Charset charset, CsvDialect dialect, boolean pipelined) throws IOException {
+        InputStream decompressed = CsvCompression.decompress(inputStream, pipelined);
+        try {
+            return new KeelCsvReader(decompressed, charset, dialect);
+        } catch (IllegalArgumentException e) {
+            decompressed.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 以内存映射的方式打开本地 CSV 文件，创建 CSV 读取器。
+     * <p>
+     * 文件按固定大小的窗口依次映射并直接解码到解析缓冲区，省去 {@link InputStream} 的系统调用与中间拷贝，
+     * 也适用于超过 2 GB 的文件。对 UTF-8、US-ASCII 与 ISO-8859-1，ASCII 内容无需经过通用解码器。
+     * <p>
+     * 如果文件开头是已知压缩格式（例如 gzip）的魔数，则改为在单独的线程中流式解压，
+     * 参见 {@link #decompressing(InputStream, Charset, CsvDialect, boolean)}。
+     *
+     * @param path      CSV 文件路径
+     * @param charset   CSV 文件的字符集
+     * @param separator CSV 文件中使用的分隔符
+     * @return 读取指定文件的 CSV 读取器
+     * @throws IOException 当打开或映射文件失败时抛出
+     */
+    public static KeelCsvReader open(Path path, Charset charset, String separator) throws IOException {
+        return open(path, charset, new CsvDialect().setSeparator(separator));
+    }
+
+    /**
+     * 以内存映射的方式打开本地 CSV 文件，按指定的 CSV 方言创建 CSV 读取器。
+     *
+     * @param path    CSV 文件路径
+     * @param charset CSV 文件的字符集
+     * @param dialect CSV 方言
+     * @return 读取指定文件的 CSV 读取器
+     * @throws IOException 当打开或映射文件失败时抛出
+     * @see #open(Path, Charset, String)
+     */
+    public static KeelCsvReader open(Path path, Charset charset, CsvDialect dialect) throws IOException {
+        CsvCompressionCodec codec = CsvCompression.detect(path);
+        if (codec != null) {
+            InputStream inputStream = Files.newInputStream(path);
+            try {
+                return decompressing(inputStream, charset, dialect, true);
+            } catch (IOException | RuntimeException e) {
+                // 解压流未能创建时，文件句柄仍由此处持有
+                inputStream.close();
+                throw e;
+            }
+        }
+        CsvMappedFileReader reader = new CsvMappedFileReader(path, charset);
+        try {
+            return new KeelCsvReader(dialect.createParser(reader));
+        } catch (IllegalArgumentException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 以内存映射的方式打开本地 CSV 文件，使用 UTF-8 字符集与逗号分隔符创建 CSV 读取器。
+     *
+     * @param path CSV 文件路径
+     * @return 读取指定文件的 CSV 读取器
+     * @throws IOException 当打开或映射文件失败时抛出
+     * @see #open(Path, Charset, String)
+     */
+    public static KeelCsvReader open(Path path) throws IOException {
+        return open(path, StandardCharsets.UTF_8, ",");
+    }
+
+    /**
+     * 设置单个单元格允许的最大字符数，默认不限制。
+     * <p>
+     * 对于引号内包含大量换行的自由文本列，该限制可以让异常输入尽早失败，而不是无限制地占用内存。
+     * 超出限制时 {@link #next()} 将抛出 {@link IOException}；此时解析停在记录中间，之后的读取都会再次抛出同一异常。
+     * <p>
+     * 按字节解析时（参见 {@link #KeelCsvReader(InputStream, Charset, String)}），以单元格的编码字节数计。
+     *
+     * @param maxCellLength 单个单元格允许的最大字符数，必须为正数
+     * @return 当前 CSV 读取器，支持链式调用
+     */
+    public KeelCsvReader setMaxCellLength(int maxCellLength) {
+        this.parser.setMaxCellLength(maxCellLength);
+        return this;
+    }
+
+    /**
+     * 设置列投影：之后读取的每一行只包含指定的列，按给定的顺序排列。
+     * <p>
+     * 投影在解析时生效：未被选中的列只扫描其边界，内容不会被复制，也不会生成字符串或 {@link CsvCell}。
+     * 记录中没有的列视为值为 null 的单元格。
+     * <p>
+     * {@link #nextView()} 与 {@link #current()} 得到的行视图仍按原始列索引访问，未被选中的列内容为空字符串；
+     * 未被选中的单元格也不受 {@link #setMaxCellLength(int)} 的限制，因为其内容并不占用内存。
+     *
+     * @param columns 要读取的原始列索引，从 0 开始，不能为空
+     * @return 当前 CSV 读取器，支持链式调用
+     * @throws IllegalArgumentException 当未指定列或列索引为负数时抛出
+     */
+    public KeelCsvReader setProjection(int... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one column must be selected");
+        }
+        int width = 0;
+        for (int column : columns) {
+            if (column < 0) {
+                throw new IllegalArgumentException("Column index must not be negative: " + column);
+            }
+            width = Math.max(width, column + 1);
+        }
+        boolean[] selected = new boolean[width];
+        int[] map = new int[width];
+        Arrays.fill(map, -1);
+        for (int k = 0; k < columns.length; k++) {
+            selected[columns[k]] = true;
+            if (map[columns[k]] < 0) {
+                map[columns[k]] = k;
+            }
+        }
+        this.projection = columns.clone();
+        this.projectionMap = map;
+        this.projectionMask = selected;
+        applyToRecord();
+        return this;
+    }
+
+    /**
+     * 按表头中的列名设置列投影，须先调用 {@link #readHeader()}。
+     * <p>
+     * {@link #nextTemplated()} 得到的行仍可以通过原模板的列名或列访问器读取被选中的列。
+     *
+     * @param names 要读取的列名，不能为空
+     * @return 当前 CSV 读取器，支持链式调用
+     * @throws IllegalStateException    当尚未读取表头时抛出
+     * @throws IllegalArgumentException 当未指定列或表头中没有某个列名时抛出
+     * @see #setProjection(int...)
+     */
+    public KeelCsvReader setProjection(String... names) {
+        var t = this.template;
+        if (t == null) {
+            throw new IllegalStateException("No CSV header has been read; call readHeader() first");
+        }
+        int[] columns = new int[names.length];
+        for (int k = 0; k < names.length; k++) {
+            columns[k] = t.column(names[k]).getIndex();
+        }
+        return setProjection(columns);
+    }
+
+    /**
+     * 取消列投影，之后读取的每一行包含全部列。
+     *
+     * @return 当前 CSV 读取器，支持链式调用
+     */
+    public KeelCsvReader clearProjection() {
+        this.projection = null;
+        this.projectionMap = null;
+        this.projectionMask = null;
+        applyToRecord();
+        return this;
+    }
+
+    /**
+     * 在指定的列上注册过滤条件：之后读取的行只有满足全部过滤条件时才会返回。
+     * <p>
+     * 条件在该列刚解析完成时即被求值，不满足时该行其余单元格的内容不再复制，
+     * 也不会生成任何字符串、{@link CsvCell} 或行对象；解析器只需继续扫描到该行末尾。
+     * 在同一列上多次注册的条件须同时满足。
+     * <p>
+     * 列索引总是原始列索引，与列投影无关；被过滤的列不必被投影选中。
+     *
+     * @param column 原始列索引，从 0 开始
+     * @param filter 过滤条件
+     * @return 当前 CSV 读取器，支持链式调用
+     * @throws IllegalArgumentException 当列索引为负数时抛出
+     */
+    public KeelCsvReader addFilter(int column, CsvCellFilter filter) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Column index must not be negative: " + column);
+        }
+        var current = this.filters;
+        @Nullable CsvCellFilter[] updated = current == null
+                ? new CsvCellFilter[column + 1]
+                : Arrays.copyOf(current, Math.max(current.length, column + 1));
+        var existing = updated[column];
+        updated[column] = existing == null ? filter : existing.and(filter);
+        this.filters = updated;
+        applyToRecord();
+        return this;
+    }
+
+    /**
+     * 按表头中的列名注册过滤条件，须先调用 {@link #readHeader()}。
+     *
+     * @param name   列名
+     * @param filter 过滤条件
+     * @return 当前 CSV 读取器，支持链式调用
+     * @throws IllegalStateException    当尚未读取表头时抛出
+     * @throws IllegalArgumentException 当表头中没有该列名时抛出
+     * @see #addFilter(int, CsvCellFilter)
+     */
+    public KeelCsvReader addFilter(String name, CsvCellFilter filter) {
+        var t = this.template;
+        if (t == null) {
+            throw new IllegalStateException("No CSV header has been read; call readHeader() first");
+        }
+        return addFilter(t.column(name).getIndex(), filter);
+    }
+
+    /**
+     * 移除全部过滤条件。
+     *
+     * @return 当前 CSV 读取器，支持链式调用
+     */
+    public KeelCsvReader clearFilters() {
+        this.filters = null;
+        applyToRecord();
+        return this;
+    }
+
+    /**
+     * 将列投影与过滤条件下发到记录缓冲区；被过滤的列即使未被投影选中，也需要保留内容以便求值。
+     */
+    private void applyToRecord() {
+        var mask = this.projectionMask;
+        var f = this.filters;
+        if (mask != null && f != null) {
+            mask = Arrays.copyOf(mask, Math.max(mask.length, f.length));
+            for (int i = 0; i < f.length; i++) {
+                if (f[i] != null) {
+                    mask[i] = true;
+                }
+            }
+        }
+        record.setProjection(mask);
+        record.setFilters(f);
+    }
+
+    /**
+     * 解析下一条满足全部过滤条件的记录。
+     *
+     * @return 如果解析到一条记录则返回 true；如果已没有更多数据则返回 false
+     */
+    private boolean parseNextAccepted() throws IOException {
+        while (parser.parseNext(record)) {
+            if (record.accepted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 使用指定的输入流、字符集和分隔符读取 CSV 数据，并通过提供的函数处理数据。
      * 该方法会自动管理 CSV 读取器的生命周期，确保在操作完成后关闭读取器。
@@ -100,77 +418,153 @@ public class KeelCsvReader implements Closeable {
     /**
      * 从 CSV 源中读取并解析下一行数据。
      *
-     * @return 解析后的 CSV 行对象，如果没有更多行则返回 null
-     * @throws IOException 当 CSV 源发生 IO 异常时抛出
+     * @return 解析后的 CSV 行对象，如果没有更多行则返回 null；设置了列投影时只包含被选中的列
+     * @throws IOException 当 CSV 源发生 IO 异常，或单元格长度超出限制时抛出
      */
     public @Nullable CsvRow next() throws IOException {
-        String line = br.readLine();
-        if (line == null) return null;
-        return consumeOneLine(null, null, 0, line);
+        if (!parseNextAccepted()) return null;
+        var columns = this.projection;
+        return columns == null ? record.toCsvRow() : record.toCsvRow(columns);
     }
 
     /**
-     * @param row        the uncompleted row instance, if existed
-     * @param buffer     the cell content buffer, if existed
-     * @param quoterFlag Three options: 0,1,2
-     *                   <p> + aaa,bbb
-     *                   <p> - 0000000
-     *                   <p> + ,"aa""bb",
-     *                   <p> - 0111211122
-     * @param line       the raw text of the line
-     * @return the parsed row instance; may be incompleted during recursion.
+     * 解析下一条满足全部过滤条件的记录，并复制为独立的记录缓冲区，但不生成单元格字符串。
+     * <p>
+     * 供 {@link KeelCsvPipeline} 的读取线程只完成记录的切分，单元格字符串与行对象由转换线程通过
+     * {@link #toCsvRow(CsvRecordBuffer)} 生成。
+     *
+     * @return 下一条记录的独立副本，如果没有更多行则返回 null
+     * @throws IOException 当 CSV 源发生 IO 异常，或单元格长度超出限制时抛出
      */
-    private CsvRow consumeOneLine(@Nullable CsvRow row, @Nullable StringBuilder buffer, int quoterFlag, String line) throws IOException {
-        if (row == null) {
-            row = new CsvRow();
-        }
-        if (buffer == null) {
-            buffer = new StringBuilder();
-        } else {
-            buffer.append("\n");
-        }
-
-        for (int i = 0; i < line.length(); i++) {
-            var singleString = line.substring(i, i + 1);
-            if (singleString.equals("\"")) {
-                if (quoterFlag == 0) {
-                    quoterFlag = 1;
-                } else if (quoterFlag == 1) {
-                    quoterFlag = 2;
-                } else {
-                    buffer.append(singleString);
-                    quoterFlag = 1;
-                }
-            } else if (singleString.equals(separator)) {
-                if (quoterFlag == 0 || quoterFlag == 2) {
-                    // buffer to cell
-                    row.addCell(new CsvCell(buffer.toString()));
-                    quoterFlag = 0;
-                    buffer = new StringBuilder();
-                } else {
-                    buffer.append(singleString);
-                }
-            } else {
-                buffer.append(singleString);
+    @Nullable CsvRecordBuffer nextRecord() throws IOException {
+        if (!parseNextAccepted()) return null;
+        return record.copy();
+    }
+
+    /**
+     * 按当前的列投影，将 {@link #nextRecord()} 返回的记录生成为 {@link CsvRow}，结果与 {@link #next()} 相同。
+     * <p>
+     * 只读取列投影的设置，可以在其他线程中调用，但调用期间不能修改列投影。
+     *
+     * @param copiedRecord {@link #nextRecord()} 返回的记录
+     * @return 解析后的 CSV 行对象
+     */
+    CsvRow toCsvRow(CsvRecordBuffer copiedRecord) {
+        var columns = this.projection;
+        return columns == null ? copiedRecord.toCsvRow() : copiedRecord.toCsvRow(columns);
+    }
+
+    /**
+     * 读取下一行作为表头，生成之后各行共享的行模板。
+     * <p>
+     * 通常在读取任何数据行之前调用一次；之后可以通过 {@link #nextTemplated()} 读取带模板的行。
+     * 表头总是完整读取，不受列投影影响。
+     *
+     * @return 由表头生成的行模板
+     * @throws IOException 当 CSV 源发生 IO 异常，或没有可作为表头的行时抛出
+     */
+    public CsvRowTemplate readHeader() throws IOException {
+        CsvRow headerRow;
+        record.setProjection(null);
+        record.setFilters(null);
+        try {
+            if (!parser.parseNext(record)) {
+                throw new EOFException("No header row in CSV source");
             }
+            headerRow = record.toCsvRow();
+        } finally {
+            applyToRecord();
+        }
+        CsvRowTemplate t = CsvRowTemplate.create(headerRow);
+        this.template = t;
+        return t;
+    }
+
+    /**
+     * 获取由 {@link #readHeader()} 生成的行模板。
+     *
+     * @return 行模板，如果尚未读取表头则返回 null
+     */
+    public @Nullable CsvRowTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * 从 CSV 源中读取下一行数据，并附上由 {@link #readHeader()} 生成的行模板。
+     *
+     * @return 带模板的 CSV 行，如果没有更多行则返回 null
+     * @throws IOException           当 CSV 源发生 IO 异常，或单元格长度超出限制时抛出
+     * @throws IllegalStateException 当尚未调用 {@link #readHeader()} 时抛出
+     */
+    public @Nullable CsvTemplatedRow nextTemplated() throws IOException {
+        var t = this.template;
+        if (t == null) {
+            throw new IllegalStateException("No CSV header has been read; call readHeader() first");
         }
+        CsvRow row = next();
+        return row == null ? null : new CsvTemplatedRow(t, row, projectionMap);
+    }
 
-        // now this line ends
-        if (quoterFlag == 0 || quoterFlag == 2) {
-            // now the row ends within this line
-            row.addCell(new CsvCell(buffer.toString()));
-            return row;
+    /**
+     * 从 CSV 源中读取下一行数据，并以行视图的形式返回。
+     * <p>
+     * 行视图直接引用读取器内部的共享缓冲区，只有被访问的列才会生成字符串；
+     * 它只在下一次调用 {@link #next()} 或 {@link #nextView()} 之前有效，
+     * 需要保留时请调用 {@link CsvRowView#detach()}。
+     *
+     * @return 下一行数据的行视图，如果没有更多行则返回 null
+     * @throws IOException 当 CSV 源发生 IO 异常，或单元格长度超出限制时抛出
+     */
+    public @Nullable CsvRowView nextView() throws IOException {
+        if (!parseNextAccepted()) return null;
+        return new CsvRowView(record, false);
+    }
+
+    /**
+     * 将游标移动到下一行。
+     * <p>
+     * 游标模式下读取器始终复用同一个行视图及其单元格存储，不会为每一行创建新的行对象，
+     * 适合对超大文件进行逐行扫描：
+     * <pre>{@code
+     * while (reader.advance()) {
+     *     CsvRowView row = reader.current();
+     *     ...
+     * }
+     * }</pre>
+     *
+     * @return 如果移动到了新的一行则返回 true；如果没有更多行则返回 false
+     * @throws IOException 当 CSV 源发生 IO 异常，或单元格长度超出限制时抛出
+     */
+    public boolean advance() throws IOException {
+        if (!parseNextAccepted()) {
+            cursorPositioned = false;
+            return false;
+        }
+        var view = this.cursor;
+        if (view == null) {
+            this.cursor = new CsvRowView(record, false);
         } else {
-            // this row seems to expend to the next line
-            String nextLine = br.readLine();
-            if (nextLine == null) {
-                // strange: file ending without escape quote, for safety, escape it:
-                // let us handle it as quoterFlag is 2
-                row.addCell(new CsvCell(buffer.toString()));
-                return row;
-            }
-            return consumeOneLine(row, buffer, quoterFlag, nextLine);
+            view.rebind();
+        }
+        cursorPositioned = true;
+        return true;
+    }
+
+    /**
+     * 获取游标当前所在的行。
+     * <p>
+     * 每次调用返回的都是同一个行视图实例，其内容在下一次 {@link #advance()} 后随之改变；
+     * 如需保留当前行，请调用 {@link CsvRowView#detach()}。
+     *
+     * @return 游标当前所在行的行视图
+     * @throws IllegalStateException 当尚未调用 {@link #advance()}，或上一次调用已返回 false 时抛出
+     */
+    public CsvRowView current() {
+        var view = this.cursor;
+        if (!cursorPositioned || view == null) {
+            throw new IllegalStateException("The cursor is not positioned on a row; call advance() first");
         }
+        return view;
     }
 
     /**
@@ -180,6 +574,6 @@ public class KeelCsvReader implements Closeable {
      */
     @Override
     public void close() throws IOException {
-        br.close();
+        parser.close();
     }
 }
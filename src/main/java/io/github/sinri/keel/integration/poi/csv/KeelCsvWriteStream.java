@@ -0,0 +1,155 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 非阻塞的 CSV 行写入流，将写入的行编码为 CSV 后以 {@link Buffer} 数据块写入下游的 {@link WriteStream}，
+ * 例如 {@code HttpServerResponse} 或 {@code AsyncFile}。
+ * <p>
+ * 行先在内部缓冲区中编码（参见 {@link KeelCsvWriter}），缓冲区写满时才作为一个数据块交给下游，
+ * 因此下游收到的是大小有上限的数据块，而不是每个单元格一次写入。
+ * <p>
+ * {@link #writeQueueFull()}、{@link #drainHandler(Handler)} 与 {@link #setWriteQueueMaxSize(int)} 直接委托给下游，
+ * 调用方（或 {@link io.vertx.core.streams.ReadStream#pipeTo(WriteStream)}）据此暂停生产，
+ * 内存占用以下游的写队列上限与一个内部缓冲区为界：
+ * <pre>{@code
+ * KeelCsvWriteStream csv = new KeelCsvWriteStream(response);
+ * csv.write(List.of("id", "name"));
+ * if (csv.writeQueueFull()) {
+ *     csv.drainHandler(v -> ...);
+ * }
+ * }</pre>
+ * <p>
+ * 此类不是线程安全的，应当在下游所在的 Vert.x 上下文中使用。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public class KeelCsvWriteStream implements WriteStream<List<String>> {
+    private final WriteStream<Buffer> target;
+    private final KeelCsvWriter writer;
+    /**
+     * 最近一次写入下游的数据块所返回的 Future；当前写入未产生数据块时为 null。
+     */
+    private @Nullable Future<Void> lastChunkWrite;
+    private boolean ended = false;
+
+    /**
+     * 构造函数，使用 UTF-8 字符集与逗号分隔符创建 CSV 写入流。
+     *
+     * @param target 接收数据块的下游写入流
+     */
+    public KeelCsvWriteStream(WriteStream<Buffer> target) {
+        this(target, ",", StandardCharsets.UTF_8, CsvEncoder.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 构造函数，使用指定的下游、分隔符、字符集和缓冲区大小创建 CSV 写入流。
+     *
+     * @param target     接收数据块的下游写入流
+     * @param separator  CSV 文件中使用的分隔符
+     * @param charset    CSV 文件的字符集
+     * @param bufferSize 内部缓冲区的大小（字符数），决定每个数据块的大小；不能小于 16
+     */
+    public KeelCsvWriteStream(WriteStream<Buffer> target, String separator, Charset charset, int bufferSize) {
+        this.target = target;
+        this.writer = KeelCsvWriter.singleWriter(new ChunkOutputStream(), separator, charset, bufferSize);
+    }
+
+    @Override
+    public KeelCsvWriteStream exceptionHandler(@Nullable Handler<Throwable> handler) {
+        target.exceptionHandler(handler);
+        return this;
+    }
+
+    /**
+     * 写入一行数据。
+     *
+     * @param row 要写入的行数据列表
+     * @return 该行未使内部缓冲区写满时立即成功；否则在由此产生的数据块被下游写出后完成
+     */
+    @Override
+    public Future<Void> write(List<String> row) {
+        if (ended) {
+            return Future.failedFuture(new IllegalStateException("The CSV write stream has ended"));
+        }
+        lastChunkWrite = null;
+        try {
+            writer.blockWriteRow(row);
+        } catch (IOException e) {
+            return Future.failedFuture(e);
+        }
+        var chunkWrite = this.lastChunkWrite;
+        return chunkWrite == null ? Future.succeededFuture() : chunkWrite;
+    }
+
+    /**
+     * 将内部缓冲区中剩余的内容作为最后一个数据块写入下游，然后结束下游。
+     *
+     * @return 下游结束后完成的 Future
+     */
+    @Override
+    public Future<Void> end() {
+        if (ended) {
+            return Future.failedFuture(new IllegalStateException("The CSV write stream has ended"));
+        }
+        ended = true;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            return Future.failedFuture(e);
+        }
+        return target.end();
+    }
+
+    @Override
+    public KeelCsvWriteStream setWriteQueueMaxSize(int maxSize) {
+        target.setWriteQueueMaxSize(maxSize);
+        return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        return target.writeQueueFull();
+    }
+
+    @Override
+    public KeelCsvWriteStream drainHandler(@Nullable Handler<Void> handler) {
+        target.drainHandler(handler);
+        return this;
+    }
+
+    /**
+     * 编码器的输出端：编码器每次写出的一批字节作为一个数据块写入下游。
+     */
+    private final class ChunkOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (len == 0) {
+                return;
+            }
+            lastChunkWrite = target.write(Buffer.buffer(len).appendBytes(b, off, len));
+        }
+
+        @Override
+        public void close() {
+            // 下游由 end() 负责结束
+        }
+    }
+}
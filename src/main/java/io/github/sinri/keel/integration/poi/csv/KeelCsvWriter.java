@@ -1,18 +1,20 @@
 package io.github.sinri.keel.integration.poi.csv;
 
+import io.github.sinri.keel.integration.poi.csv.spi.CsvCompressionCodec;
 import io.vertx.core.Future;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
 
 import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -22,15 +24,26 @@ import java.util.function.Function;
  * <p>
  * 推荐使用静态方法 {@link KeelCsvWriter#write(OutputStream, String, Charset, Function)} 或
  * {@link KeelCsvWriter#write(OutputStream, Function)}。
+ * <p>
+ * 写入的内容先在内部缓冲区中编码，缓冲区写满、调用 {@link #flush()} 或 {@link #close()} 时才写入输出流，
+ * 因此大量的小单元格不会各自触发一次写入调用。
+ * <p>
+ * 通过构造函数创建的写入器是线程安全的：各方法在同一把锁上同步，多个线程写入的行不会相互交错。
+ * 写入器只由一个线程（例如拥有它的 verticle）使用时，可以通过 {@link #singleWriter(OutputStream, String, Charset, int)}
+ * 创建不做任何同步的写入器，省去每个单元格与每行的加锁。
+ * 需要由多个线程同时高吞吐地写入时，请使用 {@link KeelCsvConcurrentWriter}；
+ * 需要在事件循环中写入 Vert.x 的 {@code WriteStream}（例如 HTTP 响应）时，请使用 {@link KeelCsvWriteStream}。
  *
  * @since 5.0.0
  */
 @NullMarked
-public class KeelCsvWriter implements Closeable {
-    private final OutputStream outputStream;
-    private final AtomicBoolean atLineBeginningRef;
-    private final String separator;
-    private final Charset charset;
+public class KeelCsvWriter implements Closeable, Flushable {
+    private final CsvEncoder encoder;
+    /**
+     * 各方法同步所用的锁；由 {@link #singleWriter(OutputStream, String, Charset, int)} 创建时为 null，不做同步。
+     */
+    private final @Nullable Object lock;
+    private boolean atLineBeginning = true;
 
     public KeelCsvWriter(OutputStream outputStream) {
         this(outputStream, ",", StandardCharsets.UTF_8);
@@ -44,10 +57,69 @@ public class KeelCsvWriter implements Closeable {
      * @param charset      CSV 文件的字符集
      */
     public KeelCsvWriter(OutputStream outputStream, String separator, Charset charset) {
-        this.outputStream = outputStream;
-        this.separator = separator;
-        this.charset = charset;
-        this.atLineBeginningRef = new AtomicBoolean(true);
+        this(outputStream, separator, charset, CsvEncoder.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 构造函数，使用指定的输出流、分隔符、字符集和缓冲区大小创建 CSV 写入器。
+     *
+     * @param outputStream 用于写入 CSV 数据的输出流
+     * @param separator    CSV 文件中使用的分隔符
+     * @param charset      CSV 文件的字符集
+     * @param bufferSize   内部缓冲区的大小（字符数），累积的内容超过该大小时批量编码并写入输出流；不能小于 16
+     */
+    public KeelCsvWriter(OutputStream outputStream, String separator, Charset charset, int bufferSize) {
+        this(outputStream, separator, charset, bufferSize, true);
+    }
+
+    private KeelCsvWriter(OutputStream outputStream, String separator, Charset charset, int bufferSize, boolean synchronizedAccess) {
+        this.encoder = new CsvEncoder(outputStream, separator, charset, bufferSize);
+        this.lock = synchronizedAccess ? new Object() : null;
+    }
+
+    /**
+     * 创建只由一个线程使用、不做任何同步的 CSV 写入器。
+     * <p>
+     * 返回的写入器不是线程安全的，调用方必须保证同一时刻只有一个线程调用它的方法，
+     * 例如由拥有它的 verticle 独占，或由 {@link KeelCsvConcurrentWriter} 的编码线程独占。
+     *
+     * @param outputStream 用于写入 CSV 数据的输出流
+     * @param separator    CSV 文件中使用的分隔符
+     * @param charset      CSV 文件的字符集
+     * @param bufferSize   内部缓冲区的大小（字符数）；不能小于 16
+     * @return 不做同步的 CSV 写入器
+     */
+    public static KeelCsvWriter singleWriter(OutputStream outputStream, String separator, Charset charset, int bufferSize) {
+        return new KeelCsvWriter(outputStream, separator, charset, bufferSize, false);
+    }
+
+    /**
+     * 使用默认的缓冲区大小创建只由一个线程使用、不做任何同步的 CSV 写入器。
+     *
+     * @param outputStream 用于写入 CSV 数据的输出流
+     * @param separator    CSV 文件中使用的分隔符
+     * @param charset      CSV 文件的字符集
+     * @return 不做同步的 CSV 写入器
+     * @see #singleWriter(OutputStream, String, Charset, int)
+     */
+    public static KeelCsvWriter singleWriter(OutputStream outputStream, String separator, Charset charset) {
+        return singleWriter(outputStream, separator, charset, CsvEncoder.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 创建写入压缩 CSV 数据的写入器，例如使用 {@link CsvCompression#GZIP}。
+     * <p>
+     * 关闭写入器时写出压缩数据的结尾，并关闭原输出流。
+     *
+     * @param outputStream 压缩数据写入的输出流
+     * @param separator    CSV 文件中使用的分隔符
+     * @param charset      CSV 文件（压缩前）的字符集
+     * @param codec        压缩格式
+     * @return CSV 写入器
+     * @throws IOException 当写入压缩数据的头部失败时抛出
+     */
+    public static KeelCsvWriter compressing(OutputStream outputStream, String separator, Charset charset, CsvCompressionCodec codec) throws IOException {
+        return new KeelCsvWriter(codec.compress(outputStream), separator, charset);
     }
 
     /**
@@ -116,9 +188,116 @@ public class KeelCsvWriter implements Closeable {
      * @throws IOException 当写入过程中发生 IO 异常时抛出
      */
     public void writeCell(String cellValue) throws IOException {
-        synchronized (atLineBeginningRef) {
-            writeToOutputStream(quote(cellValue) + separator);
-            atLineBeginningRef.set(false);
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.writeCell(cellValue);
+            endCell();
+        } else {
+            synchronized (lock) {
+                encoder.writeCell(cellValue);
+                endCell();
+            }
+        }
+    }
+
+    /**
+     * 将整数和分隔符写入输出流作为 CSV 单元格。
+     * <p>
+     * 与 {@link #writeCell(String)} 一样会在单元格后写入分隔符；数值直接格式化到内部缓冲区，不生成中间字符串。
+     *
+     * @param value 要写入的单元格值
+     * @throws IOException 当写入过程中发生 IO 异常时抛出
+     */
+    public void writeLong(long value) throws IOException {
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.writeLong(value);
+            endCell();
+        } else {
+            synchronized (lock) {
+                encoder.writeLong(value);
+                endCell();
+            }
+        }
+    }
+
+    /**
+     * 将浮点数和分隔符写入输出流作为 CSV 单元格，格式与 {@link Double#toString(double)} 相同。
+     *
+     * @param value 要写入的单元格值
+     * @throws IOException 当写入过程中发生 IO 异常时抛出
+     * @see #writeLong(long)
+     */
+    public void writeDouble(double value) throws IOException {
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.writeDouble(value);
+            endCell();
+        } else {
+            synchronized (lock) {
+                encoder.writeDouble(value);
+                endCell();
+            }
+        }
+    }
+
+    /**
+     * 将十进制数和分隔符写入输出流作为 CSV 单元格，格式与 {@link BigDecimal#toPlainString()} 相同。
+     *
+     * @param value 要写入的单元格值；为 null 时写入空单元格
+     * @throws IOException 当写入过程中发生 IO 异常时抛出
+     * @see #writeLong(long)
+     */
+    public void writeBigDecimal(@Nullable BigDecimal value) throws IOException {
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.writeBigDecimal(value);
+            endCell();
+        } else {
+            synchronized (lock) {
+                encoder.writeBigDecimal(value);
+                endCell();
+            }
+        }
+    }
+
+    /**
+     * 将布尔值和分隔符写入输出流作为 CSV 单元格，写为 {@code true} 或 {@code false}。
+     *
+     * @param value 要写入的单元格值
+     * @throws IOException 当写入过程中发生 IO 异常时抛出
+     * @see #writeLong(long)
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.writeBoolean(value);
+            endCell();
+        } else {
+            synchronized (lock) {
+                encoder.writeBoolean(value);
+                endCell();
+            }
+        }
+    }
+
+    /**
+     * 将日期和分隔符写入输出流作为 CSV 单元格，格式为 {@code yyyy-MM-dd}。
+     *
+     * @param value 要写入的单元格值；为 null 时写入空单元格
+     * @throws IOException 当写入过程中发生 IO 异常时抛出
+     * @see #writeLong(long)
+     */
+    public void writeLocalDate(@Nullable LocalDate value) throws IOException {
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.writeLocalDate(value);
+            endCell();
+        } else {
+            synchronized (lock) {
+                encoder.writeLocalDate(value);
+                endCell();
+            }
         }
     }
 
@@ -130,14 +309,24 @@ public class KeelCsvWriter implements Closeable {
      * @throws IOException 当写入过程中发生 IO 异常时抛出
      */
     public void writeRowEnding() throws IOException {
-        synchronized (atLineBeginningRef) {
-            writeToOutputStream("\n");
-            atLineBeginningRef.set(true);
+        var lock = this.lock;
+        if (lock == null) {
+            endRow();
+        } else {
+            synchronized (lock) {
+                endRow();
+            }
         }
     }
 
-    private void writeToOutputStream(String anything) throws IOException {
-        outputStream.write(anything.getBytes(charset));
+    private void endCell() throws IOException {
+        encoder.writeSeparator();
+        atLineBeginning = false;
+    }
+
+    private void endRow() throws IOException {
+        encoder.writeRowEnding();
+        atLineBeginning = true;
     }
 
     /**
@@ -149,36 +338,62 @@ public class KeelCsvWriter implements Closeable {
      * @throws IOException 当写入过程中发生 IO 异常时抛出
      */
     public void blockWriteRow(List<String> list) throws IOException {
-        synchronized (atLineBeginningRef) {
-            if (!atLineBeginningRef.get()) {
-                writeToOutputStream("\n");
-                atLineBeginningRef.set(true);
+        var lock = this.lock;
+        if (lock == null) {
+            writeRow(list);
+        } else {
+            synchronized (lock) {
+                writeRow(list);
             }
-            List<String> components = new ArrayList<>();
-            list.forEach(item -> components.add(quote(item)));
-            var line = String.join(separator, components) + "\n";
-            writeToOutputStream(line);
         }
     }
 
-    private String quote(@Nullable String s) {
-        if (s == null) {
-            s = "";
+    private void writeRow(List<String> list) throws IOException {
+        if (!atLineBeginning) {
+            endRow();
         }
-        if (s.contains("\"") || s.contains("\n") || s.contains(separator)) {
-            return "\"" + s.replaceAll("\"", "\"\"") + "\"";
+        boolean first = true;
+        for (String item : list) {
+            if (!first) {
+                encoder.writeSeparator();
+            }
+            encoder.writeCell(item);
+            first = false;
+        }
+        encoder.writeRowEnding();
+    }
+
+    /**
+     * 将内部缓冲区中已写入的内容全部写入输出流，并刷新输出流。
+     *
+     * @throws IOException 当写入过程中发生 IO 异常时抛出
+     */
+    @Override
+    public void flush() throws IOException {
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.flush();
         } else {
-            return s;
+            synchronized (lock) {
+                encoder.flush();
+            }
         }
     }
 
     /**
-     * 关闭 CSV 写入器，释放相关资源。
+     * 将内部缓冲区中的内容写入输出流后关闭 CSV 写入器，释放相关资源。
      *
      * @throws IOException 当关闭过程中发生 IO 异常时抛出
      */
     @Override
     public void close() throws IOException {
-        this.outputStream.close();
+        var lock = this.lock;
+        if (lock == null) {
+            encoder.close();
+        } else {
+            synchronized (lock) {
+                encoder.close();
+            }
+        }
     }
 }
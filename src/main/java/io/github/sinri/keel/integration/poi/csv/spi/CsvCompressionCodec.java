@@ -0,0 +1,55 @@
+package io.github.sinri.keel.integration.poi.csv.spi;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * CSV 数据压缩格式的服务接口。
+ * <p>
+ * 内置的 gzip 实现见 {@code CsvCompression#GZIP}；其他格式（例如 zstd）的实现可以通过
+ * {@link java.util.ServiceLoader} 注册，读取时按数据开头的魔数自动识别。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public interface CsvCompressionCodec {
+    /**
+     * @return 压缩格式的名称，例如 {@code gzip}
+     */
+    String name();
+
+    /**
+     * @return 识别此格式所需的数据开头的字节数
+     */
+    int magicLength();
+
+    /**
+     * 判断数据的开头是否为此格式的魔数。
+     *
+     * @param header 数据开头的字节
+     * @param length {@code header} 中有效的字节数，数据过短时可能小于 {@link #magicLength()}
+     * @return 是此格式则返回 true
+     */
+    boolean matches(byte[] header, int length);
+
+    /**
+     * 包装输入流，读取时解压。
+     *
+     * @param inputStream 压缩数据的输入流
+     * @return 解压后数据的输入流
+     * @throws IOException 当读取压缩数据的头部失败时抛出
+     */
+    InputStream decompress(InputStream inputStream) throws IOException;
+
+    /**
+     * 包装输出流，写入时压缩；关闭返回的输出流时写出压缩数据的结尾并关闭原输出流。
+     *
+     * @param outputStream 压缩数据写入的输出流
+     * @return 写入未压缩数据的输出流
+     * @throws IOException 当写入压缩数据的头部失败时抛出
+     */
+    OutputStream compress(OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,42 @@
+package io.github.sinri.keel.integration.poi.csv.spi;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * CSV 结构字节索引器的服务接口。
+ * <p>
+ * 索引器一次检查 64 个字节，找出其中的引号、分隔符、{@code \n} 与 {@code \r}，以位图形式返回；
+ * 按字节解析 CSV 时，解析器借助位图直接跳到下一个结构字节，而不必逐字节比较。
+ * <p>
+ * 实现通过 {@link java.util.ServiceLoader} 加载，例如基于 {@code jdk.incubator.vector} 的可选实现；
+ * 找不到可用的实现时，解析器使用逐字节扫描。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public interface CsvStructuralIndexer {
+    /**
+     * 每次索引的字节数。
+     */
+    int BLOCK_SIZE = 64;
+
+    /**
+     * 判断此索引器在当前运行环境中是否可用，例如所需的硬件指令与 JDK 模块是否存在。
+     *
+     * @return 可用则返回 true
+     */
+    boolean isAvailable();
+
+    /**
+     * 计算 {@code bytes[offset, offset + 64)} 的结构字节位图。
+     * <p>
+     * 返回值的第 {@code i} 位为 1，当且仅当 {@code bytes[offset + i]} 是 {@code "}、{@code separator}、
+     * {@code \n} 或 {@code \r} 之一。调用方保证 {@code offset + 64 <= bytes.length}。
+     *
+     * @param bytes     要索引的字节数组
+     * @param offset    起始偏移量
+     * @param separator 单字节分隔符
+     * @return 结构字节位图
+     */
+    long structuralMask(byte[] bytes, int offset, byte separator);
+}
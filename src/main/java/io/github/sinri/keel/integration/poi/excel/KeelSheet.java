@@ -171,6 +171,25 @@ public class KeelSheet {
         return rowDatum;
     }
 
+    /**
+     * 以行中的单元格填充可复用的类型化行，数字、布尔值与日期不经过字符串转换。
+     *
+     * @param row                 POI 行对象
+     * @param maxColumns          读取的列数；为零或负数时读取到该行的最后一个单元格
+     * @param typedRow            要填充的类型化行，之前的内容将被覆盖
+     * @param formulaEvaluatorBox 公式求值器值盒子
+     * @return 填充后的类型化行，即传入的 {@code typedRow}
+     */
+    public static KeelSheetTypedRow dumpRowToTypedRow(
+            Row row,
+            int maxColumns,
+            KeelSheetTypedRow typedRow,
+            ValueBox<FormulaEvaluator> formulaEvaluatorBox
+    ) {
+        int columns = maxColumns > 0 ? maxColumns : Math.max(0, row.getLastCellNum());
+        return typedRow.fill(row, columns, formulaEvaluatorBox);
+    }
+
     /**
      * 获取工作表读取器类型。
      *
@@ -251,6 +270,35 @@ public class KeelSheet {
         return dumpRowToRawRow(row, maxColumns, sheetRowFilter, this.formulaEvaluatorBox);
     }
 
+    /**
+     * 读取指定行索引的行并填充到可复用的类型化行中。
+     *
+     * @param i          行索引
+     * @param maxColumns 读取的列数；为零或负数时读取到该行的最后一个单元格
+     * @param typedRow   要填充的类型化行
+     * @return 填充后的类型化行；如果该行不存在则返回 null
+     */
+    public @Nullable KeelSheetTypedRow readTypedRow(int i, int maxColumns, KeelSheetTypedRow typedRow) {
+        var row = readRow(i);
+        if (row == null) {
+            return null;
+        }
+        return dumpRowToTypedRow(row, maxColumns, typedRow, this.formulaEvaluatorBox);
+    }
+
+    /**
+     * 以阻塞方式按类型读取所有行：整个过程只使用一个类型化行实例，每一行都填充到该实例后交给消费者。
+     * <p>
+     * 消费者收到的实例在下一行填充之前有效，不应被保留。
+     *
+     * @param maxColumns  读取的列数；为零或负数时读取到每一行的最后一个单元格
+     * @param rowConsumer 类型化行的消费者
+     */
+    public final void readAllTypedRows(int maxColumns, Consumer<KeelSheetTypedRow> rowConsumer) {
+        KeelSheetTypedRow typedRow = new KeelSheetTypedRow();
+        readAllRows(row -> rowConsumer.accept(dumpRowToTypedRow(row, maxColumns, typedRow, formulaEvaluatorBox)));
+    }
+
     /**
      * 获取原始行迭代器。
      *
@@ -0,0 +1,237 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 事件方式读取 XLSX 工作表时产生的单元格事件，由 {@link KeelSheetEventHandler#handleCell(KeelSheetCellEvent)} 接收。
+ * <p>
+ * 读取一个工作表的全过程只使用一个事件实例，单元格的文本直接引用读取器内部的缓冲区，
+ * 因此事件只在回调期间有效；需要保留的值应在回调返回之前取出。
+ * <p>
+ * 只有带值的单元格会产生事件。公式单元格按其缓存的结果产生事件，不会重新求值。
+ * 取值方法的类型与单元格类型不符时，与 POI 一致地抛出 {@link IllegalStateException}。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class KeelSheetCellEvent {
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final boolean date1904;
+    private final StringBuilder text = new StringBuilder(64);
+    private int rowIndex;
+    private int columnIndex;
+    private CellType type = CellType.BLANK;
+    private boolean date;
+    private @Nullable String string;
+
+    /**
+     * @param date1904 工作簿是否使用 1904 日期系统
+     */
+    KeelSheetCellEvent(boolean date1904) {
+        this.date1904 = date1904;
+    }
+
+    /**
+     * 开始一个新的单元格，清空上一个单元格的内容。
+     */
+    void reset(int rowIndex, int columnIndex) {
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        this.type = CellType.BLANK;
+        this.date = false;
+        this.string = null;
+        this.text.setLength(0);
+    }
+
+    /**
+     * @return 单元格原始文本的缓冲区，由解析器直接写入
+     */
+    StringBuilder text() {
+        return text;
+    }
+
+    void setType(CellType type, boolean date) {
+        this.type = type;
+        this.date = date;
+    }
+
+    /**
+     * 设置已经成型的字符串值（例如共享字符串），此时不再使用文本缓冲区。
+     */
+    void setString(String string) {
+        this.type = CellType.STRING;
+        this.string = string;
+    }
+
+    /**
+     * 获取单元格所在的行索引。
+     *
+     * @return 行索引，从 0 开始
+     */
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * 获取单元格所在的列索引。
+     *
+     * @return 列索引，从 0 开始
+     */
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    /**
+     * 获取单元格的类型；公式单元格为其结果的类型。
+     *
+     * @return {@link CellType#NUMERIC}、{@link CellType#STRING}、{@link CellType#BOOLEAN} 或 {@link CellType#ERROR} 之一
+     */
+    public CellType getType() {
+        return type;
+    }
+
+    /**
+     * 判断单元格是否为日期格式的数字单元格。
+     *
+     * @return 是日期格式的数字单元格则返回 true
+     */
+    public boolean isDate() {
+        return date;
+    }
+
+    /**
+     * 获取单元格在 XML 中的原始文本，不生成字符串：数字为其十进制文本（例如 {@code 12} 而不是 {@code 12.0}），
+     * 布尔值为 {@code 0} 或 {@code 1}，错误为错误文本（例如 {@code #DIV/0!}）。
+     *
+     * @return 只在回调期间有效的原始文本
+     */
+    public CharSequence getText() {
+        var s = this.string;
+        return s == null ? text : s;
+    }
+
+    /**
+     * 获取文本单元格或错误单元格的字符串值；共享字符串直接返回共享字符串表中的实例。
+     *
+     * @return 单元格的字符串值
+     * @throws IllegalStateException 当单元格是数字或布尔单元格时抛出
+     */
+    public String getString() {
+        var s = this.string;
+        if (s != null) {
+            return s;
+        }
+        if (type != CellType.STRING && type != CellType.ERROR) {
+            throw new IllegalStateException("Cell is " + type + ", not STRING");
+        }
+        return text.toString();
+    }
+
+    /**
+     * 获取数字单元格的值；有效数字不超过 15 位的非科学计数法文本直接从缓冲区解析，不生成字符串。
+     *
+     * @return 单元格的数值
+     * @throws IllegalStateException 当单元格不是数字单元格时抛出
+     */
+    public double getDouble() {
+        checkType(CellType.NUMERIC);
+        int len = text.length();
+        int i = 0;
+        boolean negative = len > 0 && text.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (; i < len; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 15) {
+                    return Double.parseDouble(text.toString());
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return Double.parseDouble(text.toString());
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(text.toString());
+        }
+        // 不超过 15 位的整数与 10 的 22 次以内的幂都能被 double 精确表示，一次除法即得到正确舍入的结果
+        double value = scale == 0 ? mantissa : mantissa / EXACT_POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 获取数字单元格的整数值。
+     *
+     * @return 单元格的整数值
+     * @throws IllegalStateException 当单元格不是数字单元格时抛出
+     * @throws ArithmeticException   当数值带有小数部分或超出 long 范围时抛出
+     */
+    public long getLong() {
+        double value = getDouble();
+        long result = (long) value;
+        if (result != value || result == Long.MAX_VALUE || result == Long.MIN_VALUE) {
+            throw new ArithmeticException("Cell is not an exact long: " + value);
+        }
+        return result;
+    }
+
+    /**
+     * 获取布尔单元格的值。
+     *
+     * @return 单元格的布尔值
+     * @throws IllegalStateException 当单元格不是布尔单元格时抛出
+     */
+    public boolean getBoolean() {
+        checkType(CellType.BOOLEAN);
+        return text.length() == 1 ? text.charAt(0) == '1' : "true".contentEquals(text);
+    }
+
+    /**
+     * 获取日期格式的数字单元格的日期时间值。
+     * <p>
+     * 不检查单元格样式，因此也可以用于未设置日期格式、但已知存放日期的数字单元格。
+     *
+     * @return 单元格的日期时间值
+     * @throws IllegalStateException 当单元格不是数字单元格时抛出
+     */
+    public LocalDateTime getLocalDateTime() {
+        return DateUtil.getLocalDateTime(getDouble(), date1904);
+    }
+
+    /**
+     * 获取日期格式的数字单元格的日期值。
+     *
+     * @return 单元格的日期值
+     * @throws IllegalStateException 当单元格不是数字单元格时抛出
+     * @see #getLocalDateTime()
+     */
+    public LocalDate getLocalDate() {
+        return getLocalDateTime().toLocalDate();
+    }
+
+    private void checkType(CellType expected) {
+        if (type != expected) {
+            throw new IllegalStateException("Cell is " + type + ", not " + expected);
+        }
+    }
+}
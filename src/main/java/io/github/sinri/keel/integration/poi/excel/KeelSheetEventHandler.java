@@ -0,0 +1,29 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 事件方式读取 XLSX 工作表时的回调接口，参见 {@link KeelSheetsEventReader}。
+ * <p>
+ * 单元格事件按工作表 XML 中的顺序依次到达，即按行、行内按列的顺序。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+@FunctionalInterface
+public interface KeelSheetEventHandler {
+    /**
+     * 处理一个带值的单元格。
+     *
+     * @param cell 单元格事件，只在本次调用期间有效
+     */
+    void handleCell(KeelSheetCellEvent cell);
+
+    /**
+     * 一行结束时调用，包括不含任何带值单元格的行。默认不做任何处理。
+     *
+     * @param rowIndex 结束的行的索引，从 0 开始
+     */
+    default void handleRowEnd(int rowIndex) {
+    }
+}
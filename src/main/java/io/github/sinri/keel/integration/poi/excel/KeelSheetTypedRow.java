@@ -0,0 +1,248 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.core.utils.value.ValueBox;
+import org.apache.poi.ss.usermodel.*;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * 可复用的类型化行，按列保存单元格的原始类型与值，避免像 {@link KeelSheet#dumpCellToString(Cell, ValueBox)}
+ * 那样先把数字转为字符串、再由调用方解析回数字。
+ * <p>
+ * 数字以 double 原样保存，布尔值以 boolean 保存，只有文本与错误单元格保存字符串；
+ * 日期格式的数字单元格额外保存其日期时间值。公式单元格按其结果的类型保存。
+ * <p>
+ * 同一个实例在逐行读取时被反复填充（参见 {@link KeelSheet#readAllTypedRows(int, java.util.function.Consumer)}），
+ * 其内容只在下一行填充之前有效；需要保留的值应在此之前取出。
+ * <p>
+ * 取值方法的类型与单元格类型不符时，与 POI 一致地抛出 {@link IllegalStateException}。
+ * 此类不是线程安全的。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class KeelSheetTypedRow {
+    private int rowIndex = -1;
+    private int size = 0;
+    private CellType[] types = new CellType[0];
+    private double[] numbers = new double[0];
+    private boolean[] booleans = new boolean[0];
+    private @Nullable String[] strings = new String[0];
+    private @Nullable LocalDateTime[] dateTimes = new LocalDateTime[0];
+
+    /**
+     * 创建一个空的类型化行，用于之后反复填充。
+     */
+    public KeelSheetTypedRow() {
+    }
+
+    /**
+     * 以指定行的前 {@code maxColumns} 个单元格填充此实例，覆盖之前的内容。
+     * <p>
+     * 公式单元格的处理与 {@link KeelSheet#dumpCellToString(Cell, ValueBox)} 一致：设置了公式求值器时重新求值，
+     * 否则使用缓存的公式结果。
+     *
+     * @param row                 POI 行对象
+     * @param maxColumns          读取的列数
+     * @param formulaEvaluatorBox 公式求值器值盒子
+     * @return 当前实例
+     */
+    KeelSheetTypedRow fill(Row row, int maxColumns, ValueBox<FormulaEvaluator> formulaEvaluatorBox) {
+        ensureCapacity(maxColumns);
+        this.rowIndex = row.getRowNum();
+        this.size = maxColumns;
+        FormulaEvaluator formulaEvaluator = formulaEvaluatorBox.isValueAlreadySet() ? formulaEvaluatorBox.getValue() : null;
+        for (int i = 0; i < maxColumns; i++) {
+            Cell cell = row.getCell(i, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
+            strings[i] = null;
+            dateTimes[i] = null;
+            if (cell == null) {
+                types[i] = CellType.BLANK;
+                continue;
+            }
+            CellType type = cell.getCellType();
+            if (type == CellType.FORMULA) {
+                type = formulaEvaluator == null ? cell.getCachedFormulaResultType() : formulaEvaluator.evaluateFormulaCell(cell);
+            }
+            switch (type) {
+                case NUMERIC -> {
+                    numbers[i] = cell.getNumericCellValue();
+                    if (DateUtil.isCellDateFormatted(cell)) {
+                        dateTimes[i] = cell.getLocalDateTimeCellValue();
+                    }
+                }
+                case BOOLEAN -> booleans[i] = cell.getBooleanCellValue();
+                case STRING -> strings[i] = cell.getStringCellValue();
+                case ERROR -> strings[i] = FormulaError.forInt(cell.getErrorCellValue()).getString();
+                default -> type = CellType.BLANK;
+            }
+            types[i] = type;
+        }
+        return this;
+    }
+
+    private void ensureCapacity(int columns) {
+        if (columns > types.length) {
+            types = Arrays.copyOf(types, columns);
+            numbers = Arrays.copyOf(numbers, columns);
+            booleans = Arrays.copyOf(booleans, columns);
+            strings = Arrays.copyOf(strings, columns);
+            dateTimes = Arrays.copyOf(dateTimes, columns);
+        }
+    }
+
+    /**
+     * 获取当前行在工作表中的行索引。
+     *
+     * @return 行索引，从 0 开始；尚未填充时为 -1
+     */
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    /**
+     * 获取当前行的列数。
+     *
+     * @return 列数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取指定列的单元格类型；公式单元格返回其结果的类型，缺失的单元格返回 {@link CellType#BLANK}。
+     *
+     * @param i 列索引
+     * @return {@link CellType#NUMERIC}、{@link CellType#STRING}、{@link CellType#BOOLEAN}、
+     *         {@link CellType#ERROR} 或 {@link CellType#BLANK} 之一
+     */
+    public CellType getType(int i) {
+        checkIndex(i);
+        return types[i];
+    }
+
+    /**
+     * 判断指定列是否为空单元格。
+     *
+     * @param i 列索引
+     * @return 是空单元格则返回 true
+     */
+    public boolean isBlank(int i) {
+        return getType(i) == CellType.BLANK;
+    }
+
+    /**
+     * 判断指定列是否为日期格式的数字单元格。
+     *
+     * @param i 列索引
+     * @return 是日期格式的数字单元格则返回 true
+     */
+    public boolean isDate(int i) {
+        checkIndex(i);
+        return dateTimes[i] != null;
+    }
+
+    /**
+     * 获取数字单元格的值。
+     *
+     * @param i 列索引
+     * @return 单元格的数值
+     * @throws IllegalStateException 当该列不是数字单元格时抛出
+     */
+    public double getDouble(int i) {
+        checkType(i, CellType.NUMERIC);
+        return numbers[i];
+    }
+
+    /**
+     * 获取数字单元格的整数值。
+     *
+     * @param i 列索引
+     * @return 单元格的整数值
+     * @throws IllegalStateException 当该列不是数字单元格时抛出
+     * @throws ArithmeticException   当数值带有小数部分或超出 long 范围时抛出
+     */
+    public long getLong(int i) {
+        double value = getDouble(i);
+        long result = (long) value;
+        if (result != value || result == Long.MAX_VALUE || result == Long.MIN_VALUE) {
+            throw new ArithmeticException("Cell " + i + " is not an exact long: " + value);
+        }
+        return result;
+    }
+
+    /**
+     * 获取布尔单元格的值。
+     *
+     * @param i 列索引
+     * @return 单元格的布尔值
+     * @throws IllegalStateException 当该列不是布尔单元格时抛出
+     */
+    public boolean getBoolean(int i) {
+        checkType(i, CellType.BOOLEAN);
+        return booleans[i];
+    }
+
+    /**
+     * 获取文本单元格的值；错误单元格返回错误文本（例如 {@code #DIV/0!}），空单元格返回空字符串。
+     *
+     * @param i 列索引
+     * @return 单元格的文本
+     * @throws IllegalStateException 当该列是数字或布尔单元格时抛出
+     */
+    public String getString(int i) {
+        checkIndex(i);
+        var s = strings[i];
+        if (s != null) {
+            return s;
+        }
+        if (types[i] == CellType.BLANK) {
+            return "";
+        }
+        throw new IllegalStateException("Cell " + i + " is " + types[i] + ", not STRING");
+    }
+
+    /**
+     * 获取日期格式的数字单元格的日期时间值。
+     *
+     * @param i 列索引
+     * @return 单元格的日期时间值
+     * @throws IllegalStateException 当该列不是日期格式的数字单元格时抛出
+     */
+    public LocalDateTime getLocalDateTime(int i) {
+        checkType(i, CellType.NUMERIC);
+        var dateTime = dateTimes[i];
+        if (dateTime == null) {
+            throw new IllegalStateException("Cell " + i + " is NUMERIC but not date formatted");
+        }
+        return dateTime;
+    }
+
+    /**
+     * 获取日期格式的数字单元格的日期值。
+     *
+     * @param i 列索引
+     * @return 单元格的日期值
+     * @throws IllegalStateException 当该列不是日期格式的数字单元格时抛出
+     */
+    public LocalDate getLocalDate(int i) {
+        return getLocalDateTime(i).toLocalDate();
+    }
+
+    private void checkType(int i, CellType expected) {
+        checkIndex(i);
+        if (types[i] != expected) {
+            throw new IllegalStateException("Cell " + i + " is " + types[i] + ", not " + expected);
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Column index " + i + " out of bounds for length " + size);
+        }
+    }
+}
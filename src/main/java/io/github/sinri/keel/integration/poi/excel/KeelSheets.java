@@ -1,5 +1,6 @@
 package io.github.sinri.keel.integration.poi.excel;
 
+import com.github.pjfanning.xlsx.StreamingReader;
 import com.github.pjfanning.xlsx.impl.StreamingWorkbook;
 import io.github.sinri.keel.core.utils.value.ValueBox;
 import io.vertx.core.Closeable;
@@ -81,6 +82,10 @@ public class KeelSheets implements Closeable {
     /**
      * 使用指定的打开选项打开 Excel 工作簿，并在使用完成后自动关闭。
      * 该方法会自动管理工作簿的生命周期，确保在操作完成后关闭工作簿。
+     * <p>
+     * 此方法不支持 {@link SheetsOpenOptions#setDiskBackedSharedStrings(int)}，启用该选项时返回失败的 Future：
+     * 标准读取会把整个工作簿载入内存；超大 XLSX 流式读取自带的临时文件共享字符串表按字节配置缓存，
+     * 应当通过 {@link SheetsOpenOptions#setHugeXlsxStreamingReaderBuilder(io.vertx.core.Handler)} 配置。
      *
      * @param sheetsOpenOptions 打开工作簿的选项
      * @param usage             使用工作簿的函数
@@ -91,18 +96,23 @@ public class KeelSheets implements Closeable {
                      .compose(v -> {
                          try {
                              KeelSheets keelSheets;
-                             if (sheetsOpenOptions.isUseHugeXlsxStreamReading()) {
+                             if (sheetsOpenOptions.isUseDiskBackedSharedStrings()) {
+                                 // 按字符串数量计的缓存大小无法对应到流式读取按字节计的缓存，不能静默丢弃
+                                 return Future.failedFuture(new IllegalArgumentException(
+                                         "Disk-backed shared strings are only supported by useEventReader; "
+                                                 + "configure setUseSstTempFile on the huge XLSX streaming reader builder instead"
+                                 ));
+                             } else if (sheetsOpenOptions.isUseHugeXlsxStreamReading()) {
+                                 StreamingReader.Builder streamingReaderBuilder = sheetsOpenOptions.getHugeXlsxStreamingReaderBuilder();
                                  if (sheetsOpenOptions.getInputStream() != null) {
                                      keelSheets = new KeelSheets(
                                              KeelSheetsReaderType.XLSX_STREAMING,
-                                             sheetsOpenOptions.getHugeXlsxStreamingReaderBuilder()
-                                                              .open(sheetsOpenOptions.getInputStream())
+                                             streamingReaderBuilder.open(sheetsOpenOptions.getInputStream())
                                      );
                                  } else if (sheetsOpenOptions.getFile() != null) {
                                      keelSheets = new KeelSheets(
                                              KeelSheetsReaderType.XLSX_STREAMING,
-                                             sheetsOpenOptions.getHugeXlsxStreamingReaderBuilder()
-                                                              .open(sheetsOpenOptions.getFile())
+                                             streamingReaderBuilder.open(sheetsOpenOptions.getFile())
                                      );
                                  } else {
                                      throw new IOException("No input source!");
@@ -170,6 +180,36 @@ public class KeelSheets implements Closeable {
                      });
     }
 
+    /**
+     * 使用指定的打开选项以事件方式打开 XLSX 工作簿，并在使用完成后自动关闭。
+     * <p>
+     * 与 {@link #useSheets(SheetsOpenOptions, Function)} 不同，不创建 POI 工作簿，
+     * 而是以 {@link KeelSheetsEventReader} 逐个单元格地推送工作表内容，适用于只需顺序读取的超大工作簿。
+     *
+     * @param sheetsOpenOptions 打开工作簿的选项
+     * @param usage             使用事件读取器的函数
+     * @return 表示操作完成的 Future
+     */
+    public static <T> Future<T> useEventReader(SheetsOpenOptions sheetsOpenOptions, Function<KeelSheetsEventReader, Future<T>> usage) {
+        return Future.succeededFuture()
+                     .compose(v -> {
+                         KeelSheetsEventReader eventReader;
+                         try {
+                             eventReader = KeelSheetsEventReader.open(sheetsOpenOptions);
+                         } catch (IOException e) {
+                             return Future.failedFuture(e);
+                         }
+                         return usage.apply(eventReader)
+                                     .andThen(ar -> {
+                                         try {
+                                             eventReader.close();
+                                         } catch (IOException ignored) {
+                                             // 与 useSheets 一致，关闭失败不影响使用结果
+                                         }
+                                     });
+                     });
+    }
+
     /**
      * 使用指定的创建选项创建 Excel 工作簿，并在使用完成后自动关闭。
      * 该方法会自动管理工作簿的生命周期，确保在操作完成后关闭工作簿。
@@ -0,0 +1,536 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.integration.poi.excel.entity.KeelSheetMatrix;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * 以事件方式读取 XLSX 工作簿的读取器，对应 {@link KeelSheetsReaderType#XLSX_EVENT}。
+ * <p>
+ * 与 {@link KeelSheets} 基于 POI 的行与单元格对象不同，此读取器以 StAX 直接解析工作表 XML 与共享字符串表，
+ * 把每一个带值的单元格以 {@link KeelSheetCellEvent} 推送给 {@link KeelSheetEventHandler}，
+ * 读取过程中不创建 POI 的行与单元格对象，也不在内存中保留已读取的行。
+ * <p>
+ * 样式表只用于判断哪些单元格样式是日期格式；共享字符串表在第一次读取工作表时载入，
+ * 默认载入堆内存，也可以存放在临时文件中（参见 {@link SheetsOpenOptions#setDiskBackedSharedStrings(int)}）。
+ * 公式单元格只能读取其缓存的结果，不支持公式求值。
+ * <p>
+ * 可通过 {@link KeelSheets#useEventReader(SheetsOpenOptions, java.util.function.Function)} 使用并自动关闭。
+ * 此类不是线程安全的；{@link #readSheetsInParallel(List, int, IntFunction)} 等并行读取方法自行管理其工作线程，
+ * 各工作表的部件由各自的线程独立解析，共享同一个共享字符串表。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class KeelSheetsEventReader implements Closeable {
+    /**
+     * 工作表内并行解析时每个片段的默认目标字节数（解压后的 XML）。
+     */
+    static final int DEFAULT_PARALLEL_SEGMENT_BYTES = 4 << 20;
+
+    private final OPCPackage opcPackage;
+    private final List<String> sheetNames;
+    private final List<PackagePart> sheetParts;
+    private final @Nullable PackagePart sharedStringsPart;
+    private final boolean[] dateStyles;
+    private final boolean date1904;
+    private final int diskBackedSharedStringsCacheSize;
+    private @Nullable XlsxSharedStrings sharedStrings;
+
+    private KeelSheetsEventReader(OPCPackage opcPackage, int diskBackedSharedStringsCacheSize) throws IOException {
+        this.opcPackage = opcPackage;
+        this.diskBackedSharedStringsCacheSize = diskBackedSharedStringsCacheSize;
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            List<String> names = new ArrayList<>();
+            List<PackagePart> parts = new ArrayList<>();
+            XSSFReader.SheetIterator sheetIterator = xssfReader.getSheetIterator();
+            while (sheetIterator.hasNext()) {
+                // next() 会打开工作表部件的输入流，这里只需要名称与部件本身
+                sheetIterator.next().close();
+                names.add(sheetIterator.getSheetName());
+                parts.add(sheetIterator.getSheetPart());
+            }
+            this.sheetNames = Collections.unmodifiableList(names);
+            this.sheetParts = parts;
+
+            try (InputStream workbookData = xssfReader.getWorkbookData()) {
+                this.date1904 = XlsxXml.readDate1904(workbookData);
+            }
+            this.dateStyles = readDateStyles(xssfReader.getStylesTable());
+
+            List<PackagePart> sharedStringsParts = opcPackage.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+            this.sharedStringsPart = sharedStringsParts.isEmpty() ? null : sharedStringsParts.get(0);
+        } catch (OpenXML4JException e) {
+            throw new IOException("Failed to open XLSX package", e);
+        }
+    }
+
+    /**
+     * 使用指定的打开选项打开 XLSX 工作簿。
+     * <p>
+     * 优先使用选项中的文件，此时以只读方式打开而不把整个文件读入内存；否则读取选项中的输入流。
+     * 选项启用了 {@link SheetsOpenOptions#setDiskBackedSharedStrings(int)} 时，共享字符串表存放在临时文件中。
+     * 选项中与 POI 工作簿相关的设置（公式求值器、超大 XLSX 流式读取构建器）对此读取器无效。
+     *
+     * @param sheetsOpenOptions 打开工作簿的选项
+     * @return 事件读取器，使用完毕后需要关闭
+     * @throws IOException 当没有输入源或输入不是有效的 XLSX 文件时抛出
+     */
+    public static KeelSheetsEventReader open(SheetsOpenOptions sheetsOpenOptions) throws IOException {
+        OPCPackage opcPackage;
+        try {
+            File file = sheetsOpenOptions.getFile();
+            InputStream inputStream = sheetsOpenOptions.getInputStream();
+            if (file != null) {
+                opcPackage = OPCPackage.open(file, PackageAccess.READ);
+            } else if (inputStream != null) {
+                opcPackage = OPCPackage.open(inputStream);
+            } else {
+                throw new IOException("No input source!");
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException("Failed to open XLSX package", e);
+        }
+        try {
+            return new KeelSheetsEventReader(opcPackage, sheetsOpenOptions.getDiskBackedSharedStringsCacheSize());
+        } catch (IOException | RuntimeException e) {
+            opcPackage.revert();
+            throw e;
+        }
+    }
+
+    private static boolean[] readDateStyles(@Nullable StylesTable stylesTable) {
+        if (stylesTable == null) {
+            return new boolean[0];
+        }
+        boolean[] dateStyles = new boolean[stylesTable.getNumCellStyles()];
+        for (int i = 0; i < dateStyles.length; i++) {
+            XSSFCellStyle style = stylesTable.getStyleAt(i);
+            if (style != null) {
+                String formatString = style.getDataFormatString();
+                dateStyles[i] = formatString != null && DateUtil.isADateFormat(style.getDataFormat(), formatString);
+            }
+        }
+        return dateStyles;
+    }
+
+    /**
+     * 获取读取器类型。
+     *
+     * @return {@link KeelSheetsReaderType#XLSX_EVENT}
+     */
+    public KeelSheetsReaderType getSheetsReaderType() {
+        return KeelSheetsReaderType.XLSX_EVENT;
+    }
+
+    /**
+     * 获取工作簿中按顺序排列的工作表名称。
+     *
+     * @return 不可修改的工作表名称列表
+     */
+    public List<String> getSheetNames() {
+        return sheetNames;
+    }
+
+    /**
+     * 获取工作簿中的工作表数量。
+     *
+     * @return 工作簿中的工作表数量
+     */
+    public int getSheetCount() {
+        return sheetNames.size();
+    }
+
+    /**
+     * 以事件方式读取指定索引的工作表。
+     *
+     * @param sheetIndex 工作表索引，从 0 开始
+     * @param handler    事件回调
+     * @throws IOException               当工作表无法读取时抛出
+     * @throws IndexOutOfBoundsException 当工作表索引超出范围时抛出
+     */
+    public void readSheet(int sheetIndex, KeelSheetEventHandler handler) throws IOException {
+        parseSheet(sheetParts.get(sheetIndex), getSharedStrings(), handler);
+    }
+
+    private void parseSheet(PackagePart sheetPart, XlsxSharedStrings loadedSharedStrings, KeelSheetEventHandler handler) throws IOException {
+        XlsxSheetParser parser = new XlsxSheetParser(loadedSharedStrings, dateStyles, date1904);
+        InputStream inputStream;
+        // 包内部件的打开涉及包级别的状态，各线程只在此处串行，解压与解析仍并行进行
+        synchronized (opcPackage) {
+            inputStream = sheetPart.getInputStream();
+        }
+        try (inputStream) {
+            parser.parse(inputStream, handler);
+        }
+    }
+
+    /**
+     * 以事件方式读取指定名称的工作表。
+     *
+     * @param sheetName 工作表名称
+     * @param handler   事件回调
+     * @throws IOException              当工作表无法读取时抛出
+     * @throws IllegalArgumentException 当工作表不存在时抛出
+     */
+    public void readSheet(String sheetName, KeelSheetEventHandler handler) throws IOException {
+        int sheetIndex = sheetNames.indexOf(sheetName);
+        if (sheetIndex < 0) {
+            throw new IllegalArgumentException("Sheet not found: " + sheetName);
+        }
+        readSheet(sheetIndex, handler);
+    }
+
+    /**
+     * 以事件方式读取指定索引的工作表并转换为矩阵，表头行之前的行将被丢弃！
+     * <p>
+     * 与 {@link KeelSheet#readAllRowsToMatrix(int, int, SheetRowFilter)} 的行为一致；
+     * 数字以 {@link String#valueOf(double)} 转为字符串，公式单元格使用其缓存的结果。
+     *
+     * @param sheetIndex     工作表索引，从 0 开始
+     * @param headerRowIndex 表头行索引，0 表示第一行，依此类推
+     * @param maxColumns     预设列数，如果需要自动检测则为零或负数
+     * @param sheetRowFilter 工作表行过滤器（可选）
+     * @return 读取的矩阵对象
+     * @throws IOException 当工作表无法读取时抛出
+     */
+    public KeelSheetMatrix readSheetToMatrix(int sheetIndex, int headerRowIndex, int maxColumns, @Nullable SheetRowFilter sheetRowFilter) throws IOException {
+        XlsxSheetMatrixCollector collector = new XlsxSheetMatrixCollector(headerRowIndex, maxColumns, sheetRowFilter);
+        readSheet(sheetIndex, collector);
+        return collector.getMatrix();
+    }
+
+    /**
+     * 以多个工作线程并行读取多个工作表，每个工作表的 XML 部件在一个工作线程中独立解析。
+     * <p>
+     * 每个工作表使用由 {@code handlerFactory} 为其创建的事件回调，回调在解析该工作表的工作线程中被调用；
+     * 不同工作表的回调可能同时被调用，因此它们之间共享的状态需要自行同步。
+     * 任一工作表读取失败时，其余工作表的读取被取消：正在解析的工作线程在下一个事件之前停止，不再调用回调；
+     * 此方法等待所有工作线程结束后才抛出该异常，因此返回或抛出之后不会再有回调被调用。
+     *
+     * @param sheetIndexes   要读取的工作表索引
+     * @param parallelism    工作线程数，实际不超过工作表的数量
+     * @param handlerFactory 按工作表索引创建事件回调
+     * @throws IOException               当任一工作表无法读取或等待被中断时抛出
+     * @throws IndexOutOfBoundsException 当工作表索引超出范围时抛出
+     * @throws IllegalArgumentException  当工作线程数小于 1 时抛出
+     */
+    public void readSheetsInParallel(List<Integer> sheetIndexes, int parallelism, IntFunction<? extends KeelSheetEventHandler> handlerFactory) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        List<PackagePart> parts = new ArrayList<>(sheetIndexes.size());
+        for (int sheetIndex : sheetIndexes) {
+            parts.add(sheetParts.get(sheetIndex));
+        }
+        if (parts.isEmpty()) {
+            return;
+        }
+        // 共享字符串表在调用线程中载入一次，各工作线程只读取
+        XlsxSharedStrings loadedSharedStrings = getSharedStrings();
+
+        ExecutorService executor = newWorkerPool(Math.min(parallelism, parts.size()));
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        try {
+            CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < parts.size(); i++) {
+                int sheetIndex = sheetIndexes.get(i);
+                PackagePart part = parts.get(i);
+                completionService.submit(() -> {
+                    if (!stopped.get()) {
+                        parseSheet(part, loadedSharedStrings, stoppable(handlerFactory.apply(sheetIndex), stopped));
+                    }
+                    return null;
+                });
+            }
+            awaitAll(completionService, parts.size());
+        } finally {
+            stopped.set(true);
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    /**
+     * 包装事件回调，在每个事件之前检查停止标记；停止后抛出 {@link CancellationException} 结束解析，不再调用回调。
+     */
+    private static KeelSheetEventHandler stoppable(KeelSheetEventHandler handler, AtomicBoolean stopped) {
+        return new KeelSheetEventHandler() {
+            @Override
+            public void handleCell(KeelSheetCellEvent cell) {
+                if (stopped.get()) {
+                    throw new CancellationException("Reading sheets in parallel was cancelled");
+                }
+                handler.handleCell(cell);
+            }
+
+            @Override
+            public void handleRowEnd(int rowIndex) {
+                if (stopped.get()) {
+                    throw new CancellationException("Reading sheets in parallel was cancelled");
+                }
+                handler.handleRowEnd(rowIndex);
+            }
+        };
+    }
+
+    /**
+     * 等待线程池中的工作线程全部结束；等待期间被中断时继续等待，结束后恢复中断状态。
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 以多个工作线程并行解析同一个工作表，适用于单个工作表 XML 达到 GB 级别的情况。这是实验性功能。
+     * <p>
+     * 调用线程顺序解压工作表 XML，并在行与行之间把它切分为若干片段；各片段由工作线程独立解析，
+     * 解析结果以紧凑的形式暂存，再由调用线程按原顺序重放给事件回调。
+     * 因此事件回调只在调用线程中被调用，事件的顺序与 {@link #readSheet(int, KeelSheetEventHandler)} 完全一致；
+     * 同一时刻暂存的片段数量不超过工作线程数的两倍，内存占用有上限。
+     * <p>
+     * 解压本身无法并行，所以加速比受解压速度限制。工作表 XML 不是 UTF-8 编码时退回到顺序解析。
+     *
+     * @param sheetIndex  工作表索引，从 0 开始
+     * @param parallelism 解析片段的工作线程数；为 1 时等同于 {@link #readSheet(int, KeelSheetEventHandler)}
+     * @param handler     事件回调
+     * @throws IOException               当工作表无法读取或等待被中断时抛出
+     * @throws IndexOutOfBoundsException 当工作表索引超出范围时抛出
+     * @throws IllegalArgumentException  当工作线程数小于 1 时抛出
+     */
+    public void readSheetInParallelSegments(int sheetIndex, int parallelism, KeelSheetEventHandler handler) throws IOException {
+        readSheetInParallelSegments(sheetIndex, parallelism, DEFAULT_PARALLEL_SEGMENT_BYTES, handler);
+    }
+
+    /**
+     * 以指定的片段大小并行解析同一个工作表，参见 {@link #readSheetInParallelSegments(int, int, KeelSheetEventHandler)}。
+     * <p>
+     * 很小的片段可以让测试覆盖各种切分位置。
+     *
+     * @param sheetIndex   工作表索引，从 0 开始
+     * @param parallelism  解析片段的工作线程数
+     * @param segmentBytes 每个片段的目标字节数（解压后的 XML）；只有一行的片段可能超过该大小
+     * @param handler      事件回调
+     * @throws IOException               当工作表无法读取或等待被中断时抛出
+     * @throws IndexOutOfBoundsException 当工作表索引超出范围时抛出
+     * @throws IllegalArgumentException  当工作线程数或片段大小小于 1 时抛出
+     */
+    void readSheetInParallelSegments(int sheetIndex, int parallelism, int segmentBytes, KeelSheetEventHandler handler) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (segmentBytes < 1) {
+            throw new IllegalArgumentException("segmentBytes must be positive");
+        }
+        PackagePart sheetPart = sheetParts.get(sheetIndex);
+        XlsxSharedStrings loadedSharedStrings = getSharedStrings();
+        if (parallelism == 1) {
+            parseSheet(sheetPart, loadedSharedStrings, handler);
+            return;
+        }
+
+        InputStream inputStream;
+        synchronized (opcPackage) {
+            inputStream = sheetPart.getInputStream();
+        }
+        boolean segmented;
+        try (inputStream) {
+            XlsxSheetSegmenter segmenter = XlsxSheetSegmenter.open(inputStream, segmentBytes);
+            segmented = segmenter.isSupported();
+            if (segmented) {
+                parseSegments(segmenter, parallelism, loadedSharedStrings, handler);
+            }
+        }
+        if (!segmented) {
+            parseSheet(sheetPart, loadedSharedStrings, handler);
+        }
+    }
+
+    private void parseSegments(
+            XlsxSheetSegmenter segmenter,
+            int parallelism,
+            XlsxSharedStrings loadedSharedStrings,
+            KeelSheetEventHandler handler
+    ) throws IOException {
+        ExecutorService executor = newWorkerPool(parallelism);
+        try {
+            Deque<Future<XlsxSheetSegmentRecording>> pending = new ArrayDeque<>();
+            KeelSheetCellEvent cell = new KeelSheetCellEvent(date1904);
+            int lastRowIndex = -1;
+            byte[] segment;
+            while ((segment = segmenter.nextSegment()) != null) {
+                byte[] xml = segment;
+                pending.add(executor.submit(() -> parseSegment(xml, loadedSharedStrings)));
+                if (pending.size() >= parallelism * 2) {
+                    lastRowIndex = await(pending.remove()).replay(handler, cell, lastRowIndex);
+                }
+            }
+            while (!pending.isEmpty()) {
+                lastRowIndex = await(pending.remove()).replay(handler, cell, lastRowIndex);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private XlsxSheetSegmentRecording parseSegment(byte[] xml, XlsxSharedStrings loadedSharedStrings) throws IOException {
+        XlsxSheetParser parser = new XlsxSheetParser(loadedSharedStrings, dateStyles, date1904);
+        XlsxSheetSegmentRecording recording = new XlsxSheetSegmentRecording();
+        parser.parse(new ByteArrayInputStream(xml), recording);
+        recording.setImplicitLeadingRowCount(parser.getImplicitLeadingRowCount());
+        return recording;
+    }
+
+    /**
+     * 以多个工作线程并行读取多个工作表，并分别转换为矩阵，参见 {@link #readSheetToMatrix(int, int, int, SheetRowFilter)}。
+     *
+     * @param sheetNames     要读取的工作表名称
+     * @param parallelism    工作线程数，实际不超过工作表的数量
+     * @param headerRowIndex 表头行索引，0 表示第一行，依此类推
+     * @param maxColumns     预设列数，如果需要自动检测则为零或负数
+     * @param sheetRowFilter 工作表行过滤器（可选），会在多个工作线程中同时使用
+     * @return 按 {@code sheetNames} 的顺序排列的工作表名称到矩阵的映射
+     * @throws IOException              当任一工作表无法读取或等待被中断时抛出
+     * @throws IllegalArgumentException 当工作表不存在或工作线程数小于 1 时抛出
+     */
+    public Map<String, KeelSheetMatrix> readSheetsToMatrices(
+            List<String> sheetNames,
+            int parallelism,
+            int headerRowIndex,
+            int maxColumns,
+            @Nullable SheetRowFilter sheetRowFilter
+    ) throws IOException {
+        List<Integer> sheetIndexes = new ArrayList<>(sheetNames.size());
+        Map<Integer, XlsxSheetMatrixCollector> collectors = new HashMap<>();
+        for (String sheetName : sheetNames) {
+            int sheetIndex = this.sheetNames.indexOf(sheetName);
+            if (sheetIndex < 0) {
+                throw new IllegalArgumentException("Sheet not found: " + sheetName);
+            }
+            if (collectors.putIfAbsent(sheetIndex, new XlsxSheetMatrixCollector(headerRowIndex, maxColumns, sheetRowFilter)) == null) {
+                sheetIndexes.add(sheetIndex);
+            }
+        }
+        readSheetsInParallel(sheetIndexes, parallelism, collectors::get);
+
+        Map<String, KeelSheetMatrix> matrices = new LinkedHashMap<>();
+        for (int sheetIndex : sheetIndexes) {
+            matrices.put(this.sheetNames.get(sheetIndex), collectors.get(sheetIndex).getMatrix());
+        }
+        return matrices;
+    }
+
+    /**
+     * 按完成顺序等待所有任务，任一任务失败时立即抛出其异常，其余任务由调用方设置停止标记并关闭线程池时取消。
+     */
+    private static void awaitAll(CompletionService<Void> completionService, int taskCount) throws IOException {
+        for (int i = 0; i < taskCount; i++) {
+            try {
+                await(completionService.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading sheets in parallel");
+            }
+        }
+    }
+
+    /**
+     * 等待任务完成并取得结果，任务抛出的异常原样抛出。
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading sheets in parallel");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static ExecutorService newWorkerPool(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "keel-sheets-reader-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private XlsxSharedStrings getSharedStrings() throws IOException {
+        var loaded = this.sharedStrings;
+        if (loaded == null) {
+            var part = this.sharedStringsPart;
+            if (part == null) {
+                loaded = XlsxSharedStrings.empty();
+            } else {
+                try (InputStream inputStream = part.getInputStream()) {
+                    loaded = diskBackedSharedStringsCacheSize > 0
+                            ? XlsxDiskSharedStrings.load(inputStream, diskBackedSharedStringsCacheSize)
+                            : XlsxSharedStrings.load(inputStream);
+                }
+            }
+            this.sharedStrings = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * 关闭读取器，释放工作簿包与共享字符串表占用的资源；不会修改源文件。
+     *
+     * @throws IOException 当共享字符串表无法关闭时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        opcPackage.revert();
+        var loaded = this.sharedStrings;
+        if (loaded != null) {
+            this.sharedStrings = null;
+            loaded.close();
+        }
+    }
+}
@@ -8,5 +8,6 @@ package io.github.sinri.keel.integration.poi.excel;
 public enum KeelSheetsReaderType {
     XLSX_STREAMING,  // XLSX 流式读取
     XLSX,            // XLSX 标准读取
-    XLS              // XLS 标准读取
+    XLS,             // XLS 标准读取
+    XLSX_EVENT       // XLSX 事件读取，参见 KeelSheetsEventReader
 }
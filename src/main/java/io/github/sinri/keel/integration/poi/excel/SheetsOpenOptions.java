@@ -22,6 +22,7 @@ public class SheetsOpenOptions {
     private StreamingReader.@Nullable Builder hugeXlsxStreamingReaderBuilder = null;
     private @Nullable InputStream inputStream = null;
     private @Nullable Boolean useXlsx = null;
+    private int diskBackedSharedStringsCacheSize = 0;
 
     /**
      * 配置读取超大 Excel 文件的系统参数。
@@ -175,4 +176,45 @@ public class SheetsOpenOptions {
         this.useXlsx = useXlsx;
         return this;
     }
+
+    /**
+     * 检查是否将共享字符串表存放在临时文件中。
+     *
+     * @return 如果共享字符串表存放在临时文件中则返回 true，否则返回 false
+     */
+    public boolean isUseDiskBackedSharedStrings() {
+        return this.diskBackedSharedStringsCacheSize > 0;
+    }
+
+    /**
+     * 获取共享字符串表存放在临时文件中时，堆内存中缓存的字符串数量。
+     *
+     * @return 缓存的字符串数量；未启用时为 0
+     */
+    public int getDiskBackedSharedStringsCacheSize() {
+        return diskBackedSharedStringsCacheSize;
+    }
+
+    /**
+     * 设置将 XLSX 的共享字符串表存放在临时文件中，堆内存中只保留最近使用的字符串。
+     * <p>
+     * 对于含有数百万个不同字符串的工作簿，共享字符串表是读取时占用堆内存最多的部分。
+     * 启用后，{@link KeelSheetsEventReader} 将共享字符串表写入临时文件，按需读取，
+     * 并以指定大小的 LRU 缓存保留最近使用的字符串；临时文件在读取器关闭时删除。
+     * <p>
+     * 此选项只作用于事件读取（参见 {@link KeelSheets#useEventReader(SheetsOpenOptions, java.util.function.Function)}），
+     * {@link KeelSheets#useSheets(SheetsOpenOptions, java.util.function.Function)} 将拒绝此选项：
+     * 标准读取会把整个工作簿载入内存；超大 XLSX 流式读取自带的临时文件共享字符串表按字节配置缓存，
+     * 请通过 {@link #setHugeXlsxStreamingReaderBuilder(Handler)} 配置。
+     *
+     * @param cacheSize 堆内存中缓存的字符串数量，必须为正数
+     * @return 当前选项实例，支持链式调用
+     */
+    public SheetsOpenOptions setDiskBackedSharedStrings(int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be positive");
+        }
+        this.diskBackedSharedStringsCacheSize = cacheSize;
+        return this;
+    }
 }
@@ -0,0 +1,238 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 存放在临时文件中的共享字符串表，堆内存中只保留一个分段的 LRU 缓存。
+ * <p>
+ * 字符串以 UTF-8 依次写入数据文件，各字符串的起始偏移量写入索引文件。
+ * 两个文件写完后以只读方式映射到内存，读取时只做绝对位置的读取，不移动缓冲区的位置，
+ * 因此多个线程可以不加锁地同时读取，由操作系统的页缓存承担热点数据的缓存。
+ * 单个映射不能超过 2 GiB，文件按固定大小分段映射，跨段的字符串分段复制。
+ * <p>
+ * 解码后的字符串按下标分散到若干个缓存段，每段各自加锁并按 LRU 逐出，
+ * 并行读取不同工作表的线程很少争用同一把锁；缓存较小时只有一段，即严格的 LRU。
+ * <p>
+ * 关闭后不能再读取。两个临时文件在关闭时删除；映射在被垃圾回收之前无法释放，
+ * 在不能删除仍被映射的文件的平台上，改为在虚拟机退出时删除。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class XlsxDiskSharedStrings implements XlsxSharedStrings {
+    /**
+     * 默认的映射段大小，1 GiB。
+     */
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+    /**
+     * 每个缓存段至少缓存的字符串数量；缓存较小时不再分段。
+     */
+    private static final int MIN_STRINGS_PER_CACHE_STRIPE = 64;
+    private static final int MAX_CACHE_STRIPES = 16;
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final int size;
+    private final int segmentSize;
+    private final ByteBuffer[] dataSegments;
+    private final ByteBuffer[] indexSegments;
+    private final Map<Integer, String>[] cacheStripes;
+    private volatile boolean closed = false;
+
+    @SuppressWarnings("unchecked")
+    private XlsxDiskSharedStrings(Path dataFile, Path indexFile, int size, int cacheSize, int segmentSize) throws IOException {
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.size = size;
+        this.segmentSize = segmentSize;
+        this.dataSegments = map(dataFile, segmentSize);
+        this.indexSegments = map(indexFile, segmentSize);
+
+        int stripes = 1;
+        while (stripes < MAX_CACHE_STRIPES && cacheSize / (stripes * 2) >= MIN_STRINGS_PER_CACHE_STRIPE) {
+            stripes *= 2;
+        }
+        int stripeSize = (cacheSize + stripes - 1) / stripes;
+        this.cacheStripes = new Map[stripes];
+        for (int i = 0; i < stripes; i++) {
+            cacheStripes[i] = new LinkedHashMap<>(Math.min(stripeSize, 1 << 16), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                    return size() > stripeSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * 将文件按指定大小分段，以只读方式映射到内存；映射在文件通道关闭后依然有效。
+     */
+    private static ByteBuffer[] map(Path file, int segmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            ByteBuffer[] segments = new ByteBuffer[(int) ((length + segmentSize - 1) / segmentSize)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, length - position));
+            }
+            return segments;
+        }
+    }
+
+    /**
+     * 将共享字符串表写入临时文件。
+     *
+     * @param inputStream 共享字符串表部件的输入流
+     * @param cacheSize   堆内存中缓存的字符串数量
+     * @return 基于临时文件的共享字符串表
+     * @throws IOException 当 XML 无法解析或临时文件无法写入、映射时抛出
+     */
+    static XlsxDiskSharedStrings load(InputStream inputStream, int cacheSize) throws IOException {
+        return load(inputStream, cacheSize, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 将共享字符串表写入临时文件，并以指定大小的段映射到内存。
+     *
+     * @param inputStream 共享字符串表部件的输入流
+     * @param cacheSize   堆内存中缓存的字符串数量
+     * @param segmentSize 每个映射段的字节数，必须为 8 的正整数倍
+     * @return 基于临时文件的共享字符串表
+     * @throws IOException 当 XML 无法解析或临时文件无法写入、映射时抛出
+     */
+    static XlsxDiskSharedStrings load(InputStream inputStream, int cacheSize, int segmentSize) throws IOException {
+        if (segmentSize <= 0 || segmentSize % Long.BYTES != 0) {
+            throw new IllegalArgumentException("segmentSize must be a positive multiple of " + Long.BYTES);
+        }
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be positive");
+        }
+        Path dataFile = Files.createTempFile("keel-sst-", ".data");
+        Path indexFile = null;
+        try {
+            indexFile = Files.createTempFile("keel-sst-", ".index");
+            int count;
+            try (
+                    var data = new BufferedOutputStream(Files.newOutputStream(dataFile), 1 << 16);
+                    var index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile), 1 << 16))
+            ) {
+                long[] offset = {0};
+                int[] counter = {0};
+                XlsxXml.readSharedStrings(inputStream, s -> {
+                    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                    try {
+                        index.writeLong(offset[0]);
+                        data.write(bytes);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    offset[0] += bytes.length;
+                    counter[0]++;
+                });
+                // 末尾追加数据的总长度，使第 i 个字符串总是位于第 i 与第 i + 1 个偏移量之间
+                index.writeLong(offset[0]);
+                count = counter[0];
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new XlsxDiskSharedStrings(dataFile, indexFile, count, cacheSize, segmentSize);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(dataFile);
+            if (indexFile != null) {
+                Files.deleteIfExists(indexFile);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Shared string index " + index + " out of bounds for length " + size);
+        }
+        if (closed) {
+            throw new IllegalStateException("The shared strings table has been closed");
+        }
+        Map<Integer, String> stripe = cacheStripes[index & (cacheStripes.length - 1)];
+        String cached;
+        synchronized (stripe) {
+            cached = stripe.get(index);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        // 在锁外读取与解码，同一字符串可能被并发地读取多次，缓存中保留先放入的实例
+        long start = readLong((long) index * Long.BYTES);
+        int length = (int) (readLong((long) (index + 1) * Long.BYTES) - start);
+        byte[] bytes = new byte[length];
+        readData(start, bytes);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        synchronized (stripe) {
+            @Nullable String existing = stripe.putIfAbsent(index, s);
+            return existing != null ? existing : s;
+        }
+    }
+
+    /**
+     * 读取索引文件中指定位置的偏移量；位置与段大小都是 8 的整数倍，一个偏移量不会跨段。
+     */
+    private long readLong(long position) {
+        return indexSegments[(int) (position / segmentSize)].getLong((int) (position % segmentSize));
+    }
+
+    private void readData(long position, byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ByteBuffer segment = dataSegments[(int) (position / segmentSize)];
+            int segmentPosition = (int) (position % segmentSize);
+            int n = Math.min(bytes.length - offset, segment.limit() - segmentPosition);
+            segment.get(segmentPosition, bytes, offset, n);
+            offset += n;
+            position += n;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Map<Integer, String> stripe : cacheStripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        delete(dataFile);
+        delete(indexFile);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 某些平台上不能删除仍被映射的文件，映射只有在被垃圾回收后才会释放
+            file.toFile().deleteOnExit();
+        }
+    }
+}
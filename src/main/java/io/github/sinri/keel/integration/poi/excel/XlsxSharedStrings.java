@@ -0,0 +1,69 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * XLSX 共享字符串表，按索引取得单元格引用的字符串。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+interface XlsxSharedStrings extends Closeable {
+    /**
+     * 将整个共享字符串表读入堆内存。
+     *
+     * @param inputStream 共享字符串表部件的输入流
+     * @return 堆内存中的共享字符串表
+     * @throws IOException 当 XML 无法解析时抛出
+     */
+    static XlsxSharedStrings load(InputStream inputStream) throws IOException {
+        List<String> strings = new ArrayList<>();
+        XlsxXml.readSharedStrings(inputStream, strings::add);
+        return of(strings);
+    }
+
+    /**
+     * @return 没有共享字符串表部件时使用的空表
+     */
+    static XlsxSharedStrings empty() {
+        return of(List.of());
+    }
+
+    private static XlsxSharedStrings of(List<String> strings) {
+        return new XlsxSharedStrings() {
+            @Override
+            public String get(int index) {
+                return strings.get(index);
+            }
+
+            @Override
+            public int size() {
+                return strings.size();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * 获取指定索引处的字符串。
+     *
+     * @param index 字符串索引
+     * @return 该索引处的字符串
+     * @throws IndexOutOfBoundsException 当索引超出范围时抛出
+     */
+    String get(int index);
+
+    /**
+     * @return 共享字符串的数量
+     */
+    int size();
+}
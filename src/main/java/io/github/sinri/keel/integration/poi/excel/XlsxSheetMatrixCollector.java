@@ -0,0 +1,120 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.integration.poi.excel.entity.KeelSheetMatrix;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 把事件方式读取的工作表收集为 {@link KeelSheetMatrix} 的事件回调，
+ * 行为与 {@link KeelSheet#readAllRowsToMatrix(int, int, SheetRowFilter)} 一致：
+ * 表头行之前的行被丢弃，行索引按工作表中实际存在的行计数。
+ * <p>
+ * 数字以 {@link String#valueOf(double)} 转为字符串，布尔值为 {@code true} 或 {@code false}，错误单元格为错误文本。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class XlsxSheetMatrixCollector implements KeelSheetEventHandler {
+    private final KeelSheetMatrix matrix = new KeelSheetMatrix();
+    private final int headerRowIndex;
+    private final @Nullable SheetRowFilter sheetRowFilter;
+    private int columns;
+    private int rowCount = 0;
+    private @Nullable String[] cells = new String[16];
+    private int cellsUsed = 0;
+
+    /**
+     * @param headerRowIndex 表头行索引，0 表示第一行，依此类推
+     * @param maxColumns     预设列数，如果需要按表头行自动检测则为零或负数
+     * @param sheetRowFilter 工作表行过滤器（可选）
+     */
+    XlsxSheetMatrixCollector(int headerRowIndex, int maxColumns, @Nullable SheetRowFilter sheetRowFilter) {
+        if (headerRowIndex < 0) throw new IllegalArgumentException("headerRowIndex less than zero");
+        this.headerRowIndex = headerRowIndex;
+        this.columns = Math.max(maxColumns, 0);
+        this.sheetRowFilter = sheetRowFilter;
+    }
+
+    @Override
+    public void handleCell(KeelSheetCellEvent cell) {
+        if (rowCount < headerRowIndex) {
+            return;
+        }
+        int column = cell.getColumnIndex();
+        if (columns > 0 && column >= columns) {
+            return;
+        }
+        if (column >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(column + 1, cells.length * 2));
+        }
+        cells[column] = switch (cell.getType()) {
+            case NUMERIC -> String.valueOf(cell.getDouble());
+            case BOOLEAN -> String.valueOf(cell.getBoolean());
+            default -> cell.getString();
+        };
+        cellsUsed = Math.max(cellsUsed, column + 1);
+    }
+
+    @Override
+    public void handleRowEnd(int rowIndex) {
+        int currentRowIndex = rowCount++;
+        if (currentRowIndex < headerRowIndex) {
+            return;
+        }
+        if (currentRowIndex == headerRowIndex) {
+            if (columns == 0) {
+                columns = detectNonBlankColumnCount();
+            }
+            List<String> headerRow = dumpCells();
+            if (headerRow == null) {
+                throw new NullPointerException("Header Row is not valid");
+            }
+            matrix.setHeaderRow(headerRow);
+        } else {
+            List<String> row = dumpCells();
+            if (row != null) {
+                matrix.addRow(row);
+            }
+        }
+        Arrays.fill(cells, 0, cellsUsed, null);
+        cellsUsed = 0;
+    }
+
+    /**
+     * 与 {@link KeelSheet} 的自动检测一致：从第一列起，到第一个缺失或空白的单元格为止。
+     */
+    private int detectNonBlankColumnCount() {
+        int i = 0;
+        while (i < cellsUsed) {
+            String s = cells[i];
+            if (s == null || s.isBlank()) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private @Nullable List<String> dumpCells() {
+        List<String> rowDatum = new ArrayList<>(columns);
+        for (int i = 0; i < columns; i++) {
+            String s = i < cellsUsed ? cells[i] : null;
+            rowDatum.add(s == null ? "" : s);
+        }
+        if (sheetRowFilter != null && sheetRowFilter.shouldThrowThisRawRow(rowDatum)) {
+            return null;
+        }
+        return rowDatum;
+    }
+
+    /**
+     * @return 收集到的矩阵
+     */
+    KeelSheetMatrix getMatrix() {
+        return matrix;
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * 以 StAX 直接解析工作表 XML 的解析器，将带值的单元格作为事件交给 {@link KeelSheetEventHandler}。
+ * <p>
+ * 单元格文本从 StAX 读取器的内部缓冲区直接追加到事件的可复用缓冲区中，
+ * 共享字符串直接引用共享字符串表中的实例，不创建 POI 的行与单元格对象。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class XlsxSheetParser {
+    private final XlsxSharedStrings sharedStrings;
+    private final boolean[] dateStyles;
+    private final boolean date1904;
+    private int implicitLeadingRowCount = 0;
+
+    /**
+     * @param sharedStrings 共享字符串表
+     * @param dateStyles    按单元格样式索引标记的日期格式样式
+     * @param date1904      工作簿是否使用 1904 日期系统
+     */
+    XlsxSheetParser(XlsxSharedStrings sharedStrings, boolean[] dateStyles, boolean date1904) {
+        this.sharedStrings = sharedStrings;
+        this.dateStyles = dateStyles;
+        this.date1904 = date1904;
+    }
+
+    /**
+     * 解析工作表 XML，并依次产生单元格事件与行结束事件。
+     *
+     * @param inputStream 工作表 XML 的输入流
+     * @param handler     事件回调
+     * @throws IOException 当 XML 无法解析或当前线程被中断时抛出
+     */
+    void parse(InputStream inputStream, KeelSheetEventHandler handler) throws IOException {
+        XMLStreamReader reader = XlsxXml.createReader(inputStream);
+        KeelSheetCellEvent cell = new KeelSheetCellEvent(date1904);
+        StringBuilder text = cell.text();
+        int rowIndex = -1;
+        int nextColumn = 0;
+        boolean inCell = false;
+        boolean hasValue = false;
+        boolean inInlineString = false;
+        boolean inPhonetic = false;
+        boolean capturing = false;
+        @Nullable String cellType = null;
+        int styleIndex = 0;
+        boolean seenExplicitRow = false;
+        implicitLeadingRowCount = 0;
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "row" -> {
+                            String r = reader.getAttributeValue(null, "r");
+                            if (r == null) {
+                                rowIndex++;
+                                if (!seenExplicitRow) {
+                                    implicitLeadingRowCount++;
+                                }
+                            } else {
+                                rowIndex = Integer.parseInt(r) - 1;
+                                seenExplicitRow = true;
+                            }
+                            nextColumn = 0;
+                        }
+                        case "c" -> {
+                            String r = reader.getAttributeValue(null, "r");
+                            int columnIndex = r == null ? nextColumn : parseColumnIndex(r);
+                            nextColumn = columnIndex + 1;
+                            cell.reset(rowIndex, columnIndex);
+                            cellType = reader.getAttributeValue(null, "t");
+                            String s = reader.getAttributeValue(null, "s");
+                            styleIndex = s == null ? 0 : Integer.parseInt(s);
+                            inCell = true;
+                            hasValue = false;
+                        }
+                        case "v" -> {
+                            if (inCell) {
+                                capturing = true;
+                                hasValue = true;
+                            }
+                        }
+                        case "is" -> {
+                            if (inCell) {
+                                inInlineString = true;
+                                hasValue = true;
+                            }
+                        }
+                        case "rPh" -> inPhonetic = true;
+                        case "t" -> capturing = inInlineString && !inPhonetic;
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "v", "t" -> capturing = false;
+                        case "rPh" -> inPhonetic = false;
+                        case "is" -> inInlineString = false;
+                        case "c" -> {
+                            inCell = false;
+                            if (hasValue && completeCell(cell, cellType, styleIndex)) {
+                                handler.handleCell(cell);
+                            }
+                        }
+                        case "row" -> {
+                            handler.handleRowEnd(rowIndex);
+                            // 并行读取被取消时工作线程会被中断，每行检查一次以尽快结束
+                            if (Thread.currentThread().isInterrupted()) {
+                                throw new InterruptedIOException("Interrupted while reading XLSX sheet");
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (capturing && XlsxXml.isText(event)) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read XLSX sheet", e);
+        } finally {
+            XlsxXml.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * 获取上一次解析时，第一个带有 {@code r} 属性的行之前的行数。
+     * <p>
+     * 这些行的索引是从 0 起按顺序推算的；解析工作表的一个片段时，调用方需要为它们加上片段之前的行数。
+     *
+     * @return 开头没有 {@code r} 属性的行数
+     */
+    int getImplicitLeadingRowCount() {
+        return implicitLeadingRowCount;
+    }
+
+    /**
+     * 根据单元格的 {@code t} 属性确定其类型。
+     *
+     * @return 单元格是否有值；值为空的数字单元格视为空单元格
+     */
+    private boolean completeCell(KeelSheetCellEvent cell, @Nullable String cellType, int styleIndex) {
+        StringBuilder text = cell.text();
+        if (cellType == null || "n".equals(cellType)) {
+            if (text.length() == 0) {
+                return false;
+            }
+            cell.setType(CellType.NUMERIC, styleIndex < dateStyles.length && dateStyles[styleIndex]);
+            return true;
+        }
+        switch (cellType) {
+            case "s" -> cell.setString(sharedStrings.get(parseNonNegativeInt(text)));
+            case "inlineStr" -> {
+                if (text.indexOf("_x") >= 0) {
+                    cell.setString(XlsxXml.decodeEscapes(text));
+                } else {
+                    cell.setType(CellType.STRING, false);
+                }
+            }
+            case "b" -> cell.setType(CellType.BOOLEAN, false);
+            case "e" -> cell.setType(CellType.ERROR, false);
+            // "str" 为字符串类型的公式结果，"d" 为 ISO 8601 格式的日期文本
+            default -> cell.setType(CellType.STRING, false);
+        }
+        return true;
+    }
+
+    /**
+     * 由 {@code A1} 形式的单元格引用计算列索引。
+     *
+     * @param reference 单元格引用
+     * @return 列索引，从 0 开始
+     */
+    static int parseColumnIndex(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                column = column * 26 + (c - 'A' + 1);
+            } else if (c >= 'a' && c <= 'z') {
+                column = column * 26 + (c - 'a' + 1);
+            } else {
+                break;
+            }
+        }
+        return column - 1;
+    }
+
+    private static int parseNonNegativeInt(CharSequence text) {
+        int value = 0;
+        int len = text.length();
+        if (len == 0) {
+            throw new NumberFormatException("Empty shared string index");
+        }
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid shared string index: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
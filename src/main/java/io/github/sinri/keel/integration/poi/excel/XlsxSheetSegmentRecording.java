@@ -0,0 +1,107 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * 记录一个工作表片段解析结果的事件回调，之后在另一个线程中按原顺序重放给真正的事件回调。
+ * <p>
+ * 单元格以列式数组保存：原始文本连续存放在一个字符缓冲区中，共享字符串只保存对共享字符串表中实例的引用；
+ * 行结束以列索引为 -1 的记录表示。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class XlsxSheetSegmentRecording implements KeelSheetEventHandler {
+    private static final int ROW_END = -1;
+
+    private final StringBuilder chars = new StringBuilder(1 << 16);
+    private int count = 0;
+    private int[] rows = new int[1024];
+    private int[] columns = new int[1024];
+    private CellType[] types = new CellType[1024];
+    private boolean[] dates = new boolean[1024];
+    private int[] textEnds = new int[1024];
+    private @Nullable String[] strings = new String[1024];
+    private int implicitLeadingRowCount = 0;
+
+    @Override
+    public void handleCell(KeelSheetCellEvent cell) {
+        int i = next(cell.getRowIndex(), cell.getColumnIndex());
+        types[i] = cell.getType();
+        dates[i] = cell.isDate();
+        CharSequence text = cell.getText();
+        if (text instanceof String s) {
+            strings[i] = s;
+        } else {
+            chars.append(text);
+        }
+        textEnds[i] = chars.length();
+    }
+
+    @Override
+    public void handleRowEnd(int rowIndex) {
+        int i = next(rowIndex, ROW_END);
+        textEnds[i] = chars.length();
+    }
+
+    private int next(int row, int column) {
+        if (count == rows.length) {
+            int capacity = count * 2;
+            rows = Arrays.copyOf(rows, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            types = Arrays.copyOf(types, capacity);
+            dates = Arrays.copyOf(dates, capacity);
+            textEnds = Arrays.copyOf(textEnds, capacity);
+            strings = Arrays.copyOf(strings, capacity);
+        }
+        int i = count++;
+        rows[i] = row;
+        columns[i] = column;
+        return i;
+    }
+
+    /**
+     * @param implicitLeadingRowCount 片段开头没有 {@code r} 属性的行数，参见 {@link XlsxSheetParser#getImplicitLeadingRowCount()}
+     */
+    void setImplicitLeadingRowCount(int implicitLeadingRowCount) {
+        this.implicitLeadingRowCount = implicitLeadingRowCount;
+    }
+
+    /**
+     * 按记录的顺序把事件重放给事件回调。
+     *
+     * @param handler      事件回调
+     * @param cell         用于重放的可复用单元格事件
+     * @param lastRowIndex 之前的片段中最后一行的索引，没有时为 -1
+     * @return 本片段中最后一行的索引；本片段没有行时返回 {@code lastRowIndex}
+     */
+    int replay(KeelSheetEventHandler handler, KeelSheetCellEvent cell, int lastRowIndex) {
+        int offset = lastRowIndex + 1;
+        int rowsEnded = 0;
+        int textStart = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rowsEnded < implicitLeadingRowCount ? rows[i] + offset : rows[i];
+            if (columns[i] == ROW_END) {
+                rowsEnded++;
+                lastRowIndex = row;
+                handler.handleRowEnd(row);
+            } else {
+                cell.reset(row, columns[i]);
+                var s = strings[i];
+                if (s != null) {
+                    cell.setString(s);
+                } else {
+                    cell.text().append(chars, textStart, textEnds[i]);
+                    cell.setType(types[i], dates[i]);
+                }
+                handler.handleCell(cell);
+            }
+            textStart = textEnds[i];
+        }
+        return lastRowIndex;
+    }
+}
@@ -0,0 +1,308 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 把解压后的工作表 XML 按行的边界切分为若干独立的 XML 片段，供多个线程分别解析。
+ * <p>
+ * 每个片段由原始的根元素开始标签（保留全部命名空间声明）、若干完整的 {@code row} 元素与根元素结束标签组成，
+ * 因此可以被 {@link XlsxSheetParser} 直接解析。切分只在 {@code <row} 开始标签之前进行：
+ * 单元格文本中的 {@code <} 必然被转义，所以这样的位置总是位于行与行之间。
+ * <p>
+ * 只支持 UTF-8 编码的工作表 XML（实际的 XLSX 文件均如此），其他编码由 {@link #isSupported()} 报告，
+ * 调用方应退回到顺序解析。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class XlsxSheetSegmenter {
+    private final InputStream inputStream;
+    private final int segmentSize;
+    private byte[] buffer;
+    private int length = 0;
+    private boolean eof = false;
+    private boolean finished = false;
+    private boolean supported = true;
+    private byte[] rootStartTag = new byte[0];
+    private byte[] rootEndTag = new byte[0];
+    private byte[] rowStart = new byte[0];
+    private byte[] sheetDataEnd = new byte[0];
+
+    private XlsxSheetSegmenter(InputStream inputStream, int segmentSize) {
+        this.inputStream = inputStream;
+        this.segmentSize = segmentSize;
+        this.buffer = new byte[Math.max(segmentSize * 2, 8192)];
+    }
+
+    /**
+     * 读取工作表 XML 直到 {@code sheetData} 的开始标签，准备切分。
+     *
+     * @param inputStream 解压后的工作表 XML 输入流
+     * @param segmentSize 片段的目标字节数
+     * @return 切分器
+     * @throws IOException 当读取失败或 XML 结构不符合预期时抛出
+     */
+    static XlsxSheetSegmenter open(InputStream inputStream, int segmentSize) throws IOException {
+        XlsxSheetSegmenter segmenter = new XlsxSheetSegmenter(inputStream, segmentSize);
+        segmenter.readHead();
+        return segmenter;
+    }
+
+    /**
+     * @return 工作表 XML 是否可以被切分；为 false 时不应调用 {@link #nextSegment()}
+     */
+    boolean isSupported() {
+        return supported;
+    }
+
+    private void readHead() throws IOException {
+        int p = 0;
+        if (!fillUntil(4)) {
+            throw new IOException("Unexpected end of sheet XML");
+        }
+        if ((buffer[0] & 0xFF) == 0xFE || (buffer[0] & 0xFF) == 0xFF || buffer[0] == 0 || buffer[1] == 0) {
+            // UTF-16 的字节序标记或零字节
+            supported = false;
+            return;
+        }
+        if ((buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+            p = 3;
+        }
+        // 跳过 XML 声明、处理指令与注释，找到根元素
+        while (true) {
+            p = find(new byte[]{'<'}, p);
+            if (p < 0 || !fillUntil(p + 4)) {
+                throw new IOException("Root element not found in sheet XML");
+            }
+            if (buffer[p + 1] == '?') {
+                int end = find("?>".getBytes(StandardCharsets.US_ASCII), p);
+                if (end < 0) {
+                    throw new IOException("Unterminated processing instruction in sheet XML");
+                }
+                String declaration = new String(buffer, p, end - p, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+                int e = declaration.indexOf("encoding");
+                if (declaration.startsWith("<?xml") && e >= 0 && !declaration.substring(e).matches("encoding\\s*=\\s*[\"']utf-?8[\"'][\\s\\S]*")) {
+                    supported = false;
+                    return;
+                }
+                p = end + 2;
+            } else if (buffer[p + 1] == '!') {
+                int end = find("-->".getBytes(StandardCharsets.US_ASCII), p);
+                if (end < 0) {
+                    throw new IOException("Unterminated comment in sheet XML");
+                }
+                p = end + 3;
+            } else {
+                break;
+            }
+        }
+        int rootEnd = tagEnd(p);
+        int nameEnd = p + 1;
+        while (nameEnd < rootEnd && !isNameEnd(buffer[nameEnd])) {
+            nameEnd++;
+        }
+        String rootName = new String(buffer, p + 1, nameEnd - p - 1, StandardCharsets.UTF_8);
+        int colon = rootName.indexOf(':');
+        String prefix = colon < 0 ? "" : rootName.substring(0, colon + 1);
+        rootStartTag = Arrays.copyOfRange(buffer, p, rootEnd + 1);
+        rootEndTag = ("</" + rootName + ">").getBytes(StandardCharsets.UTF_8);
+        rowStart = ("<" + prefix + "row").getBytes(StandardCharsets.UTF_8);
+        sheetDataEnd = ("</" + prefix + "sheetData>").getBytes(StandardCharsets.UTF_8);
+
+        byte[] sheetDataStart = ("<" + prefix + "sheetData").getBytes(StandardCharsets.UTF_8);
+        int s = rootEnd;
+        while (true) {
+            s = find(sheetDataStart, s);
+            if (s < 0) {
+                // 没有 sheetData 元素，即没有任何行
+                finished = true;
+                return;
+            }
+            if (fillUntil(s + sheetDataStart.length + 1) && isNameEnd(buffer[s + sheetDataStart.length])) {
+                break;
+            }
+            s += sheetDataStart.length;
+        }
+        int sheetDataTagEnd = tagEnd(s);
+        if (buffer[sheetDataTagEnd - 1] == '/') {
+            finished = true;
+            return;
+        }
+        consume(sheetDataTagEnd + 1);
+    }
+
+    /**
+     * 取得下一个片段。
+     *
+     * @return 可独立解析的 XML 片段；没有更多的行时返回 null
+     * @throws IOException 当读取失败或 XML 不完整时抛出
+     */
+    byte @Nullable [] nextSegment() throws IOException {
+        while (!finished) {
+            fillUntil(segmentSize);
+            int end = indexOf(sheetDataEnd, 0);
+            int limit = end >= 0 ? end : length;
+            if (end >= 0 && end <= segmentSize) {
+                finished = true;
+                return end == 0 ? null : wrap(end);
+            }
+            // 在目标大小以内的最后一行之前切分；若目标大小以内只有一行，则在其后的第一行之前切分。
+            // 切分点必须在缓冲区中第一行之后，以免行之前的空白单独成为片段
+            int first = nextRowStart(0, limit);
+            int cut = first < 0 ? -1 : lastRowStart(first, Math.min(limit, segmentSize));
+            if (cut < 0 && first >= 0) {
+                cut = nextRowStart(first + 1, limit);
+            }
+            if (cut > 0) {
+                byte[] segment = wrap(cut);
+                consume(cut);
+                return segment;
+            }
+            if (end >= 0) {
+                finished = true;
+                return wrap(end);
+            }
+            if (eof) {
+                throw new IOException("Unexpected end of sheet XML inside sheetData");
+            }
+            // 缓冲区内只有一行的开头，继续读取直到出现下一行
+            fillUntil(length + segmentSize);
+        }
+        return null;
+    }
+
+    private byte[] wrap(int bodyLength) {
+        byte[] segment = new byte[rootStartTag.length + bodyLength + rootEndTag.length];
+        System.arraycopy(rootStartTag, 0, segment, 0, rootStartTag.length);
+        System.arraycopy(buffer, 0, segment, rootStartTag.length, bodyLength);
+        System.arraycopy(rootEndTag, 0, segment, rootStartTag.length + bodyLength, rootEndTag.length);
+        return segment;
+    }
+
+    /**
+     * @return {@code after} 之后、不超过 {@code bound} 的最后一个行开始位置，没有时返回 -1
+     */
+    private int lastRowStart(int after, int bound) {
+        for (int i = Math.min(bound, length - rowStart.length - 1); i > after; i--) {
+            if (isRowStart(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 从 {@code from} 开始、小于 {@code bound} 的第一个行开始位置，没有时返回 -1
+     */
+    private int nextRowStart(int from, int bound) {
+        for (int i = from; i < Math.min(bound, length - rowStart.length); i++) {
+            if (isRowStart(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isRowStart(int i) {
+        return buffer[i] == '<' && matchesAt(rowStart, i) && isNameEnd(buffer[i + rowStart.length]);
+    }
+
+    /**
+     * 找到从 {@code start} 开始的标签的结束位置 {@code >}，跳过引号中的内容。
+     */
+    private int tagEnd(int start) throws IOException {
+        byte quote = 0;
+        for (int i = start; ; i++) {
+            if (i >= length && !fillUntil(i + 1)) {
+                throw new IOException("Unterminated tag in sheet XML");
+            }
+            byte b = buffer[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * 在缓冲区中查找，必要时继续读取输入，直到找到或到达输入末尾。
+     */
+    private int find(byte[] pattern, int from) throws IOException {
+        int i = from;
+        while (true) {
+            int found = indexOf(pattern, i);
+            if (found >= 0) {
+                return found;
+            }
+            i = Math.max(from, length - pattern.length + 1);
+            if (!fillUntil(length + 1)) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 只在缓冲区中已有的字节中查找。
+     */
+    private int indexOf(byte[] pattern, int from) {
+        for (int i = from; i + pattern.length <= length; i++) {
+            if (buffer[i] == pattern[0] && matchesAt(pattern, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(byte[] pattern, int at) {
+        if (at + pattern.length > length) {
+            return false;
+        }
+        for (int k = 1; k < pattern.length; k++) {
+            if (buffer[at + k] != pattern[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameEnd(byte b) {
+        return b == ' ' || b == '>' || b == '/' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * 读取输入直到缓冲区中至少有 {@code target} 个字节或到达输入末尾。
+     *
+     * @return 缓冲区中是否至少有 {@code target} 个字节
+     */
+    private boolean fillUntil(int target) throws IOException {
+        if (target > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(target, buffer.length * 2));
+        }
+        while (length < target && !eof) {
+            int n = inputStream.read(buffer, length, buffer.length - length);
+            if (n < 0) {
+                eof = true;
+            } else {
+                length += n;
+            }
+        }
+        return length >= target;
+    }
+
+    private void consume(int count) {
+        System.arraycopy(buffer, count, buffer, 0, length - count);
+        length -= count;
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.jspecify.annotations.NullMarked;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * 以 StAX 直接读取 XLSX 包内 XML 部件的工具方法，不经过 POI 的对象模型。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+final class XlsxXml {
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private XlsxXml() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        // 使用 JDK 自带的实现：其 getTextCharacters 直接暴露内部缓冲区，不复制文本
+        XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * 创建读取指定输入流的 StAX 读取器。
+     *
+     * @param inputStream XML 部件的输入流
+     * @return StAX 读取器
+     * @throws IOException 当 XML 无法解析时抛出
+     */
+    static XMLStreamReader createReader(InputStream inputStream) throws IOException {
+        try {
+            return FACTORY.createXMLStreamReader(inputStream);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read XLSX part", e);
+        }
+    }
+
+    /**
+     * 按顺序读取共享字符串表中的每一个字符串。
+     * <p>
+     * 富文本的各段按顺序拼接，注音（{@code rPh}）部分被忽略，{@code _xHHHH_} 形式的转义被还原，与 POI 一致。
+     *
+     * @param inputStream    共享字符串表部件的输入流
+     * @param stringConsumer 按索引顺序接收每一个字符串
+     * @throws IOException 当 XML 无法解析时抛出
+     */
+    static void readSharedStrings(InputStream inputStream, Consumer<String> stringConsumer) throws IOException {
+        XMLStreamReader reader = createReader(inputStream);
+        try {
+            StringBuilder text = new StringBuilder();
+            boolean inString = false;
+            boolean inPhonetic = false;
+            boolean capturing = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "si" -> {
+                            inString = true;
+                            text.setLength(0);
+                        }
+                        case "rPh" -> inPhonetic = true;
+                        case "t" -> capturing = inString && !inPhonetic;
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "si" -> {
+                            inString = false;
+                            stringConsumer.accept(decodeEscapes(text));
+                        }
+                        case "rPh" -> inPhonetic = false;
+                        case "t" -> capturing = false;
+                        default -> {
+                        }
+                    }
+                } else if (capturing && isText(event)) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read XLSX shared strings", e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * 读取工作簿部件中的 {@code workbookPr/@date1904} 设置。
+     *
+     * @param inputStream 工作簿部件的输入流
+     * @return 工作簿是否使用 1904 日期系统
+     * @throws IOException 当 XML 无法解析时抛出
+     */
+    static boolean readDate1904(InputStream inputStream) throws IOException {
+        XMLStreamReader reader = createReader(inputStream);
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("workbookPr".equals(name)) {
+                        String value = reader.getAttributeValue(null, "date1904");
+                        return "1".equals(value) || "true".equals(value);
+                    }
+                    if ("sheets".equals(name)) {
+                        // workbookPr 位于 sheets 之前
+                        return false;
+                    }
+                }
+            }
+            return false;
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read XLSX workbook", e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    static boolean isText(int event) {
+        return event == XMLStreamConstants.CHARACTERS
+                || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE;
+    }
+
+    /**
+     * 还原 OOXML 字符串中 {@code _xHHHH_} 形式的转义；不含转义时不复制内容。
+     *
+     * @param text 原始文本
+     * @return 还原后的字符串
+     */
+    static String decodeEscapes(CharSequence text) {
+        String s = text.toString();
+        int p = s.indexOf("_x");
+        if (p < 0) {
+            return s;
+        }
+        StringBuilder decoded = new StringBuilder(s.length());
+        int from = 0;
+        while (p >= 0) {
+            if (p + 7 <= s.length() && s.charAt(p + 6) == '_' && isHex(s, p + 2, p + 6)) {
+                decoded.append(s, from, p).append((char) Integer.parseInt(s, p + 2, p + 6, 16));
+                from = p + 7;
+                p = s.indexOf("_x", from);
+            } else {
+                p = s.indexOf("_x", p + 1);
+            }
+        }
+        return decoded.append(s, from, s.length()).toString();
+    }
+
+    private static boolean isHex(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.digit(s.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void closeQuietly(XMLStreamReader reader) {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // 读取器不持有底层输入流，关闭失败不影响结果
+        }
+    }
+}
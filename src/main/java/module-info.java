@@ -2,6 +2,7 @@ module io.github.sinri.keel.integration.poi {
     requires io.github.sinri.keel.core;
     requires io.vertx.core;
     requires java.desktop;
+    requires java.xml;
     requires static org.jspecify;
 
     requires org.apache.poi.poi; // Core POI functionalities (kept as code may directly use ss/usermodel)
@@ -15,6 +16,10 @@ module io.github.sinri.keel.integration.poi {
     requires com.github.pjfanning.excelstreamingreader;
 
     exports io.github.sinri.keel.integration.poi.csv;
+    exports io.github.sinri.keel.integration.poi.csv.spi;
     exports io.github.sinri.keel.integration.poi.excel;
     exports io.github.sinri.keel.integration.poi.excel.entity;
+
+    uses io.github.sinri.keel.integration.poi.csv.spi.CsvStructuralIndexer;
+    uses io.github.sinri.keel.integration.poi.csv.spi.CsvCompressionCodec;
 }
\ No newline at end of file
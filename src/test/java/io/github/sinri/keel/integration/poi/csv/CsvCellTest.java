@@ -0,0 +1,95 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class CsvCellTest extends KeelJUnit5Test {
+    private static final List<String> SAMPLES = List.of(
+            "0", "-0", "+0", "1", "-1", "+1", "007", "24.5", "-24.50", "3999999.9", ".5", "5.", "-.5",
+            "1e3", "1E-3", "1.5e+10", "-2.5E-300", "1e400", "123456789012345678", "1234567890123456789",
+            "9223372036854775807", "9223372036854775808", "-9223372036854775808", "0.1", "0.30000000000000004",
+            "2147483647", "2147483648", "1.0", "1e2147483647", "1e2147483648", "1.5e-2147483647", "1e-2147483649",
+            "", " ", " 1", "1 ", "+", "-", ".", "e5", "1e", "1e+", "1.2.3", "1,000", "0x10", "NaN", "Infinity",
+            "apple", "e-mail address 'vip@keel.com'", "１２", "1２", "12.5元"
+    );
+
+    public CsvCellTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static @Nullable BigDecimal parseByBigDecimal(String s) {
+        try {
+            return new BigDecimal(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Test
+    void testNumberDetectionMatchesBigDecimal() {
+        for (String sample : SAMPLES) {
+            BigDecimal expected = parseByBigDecimal(sample);
+            CsvCell cell = new CsvCell(sample);
+            assertEquals(expected != null, cell.isNumber(), sample);
+            if (expected != null) {
+                assertEquals(expected, cell.getNumber(), sample);
+            } else {
+                assertThrows(NumberFormatException.class, cell::getNumber, sample);
+                assertThrows(NumberFormatException.class, cell::getLong, sample);
+                assertThrows(NumberFormatException.class, cell::getDouble, sample);
+            }
+        }
+        assertFalse(new CsvCell(null).isNumber());
+        assertThrows(NumberFormatException.class, () -> new CsvCell(null).getLong());
+    }
+
+    @Test
+    void testPrimitiveAccessors() {
+        for (String sample : SAMPLES) {
+            BigDecimal expected = parseByBigDecimal(sample);
+            if (expected == null) continue;
+
+            CsvCell cell = new CsvCell(sample);
+            double expectedDouble;
+            try {
+                expectedDouble = Double.parseDouble(sample);
+            } catch (NumberFormatException e) {
+                expectedDouble = expected.doubleValue();
+            }
+            assertEquals(expectedDouble, cell.getDouble(), sample);
+            assertExactConversion(expected::longValueExact, cell::getLong, sample);
+            assertExactConversion(expected::intValueExact, cell::getInt, sample);
+        }
+
+        assertEquals(24.5, new CsvCell("24.5").getDouble());
+        assertEquals(-7L, new CsvCell("-7").getLong());
+        assertEquals(1000, new CsvCell("1e3").getInt());
+        assertThrows(ArithmeticException.class, () -> new CsvCell("24.5").getLong());
+        assertThrows(ArithmeticException.class, () -> new CsvCell("2147483648").getInt());
+    }
+
+    private static void assertExactConversion(ExactConversion expected, ExactConversion actual, String sample) {
+        Number expectedValue;
+        try {
+            expectedValue = expected.convert();
+        } catch (ArithmeticException e) {
+            assertThrows(ArithmeticException.class, actual::convert, sample);
+            return;
+        }
+        assertEquals(expectedValue, actual.convert(), sample);
+    }
+
+    @FunctionalInterface
+    private interface ExactConversion {
+        Number convert();
+    }
+}
@@ -0,0 +1,369 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.integration.poi.csv.spi.CsvStructuralIndexer;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@NullMarked
+class CsvCharRecordParserTest extends KeelJUnit5Test {
+
+    public CsvCharRecordParserTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static List<List<String>> parseWithEngine(String text, String separator, int bufferSize) throws IOException {
+        return parseWithEngine(new StringReader(text), separator, bufferSize);
+    }
+
+    private static List<List<String>> parseWithEngine(Reader reader, String separator, int bufferSize) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        CsvRecordBuffer record = new CsvRecordBuffer();
+        try (CsvCharRecordParser parser = new CsvCharRecordParser(reader, separator, bufferSize)) {
+            while (parser.parseNext(record)) {
+                List<String> cells = new ArrayList<>();
+                for (int i = 0; i < record.cellCount(); i++) {
+                    cells.add(record.cellString(i));
+                }
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+
+    private static List<List<String>> parseWithByteEngine(byte[] utf8, String separator, int bufferSize) throws IOException {
+        return parseWithByteEngine(utf8, separator, bufferSize, null);
+    }
+
+    private static List<List<String>> parseWithByteEngine(
+            byte[] utf8, String separator, int bufferSize, @Nullable CsvStructuralIndexer indexer
+    ) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvByteRecordParser parser = new CsvByteRecordParser(
+                new ByteArrayInputStream(utf8), StandardCharsets.UTF_8, separator, bufferSize, indexer)) {
+            CsvRecordBuffer record = parser.newRecordBuffer();
+            while (parser.parseNext(record)) {
+                List<String> cells = new ArrayList<>();
+                for (int i = 0; i < record.cellCount(); i++) {
+                    cells.add(record.cellString(i));
+                }
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+
+    private static List<List<String>> parseWithLegacy(String text, String separator) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new StringReader(text))) {
+            LegacyLineParser legacy = new LegacyLineParser(br, separator);
+            List<String> row;
+            while ((row = legacy.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void testSameOutputAsLegacyParser() throws IOException {
+        List<String> samples = List.of(
+                "",
+                "\n",
+                "a,b,c",
+                "a,b,c\n",
+                "a,b,c\n\n1,2,3\n",
+                "a,b\r\nc,d\r\n",
+                "a,b\rc,d\r",
+                ",,\n,",
+                "\"x,y\",z\n",
+                "\"say \"\"hi\"\"\",2\n",
+                "\"line1\nline2\",tail\n",
+                "\"line1\r\nline2\r\n\",tail\r\n",
+                "\"unterminated,cell\n",
+                "\"unterminated\n\n",
+                "ab\"cd,ef\"gh\n",
+                "\"ab\"cd,e\n",
+                "\"\"\"\",\"\"\n",
+                "姓名,年龄\n张三,\"北京,朝阳\"\n",
+                "emoji,😀\r\n\"多行\r\n备注\",café\n"
+        );
+        for (String sample : samples) {
+            for (int bufferSize : new int[]{1, 2, 3, 7, 8192}) {
+                List<List<String>> expected = parseWithLegacy(sample, ",");
+                assertEquals(expected, parseWithEngine(sample, ",", bufferSize),
+                        "sample: [" + sample + "], buffer size: " + bufferSize);
+                assertEquals(expected, parseWithByteEngine(sample.getBytes(StandardCharsets.UTF_8), ",", bufferSize),
+                        "byte engine, sample: [" + sample + "], buffer size: " + bufferSize);
+            }
+        }
+        assertEquals(parseWithLegacy("a;b;\"c;d\"\n", ";"), parseWithEngine("a;b;\"c;d\"\n", ";", 8192));
+        assertEquals(parseWithLegacy("a;b;\"c;d\"\n", ";"), parseWithByteEngine("a;b;\"c;d\"\n".getBytes(StandardCharsets.UTF_8), ";", 8192));
+        // 多字符或非 ASCII 分隔符由 CsvDialectRecordParser 处理
+        assertFalse(CsvByteRecordParser.supports(StandardCharsets.UTF_8, "||"));
+        assertFalse(CsvByteRecordParser.supports(StandardCharsets.UTF_8, "，"));
+        assertThrows(IllegalArgumentException.class, () -> new CsvCharRecordParser(new StringReader("a||b\n"), "||"));
+    }
+
+    /**
+     * 通过 {@link ServiceLoader} 找到可选的 Vector API 索引器时，确认其位图与逐字节计算的结果一致，
+     * 并且使用它解析的结果与不使用索引器时相同；运行环境中没有该索引器时跳过。
+     */
+    @Test
+    void testVectorStructuralIndexerMatchesScalar() throws IOException {
+        CsvStructuralIndexer vectorIndexer = null;
+        try {
+            for (CsvStructuralIndexer candidate : ServiceLoader.load(CsvStructuralIndexer.class)) {
+                if (candidate.getClass().getName().endsWith("VectorCsvStructuralIndexer") && candidate.isAvailable()) {
+                    vectorIndexer = candidate;
+                }
+            }
+        } catch (ServiceConfigurationError | LinkageError e) {
+            // 未启用 jdk.incubator.vector 时无法加载
+        }
+        assumeTrue(vectorIndexer != null, "Vector structural indexer is not available");
+
+        CsvStructuralIndexer scalarIndexer = new ScalarStructuralIndexer();
+        Random random = new Random(20240229L);
+        byte[] alphabet = "ab,;\"\n\r \t1|".getBytes(StandardCharsets.US_ASCII);
+        byte[] bytes = new byte[CsvStructuralIndexer.BLOCK_SIZE * 64 + 7];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = random.nextInt(8) == 0 ? (byte) random.nextInt(256) : alphabet[random.nextInt(alphabet.length)];
+        }
+        for (byte separator : new byte[]{',', ';', '|', '\t'}) {
+            for (int offset = 0; offset + CsvStructuralIndexer.BLOCK_SIZE <= bytes.length; offset += 7) {
+                assertEquals(scalarIndexer.structuralMask(bytes, offset, separator),
+                        vectorIndexer.structuralMask(bytes, offset, separator),
+                        "separator " + (char) separator + ", offset " + offset);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < 200; row++) {
+            for (int col = 0; col < 12; col++) {
+                if (col > 0) sb.append(',');
+                switch ((row + col) % 4) {
+                    case 0 -> sb.append("plain").append(row);
+                    case 1 -> sb.append("\"quoted, \"\"x\"\"\n中文\"");
+                    case 2 -> sb.append("");
+                    default -> sb.append(row * 31 + col);
+                }
+            }
+            sb.append(row % 2 == 0 ? "\r\n" : "\n");
+        }
+        byte[] csv = sb.toString().getBytes(StandardCharsets.UTF_8);
+        for (int bufferSize : new int[]{1, 63, 64, 65, 130, 8192}) {
+            assertEquals(parseWithByteEngine(csv, ",", bufferSize, scalarIndexer),
+                    parseWithByteEngine(csv, ",", bufferSize, vectorIndexer),
+                    "buffer size: " + bufferSize);
+        }
+    }
+
+    @Test
+    void testStructuralIndexerPath() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < 50; row++) {
+            for (int col = 0; col < 30; col++) {
+                if (col > 0) sb.append(row % 3 == 0 ? ";" : ",");
+                switch ((row + col) % 5) {
+                    case 0 -> sb.append("plain-value-").append(col);
+                    case 1 -> sb.append("\"quoted, with \"\"escapes\"\" and\r\nline breaks\"");
+                    case 2 -> sb.append("宽字符内容").append(row);
+                    case 3 -> sb.append("x".repeat(row * 3));
+                    default -> {
+                    }
+                }
+            }
+            sb.append(row % 2 == 0 ? "\n" : "\r\n");
+        }
+        String text = sb.toString();
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        CsvStructuralIndexer indexer = new ScalarStructuralIndexer();
+        for (String separator : new String[]{",", ";", "\t"}) {
+            List<List<String>> expected = parseWithEngine(text, separator, 8192);
+            for (int bufferSize : new int[]{1, 63, 64, 65, 130, 8192}) {
+                assertEquals(expected, parseWithByteEngine(bytes, separator, bufferSize, indexer),
+                        "separator: " + separator + ", buffer size: " + bufferSize);
+            }
+        }
+    }
+
+    /**
+     * 将 test-csv-1.csv 少量放大后，确认新旧实现以及字节引擎的解析结果一致。
+     */
+    @Test
+    void testEquivalenceWithLegacyParser() throws IOException {
+        String corpus = scaledCorpus(50);
+        byte[] corpusBytes = corpus.getBytes(StandardCharsets.UTF_8);
+
+        List<List<String>> expected = parseWithLegacy(corpus, ",");
+        assertEquals(expected, parseWithEngine(corpus, ",", 8192));
+        assertEquals(expected, parseWithEngine(new InputStreamReader(new ByteArrayInputStream(corpusBytes), StandardCharsets.UTF_8), ",", 8192));
+        assertEquals(expected, parseWithByteEngine(corpusBytes, ",", 8192));
+    }
+
+    /**
+     * 将 test-csv-1.csv 放大后，对比新旧实现的吞吐量；字节引擎与经 {@link InputStreamReader} 解码的字符引擎读取相同的 UTF-8 字节。
+     * <p>
+     * 属于基准测试，默认的测试任务不运行；结果通过 {@link TestReporter} 报告。
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkThroughputAgainstLegacyParser(TestReporter testReporter) throws IOException {
+        String corpus = scaledCorpus(40_000);
+        byte[] corpusBytes = corpus.getBytes(StandardCharsets.UTF_8);
+
+        long legacyBest = Long.MAX_VALUE;
+        long engineBest = Long.MAX_VALUE;
+        long decodingEngineBest = Long.MAX_VALUE;
+        long byteEngineBest = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            parseWithLegacy(corpus, ",");
+            long t1 = System.nanoTime();
+            parseWithEngine(corpus, ",", 8192);
+            long t2 = System.nanoTime();
+            parseWithEngine(new InputStreamReader(new ByteArrayInputStream(corpusBytes), StandardCharsets.UTF_8), ",", 8192);
+            long t3 = System.nanoTime();
+            parseWithByteEngine(corpusBytes, ",", 8192);
+            long t4 = System.nanoTime();
+            legacyBest = Math.min(legacyBest, t1 - t0);
+            engineBest = Math.min(engineBest, t2 - t1);
+            decodingEngineBest = Math.min(decodingEngineBest, t3 - t2);
+            byteEngineBest = Math.min(byteEngineBest, t4 - t3);
+        }
+        double megaChars = corpus.length() / 1_000_000.0;
+        testReporter.publishEntry(Map.of(
+                "corpus M chars", String.format("%.1f", megaChars),
+                "legacy M chars/s", String.format("%.1f", megaChars / (legacyBest / 1e9)),
+                "char-buffer engine M chars/s", String.format("%.1f", megaChars / (engineBest / 1e9)),
+                "char-buffer engine with UTF-8 decoding M chars/s", String.format("%.1f", megaChars / (decodingEngineBest / 1e9)),
+                "byte engine M chars/s", String.format("%.1f", megaChars / (byteEngineBest / 1e9))
+        ));
+    }
+
+    private static String scaledCorpus(int scale) throws IOException {
+        List<String> lines = Files.readAllLines(Path.of("src/test/resources/runtime/test-csv-1.csv"), StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder();
+        sb.append(lines.get(0)).append('\n');
+        for (int i = 0; i < scale; i++) {
+            for (int j = 1; j < lines.size(); j++) {
+                sb.append(lines.get(j)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 逐字节计算位图的索引器，用于验证解析器消费位图的路径。
+     */
+    private static final class ScalarStructuralIndexer implements CsvStructuralIndexer {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public long structuralMask(byte[] bytes, int offset, byte separator) {
+            long mask = 0;
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                byte b = bytes[offset + i];
+                if (b == '"' || b == separator || b == '\n' || b == '\r') {
+                    mask |= 1L << i;
+                }
+            }
+            return mask;
+        }
+    }
+
+    /**
+     * 旧版基于 readLine 与单字符子串比较的实现，仅作为对照基准。
+     */
+    private static final class LegacyLineParser {
+        private final BufferedReader br;
+        private final String separator;
+
+        LegacyLineParser(BufferedReader br, String separator) {
+            this.br = br;
+            this.separator = separator;
+        }
+
+        @Nullable List<String> next() throws IOException {
+            String line = br.readLine();
+            if (line == null) return null;
+            return consumeOneLine(null, null, 0, line);
+        }
+
+        private List<String> consumeOneLine(@Nullable List<String> row, @Nullable StringBuilder buffer, int quoterFlag, String line) throws IOException {
+            if (row == null) {
+                row = new ArrayList<>();
+            }
+            if (buffer == null) {
+                buffer = new StringBuilder();
+            } else {
+                buffer.append("\n");
+            }
+
+            for (int i = 0; i < line.length(); i++) {
+                var singleString = line.substring(i, i + 1);
+                if (singleString.equals("\"")) {
+                    if (quoterFlag == 0) {
+                        quoterFlag = 1;
+                    } else if (quoterFlag == 1) {
+                        quoterFlag = 2;
+                    } else {
+                        buffer.append(singleString);
+                        quoterFlag = 1;
+                    }
+                } else if (singleString.equals(separator)) {
+                    if (quoterFlag == 0 || quoterFlag == 2) {
+                        row.add(buffer.toString());
+                        quoterFlag = 0;
+                        buffer = new StringBuilder();
+                    } else {
+                        buffer.append(singleString);
+                    }
+                } else {
+                    buffer.append(singleString);
+                }
+            }
+
+            if (quoterFlag == 0 || quoterFlag == 2) {
+                row.add(buffer.toString());
+                return row;
+            } else {
+                String nextLine = br.readLine();
+                if (nextLine == null) {
+                    row.add(buffer.toString());
+                    return row;
+                }
+                return consumeOneLine(row, buffer, quoterFlag, nextLine);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@NullMarked
+class CsvCompressionTest extends KeelJUnit5Test {
+    private static final int ROW_COUNT = 50_000;
+
+    public CsvCompressionTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static byte[] writeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (KeelCsvWriter writer = KeelCsvWriter.compressing(out, ",", StandardCharsets.UTF_8, CsvCompression.GZIP)) {
+            writer.blockWriteRow(List.of("id", "name"));
+            for (int i = 0; i < ROW_COUNT; i++) {
+                writer.blockWriteRow(List.of(String.valueOf(i), "名称 \"" + i + "\""));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void assertRows(KeelCsvReader reader) throws IOException {
+        try (reader) {
+            CsvRow header = reader.next();
+            assertNotNull(header);
+            assertEquals("name", header.getCell(1).getString());
+            for (int i = 0; i < ROW_COUNT; i++) {
+                CsvRow row = reader.next();
+                assertNotNull(row);
+                assertEquals(String.valueOf(i), row.getCell(0).getString());
+                assertEquals("名称 \"" + i + "\"", row.getCell(1).getString());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testGzipRoundTrip() throws IOException {
+        byte[] gzip = writeGzip();
+        assertSame(CsvCompression.GZIP, CsvCompression.detect(gzip, gzip.length));
+        for (boolean pipelined : new boolean[]{false, true}) {
+            assertRows(KeelCsvReader.decompressing(new ByteArrayInputStream(gzip), StandardCharsets.UTF_8, new CsvDialect(), pipelined));
+        }
+    }
+
+    @Test
+    void testUncompressedPassThrough() throws IOException {
+        byte[] plain = "a,b\n1,2\n".getBytes(StandardCharsets.UTF_8);
+        assertNull(CsvCompression.detect(plain, plain.length));
+        assertNull(CsvCompression.detect(new byte[]{0x1f}, 1));
+        for (boolean pipelined : new boolean[]{false, true}) {
+            try (KeelCsvReader reader = KeelCsvReader.decompressing(new ByteArrayInputStream(plain), StandardCharsets.UTF_8, new CsvDialect(), pipelined)) {
+                CsvRow row = reader.next();
+                assertNotNull(row);
+                assertEquals("a", row.getCell(0).getString());
+                row = reader.next();
+                assertNotNull(row);
+                assertEquals("2", row.getCell(1).getString());
+                assertNull(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void testOpenGzipFile() throws IOException {
+        Path file = Files.createTempFile("keel-csv-compression", ".csv.gz");
+        try {
+            Files.write(file, writeGzip());
+            assertRows(KeelCsvReader.open(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testPipelinedFailure() throws IOException {
+        InputStream failing = new SequenceInputStream(
+                new ByteArrayInputStream("a,b\n".repeat(100_000).getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("broken source");
+                    }
+                });
+        try (KeelCsvReader reader = KeelCsvReader.decompressing(failing, StandardCharsets.UTF_8, new CsvDialect(), true)) {
+            IOException e = assertThrows(IOException.class, () -> {
+                while (reader.next() != null) {
+                    // 读到数据源出错的位置为止
+                }
+            });
+            assertEquals("broken source", e.getMessage());
+        }
+    }
+
+    @Test
+    void testPipelinedUncheckedFailure() throws IOException {
+        InputStream failing = new SequenceInputStream(
+                new ByteArrayInputStream(new byte[10_000]),
+                new InputStream() {
+                    @Override
+                    public int read() {
+                        throw new IllegalStateException("broken codec");
+                    }
+                });
+        try (InputStream in = new CsvPipelinedInputStream(failing, 1024, 2)) {
+            // 读取线程遇到非受检异常时也必须结束队列，调用方不会一直等待
+            IllegalStateException e = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IllegalStateException.class, () -> {
+                while (in.read() >= 0) {
+                    // 读到数据源出错的位置为止
+                }
+            }));
+            assertEquals("broken codec", e.getMessage());
+        }
+    }
+
+    @Test
+    void testOpenCorruptedGzipFileClosesFile() throws IOException {
+        Path fdDirectory = Path.of("/proc/self/fd");
+        assumeTrue(Files.isDirectory(fdDirectory), "Open file descriptors cannot be counted on this platform");
+        Path file = Files.createTempFile("keel-csv-compression", ".csv.gz");
+        try {
+            // gzip 魔数之后是无效的压缩方法，创建解压流时即失败
+            Files.write(file, new byte[]{0x1f, (byte) 0x8b, 0x01, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00});
+            long before;
+            try (Stream<Path> fds = Files.list(fdDirectory)) {
+                before = fds.count();
+            }
+            for (int i = 0; i < 20; i++) {
+                assertThrows(IOException.class, () -> KeelCsvReader.open(file));
+            }
+            long after;
+            try (Stream<Path> fds = Files.list(fdDirectory)) {
+                after = fds.count();
+            }
+            assertTrue(after < before + 20, "file handles leaked: " + before + " -> " + after);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class CsvDialectTest extends KeelJUnit5Test {
+
+    public CsvDialectTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static List<List<String>> parse(CsvRecordParser parser) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (parser) {
+            CsvRecordBuffer record = parser.newRecordBuffer();
+            while (parser.parseNext(record)) {
+                List<String> cells = new ArrayList<>();
+                for (int i = 0; i < record.cellCount(); i++) {
+                    cells.add(record.cellString(i));
+                }
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 对每种缓冲区大小，用通用解析器解析，并断言结果相同。
+     */
+    private static void assertParsed(List<List<String>> expected, String text, CsvDialect dialect) throws IOException {
+        for (int bufferSize : new int[]{1, 2, 3, 7, 8192}) {
+            assertEquals(expected, parse(new CsvDialectRecordParser(new StringReader(text), dialect, bufferSize)),
+                    "text: [" + text + "], buffer size: " + bufferSize);
+        }
+    }
+
+    @Test
+    void testDefaultDialectSameAsSpecializedParser() throws IOException {
+        List<String> samples = List.of(
+                "",
+                "a,b,c\n\n1,2,3\n",
+                "a,b\r\nc,d\r\n",
+                "a,b\rc,d\r",
+                ",,\n,",
+                "\"say \"\"hi\"\"\",2\n",
+                "\"line1\r\nline2\r\n\",tail\r\n",
+                "\"unterminated\n\n",
+                "ab\"cd,ef\"gh\n",
+                "姓名,年龄\n张三,\"北京,朝阳\"\n"
+        );
+        for (String sample : samples) {
+            List<List<String>> expected = parse(new CsvCharRecordParser(new StringReader(sample), ","));
+            assertParsed(expected, sample, new CsvDialect());
+        }
+    }
+
+    @Test
+    void testMultiCharSeparator() throws IOException {
+        CsvDialect dialect = new CsvDialect().setSeparator("||");
+        assertParsed(List.of(
+                List.of("a", "b|c", ""),
+                List.of("\"q||x\"", "|"),
+                List.of("d|")
+        ), "a||b|c||\n\"\"\"q||x\"\"\"|||\nd|", dialect);
+
+        try (KeelCsvReader reader = new KeelCsvReader(
+                new ByteArrayInputStream("id||name\n1||苹果\n".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, "||")) {
+            CsvRow header = reader.next();
+            assertNotNull(header);
+            assertEquals(2, header.size());
+            CsvRow row = reader.next();
+            assertNotNull(row);
+            assertEquals("苹果", row.getCell(1).getString());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testQuoteAndEscape() throws IOException {
+        assertParsed(List.of(
+                List.of("a,b", "it's", "\"x\"")
+        ), "'a,b','it''s',\"x\"\n", new CsvDialect().setQuote('\''));
+
+        assertParsed(List.of(
+                List.of("a,b", "say \"hi\"", "back\\slash", "line\nbreak"),
+                List.of("end\\")
+        ), "a\\,b,\"say \\\"hi\\\"\",back\\\\slash,line\\\nbreak\nend\\", new CsvDialect().setEscape('\\'));
+    }
+
+    @Test
+    void testLineBreakHandling() throws IOException {
+        String text = "\"a\r\nb\rc\nd\",e\r\nf\r";
+        assertParsed(List.of(List.of("a\nb\nc\nd", "e"), List.of("f")), text,
+                new CsvDialect().setCommentPrefix("#"));
+        assertParsed(List.of(List.of("a\r\nb\rc\nd", "e"), List.of("f")), text,
+                new CsvDialect().setNormalizeLineBreaks(false));
+    }
+
+    @Test
+    void testCommentLines() throws IOException {
+        CsvDialect dialect = new CsvDialect().setCommentPrefix("//");
+        assertParsed(List.of(
+                List.of("a", "b"),
+                List.of("\"", "x // y"),
+                List.of("/", "c")
+        ), "// header comment\r\na,b\n//another, \"unbalanced\n\"\"\"\",x // y\n/,c\n// trailing", dialect);
+    }
+
+    @Test
+    void testTrimWhitespace() throws IOException {
+        CsvDialect dialect = new CsvDialect().setTrimWhitespace(true).setEscape('\\');
+        assertParsed(List.of(
+                List.of("a", "b c", " quoted ", "x", "tail\\ ", "", "q x"),
+                List.of("")
+        ), "  a ,\tb c\t, \" quoted \" , \"x\"  ,tail\\\\\\  ,   ,\"q\" x \n \t\n", dialect);
+
+        // 分隔符本身是制表符时，制表符不会被当作空白去除
+        assertParsed(List.of(List.of("a", "b", "")), " a \t b\t\n", new CsvDialect().setSeparator("\t").setTrimWhitespace(true));
+    }
+
+    @Test
+    void testInvalidDialect() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvDialect().setSeparator(""));
+        assertThrows(IllegalArgumentException.class, () -> new CsvDialect().setCommentPrefix(""));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvDialect().setSeparator("\"").createParser(new StringReader("")));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvDialect().setEscape(',').createParser(new StringReader("")));
+        // 转义字符与多字符分隔符中后面的字符相同时同样有歧义
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvDialect().setSeparator(";|").setEscape('|').createParser(new StringReader("")));
+    }
+
+    @Test
+    void testEscapeSameAsQuoteMeansDoubledQuotes() throws IOException {
+        String text = "\"say \"\"hi\"\"\",\"a,b\"\n";
+        List<List<String>> expected = List.of(List.of("say \"hi\"", "a,b"));
+        assertParsed(expected, text, new CsvDialect());
+        assertParsed(expected, text, new CsvDialect().setEscape('"').setCommentPrefix("#"));
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class CsvMappedFileReaderTest extends KeelJUnit5Test {
+
+    public CsvMappedFileReaderTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static String readAll(Reader reader, int bufferSize) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int n;
+        while ((n = reader.read(buffer, 0, buffer.length)) != -1) {
+            sb.append(buffer, 0, n);
+        }
+        return sb.toString();
+    }
+
+    private static void assertDecodedSame(byte[] bytes, Charset charset) throws IOException {
+        Path file = Paths.get("src/test/resources/runtime/mapped-reader-sample.txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, bytes);
+        String expected = readAll(new InputStreamReader(new ByteArrayInputStream(bytes), charset), 8192);
+        for (int windowSize : new int[]{8, 9, 13, 64, CsvMappedFileReader.DEFAULT_WINDOW_SIZE}) {
+            for (int bufferSize : new int[]{2, 5, 8192}) {
+                try (CsvMappedFileReader reader = new CsvMappedFileReader(file, charset, windowSize)) {
+                    assertEquals(expected, readAll(reader, bufferSize),
+                            charset + " window=" + windowSize + " buffer=" + bufferSize);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDecodeSameAsInputStreamReader() throws IOException {
+        String text = "id,name,remark\n1,苹果,\"多行\n备注\"\r\n2,emoji 😀,café\n3,,\"\"\n";
+        for (Charset charset : new Charset[]{
+                StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII, Charset.forName("GBK")
+        }) {
+            assertDecodedSame(text.getBytes(charset), charset);
+        }
+        assertDecodedSame(new byte[0], StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testMalformedBytesAreReplaced() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.writeBytes("a,b\n".getBytes(StandardCharsets.UTF_8));
+        // 截断的三字节序列后紧跟 ASCII、孤立的续字节，以及位于文件末尾的截断序列
+        bytes.writeBytes(new byte[]{(byte) 0xE8, (byte) 0x8B, 'x', ',', (byte) 0x80, '\n', (byte) 0xF0, (byte) 0x9F});
+        assertDecodedSame(bytes.toByteArray(), StandardCharsets.UTF_8);
+        assertDecodedSame(bytes.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void testRejectTinyWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvMappedFileReader(Paths.get("src/test/resources/runtime/test-csv-1.csv"), StandardCharsets.UTF_8, 4));
+    }
+}
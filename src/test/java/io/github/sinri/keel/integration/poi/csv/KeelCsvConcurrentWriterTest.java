@@ -0,0 +1,174 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelCsvConcurrentWriterTest extends KeelJUnit5Test {
+
+    public KeelCsvConcurrentWriterTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    @Test
+    void testConcurrentProducers() throws Exception {
+        int producers = 8;
+        int rowsPerProducer = 5000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (KeelCsvConcurrentWriter writer = new KeelCsvConcurrentWriter(out, ",", StandardCharsets.UTF_8, 64)) {
+            List<Thread> threads = new ArrayList<>();
+            List<Throwable> errors = new ArrayList<>();
+            for (int t = 0; t < producers; t++) {
+                int producer = t;
+                Thread thread = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < rowsPerProducer; i++) {
+                            writer.writeRow(Arrays.asList(String.valueOf(producer), String.valueOf(i), "say \"" + i + "\", 你好"));
+                        }
+                    } catch (Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(errors.isEmpty(), errors.toString());
+        }
+
+        int[] nextIndex = new int[producers];
+        int count = 0;
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8)) {
+            CsvRow row;
+            while ((row = reader.next()) != null) {
+                int producer = Integer.parseInt(row.getCell(0).getString());
+                int index = Integer.parseInt(row.getCell(1).getString());
+                // 同一个生产者提交的行保持提交顺序
+                assertEquals(nextIndex[producer]++, index);
+                assertEquals("say \"" + index + "\", 你好", row.getCell(2).getString());
+                count++;
+            }
+        }
+        assertEquals(producers * rowsPerProducer, count);
+    }
+
+    @Test
+    void testEncoderFailure() throws InterruptedException {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        KeelCsvConcurrentWriter writer = new KeelCsvConcurrentWriter(failing, ",", StandardCharsets.UTF_8, 4);
+        // 需要写满编码缓冲区才会触及输出流
+        String big = "x".repeat(CsvEncoder.DEFAULT_BUFFER_SIZE);
+        IOException failure = assertThrows(IOException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                writer.writeRow(List.of(big));
+                Thread.sleep(1);
+            }
+        });
+        assertEquals("disk full", failure.getCause().getMessage());
+        assertThrows(IOException.class, writer::close);
+        assertThrows(IllegalStateException.class, () -> writer.writeRow(List.of("a")));
+    }
+
+    @Test
+    void testCloseWhileProducerWaits() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputStream slow = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                out.write(b, off, len);
+            }
+        };
+        KeelCsvConcurrentWriter writer = new KeelCsvConcurrentWriter(slow, ",", StandardCharsets.UTF_8, 1);
+        // 远大于编码缓冲区，保证写入这一行时会触及输出流
+        String big = "x".repeat(CsvEncoder.DEFAULT_BUFFER_SIZE * 8);
+        AtomicReference<Throwable> producerError = new AtomicReference<>();
+        CountDownLatch bigRowSubmitted = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                writer.writeRow(List.of(big));
+                bigRowSubmitted.countDown();
+                // 编码线程被输出流阻塞，这一行会在退避循环中等待
+                writer.writeRow(List.of("late"));
+            } catch (Throwable e) {
+                producerError.set(e);
+            }
+        });
+        producer.start();
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        assertTrue(bigRowSubmitted.await(10, TimeUnit.SECONDS));
+        // 生产者只会在退避循环中限时休眠
+        awaitBlocked(producer, Thread.State.TIMED_WAITING);
+
+        Thread closer = new Thread(() -> {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        closer.start();
+        // 关闭方先设置关闭标记，然后才在 join 中等待编码线程
+        awaitBlocked(closer, Thread.State.WAITING);
+        release.countDown();
+        closer.join(10_000);
+        producer.join(10_000);
+        assertFalse(closer.isAlive());
+        assertFalse(producer.isAlive());
+
+        // 关闭后等待中的行被拒绝，而不是留在无人消费的队列中
+        assertInstanceOf(IllegalStateException.class, producerError.get());
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("late"));
+    }
+
+    private static void awaitBlocked(Thread thread, Thread.State state) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != state) {
+            assertTrue(thread.isAlive(), thread.getName() + " exited");
+            assertTrue(System.nanoTime() < deadline, thread.getName() + " is " + thread.getState());
+            Thread.onSpinWait();
+        }
+    }
+}
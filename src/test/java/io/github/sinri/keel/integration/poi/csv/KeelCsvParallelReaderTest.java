@@ -0,0 +1,160 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelCsvParallelReaderTest extends KeelJUnit5Test {
+
+    public KeelCsvParallelReaderTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static Path writeSampleFile(String name, Charset charset, int rowCount) throws IOException {
+        Path outputFile = Paths.get("src/test/resources/runtime/" + name);
+        Files.createDirectories(outputFile.getParent());
+        try (FileOutputStream fos = new FileOutputStream(outputFile.toFile());
+             KeelCsvWriter writer = new KeelCsvWriter(fos, ",", charset)) {
+            writer.blockWriteRow(List.of("id", "name", "remark", "amount"));
+            for (int i = 1; i <= rowCount; i++) {
+                String remark;
+                if (i % 7 == 0) {
+                    remark = "multi\nline, \"quoted\"\nremark " + i;
+                } else if (i % 5 == 0) {
+                    remark = "备注，" + i;
+                } else {
+                    remark = "";
+                }
+                writer.blockWriteRow(List.of(String.valueOf(i), "item-" + i, remark, String.valueOf(i * 1.5)));
+            }
+        }
+        return outputFile;
+    }
+
+    private static List<List<String>> readSequentially(Path file, Charset charset) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (FileInputStream fis = new FileInputStream(file.toFile());
+             KeelCsvReader reader = new KeelCsvReader(fis, charset, ",")) {
+            CsvRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(toList(row));
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> toList(CsvRow row) {
+        List<String> cells = new ArrayList<>();
+        for (int i = 0; i < row.size(); i++) {
+            cells.add(row.getCell(i).getString());
+        }
+        return cells;
+    }
+
+    @Test
+    void testOrderedReadingMatchesSequentialReading() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Charset charset : List.of(StandardCharsets.UTF_8, Charset.forName("GBK"))) {
+                Path file = writeSampleFile("test-parallel-" + charset.name() + ".csv", charset, 2000);
+                List<List<String>> expected = readSequentially(file, charset);
+
+                for (int chunkSize : new int[]{16, 100, 4096, 1 << 20}) {
+                    List<List<String>> actual = new ArrayList<>();
+                    long count = new KeelCsvParallelReader(file, charset, ",")
+                            .setChunkSize(chunkSize)
+                            .setPool(pool)
+                            .forEach(row -> actual.add(toList(row)));
+                    assertEquals(expected.size(), count);
+                    assertEquals(expected, actual, "chunk size " + chunkSize);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUnorderedReading() throws IOException {
+        Path file = writeSampleFile("test-parallel-unordered.csv", StandardCharsets.UTF_8, 2000);
+        List<List<String>> expected = readSequentially(file, StandardCharsets.UTF_8);
+
+        List<List<String>> actual = Collections.synchronizedList(new ArrayList<>());
+        long count = new KeelCsvParallelReader(file)
+                .setChunkSize(512)
+                .setOrdered(false)
+                .forEach(row -> actual.add(toList(row)));
+        assertEquals(expected.size(), count);
+
+        Comparator<List<String>> byContent = Comparator.comparing(Object::toString);
+        expected.sort(byContent);
+        actual.sort(byContent);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testConsumerFailureStopsAllChunks() throws IOException {
+        Path file = writeSampleFile("test-parallel-failure.csv", StandardCharsets.UTF_8, 20_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (boolean ordered : new boolean[]{true, false}) {
+                IllegalStateException failure = new IllegalStateException("broken consumer");
+                AtomicInteger accepted = new AtomicInteger();
+                AtomicBoolean returned = new AtomicBoolean();
+                AtomicInteger lateCalls = new AtomicInteger();
+                KeelCsvParallelReader reader = new KeelCsvParallelReader(file)
+                        .setChunkSize(64 * 1024)
+                        .setPool(pool)
+                        .setOrdered(ordered);
+                RuntimeException thrown = assertThrows(RuntimeException.class, () -> reader.forEach(row -> {
+                    if (returned.get()) {
+                        lateCalls.incrementAndGet();
+                    }
+                    accepted.incrementAndGet();
+                    // 在第一个区间中失败，使其余正在执行的区间不会先于它被等待
+                    if (row.getCell(0).getString().equals("50")) {
+                        throw failure;
+                    }
+                    // 消费者较慢，未停止的任务必然拖到 forEach 返回之后
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }));
+                returned.set(true);
+                assertTrue(thrown == failure || thrown.getCause() == failure, thrown.toString());
+                // 等待线程池中剩余的任务全部结束，再确认 forEach 之后没有调用过消费者
+                assertTrue(pool.awaitQuiescence(60, TimeUnit.SECONDS));
+                assertEquals(0, lateCalls.get(), "ordered " + ordered);
+                assertTrue(accepted.get() < 20_000, "ordered " + ordered + ": " + accepted.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUnsupportedCharset() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new KeelCsvParallelReader(Path.of("any.csv"), StandardCharsets.UTF_16, ","));
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelCsvPipelineTest extends KeelJUnit5Test {
+
+    public KeelCsvPipelineTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static byte[] sample(int rows) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            sb.append(i).append(",\"name ").append(i).append(", \"\"quoted\"\"\",").append(i * 0.5).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testOrderedMatchesReader() throws IOException {
+        int rows = 10_000;
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(sample(rows)), StandardCharsets.UTF_8)) {
+            List<String> results = new ArrayList<>();
+            long count = new KeelCsvPipeline<>(reader, row -> row.getCell(0).getLong() + "|" + row.getCell(1).getString() + "|" + row.getCell(2).getDouble())
+                    .setWorkers(4)
+                    .setBatchSize(7)
+                    .setQueueCapacity(2)
+                    .forEach(results::add);
+            assertEquals(rows, count);
+            assertEquals(rows, results.size());
+            for (int i = 0; i < rows; i++) {
+                assertEquals(i + "|name " + i + ", \"quoted\"|" + (i * 0.5), results.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testUnorderedAndFiltered() throws IOException {
+        int rows = 5_000;
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(sample(rows)), StandardCharsets.UTF_8)) {
+            boolean[] seen = new boolean[rows];
+            long count = new KeelCsvPipeline<>(reader, row -> {
+                int id = row.getCell(0).getInt();
+                return id % 2 == 0 ? id : null;
+            })
+                    .setWorkers(3)
+                    .setBatchSize(16)
+                    .setOrdered(false)
+                    .forEach(id -> {
+                        assertFalse(seen[id]);
+                        seen[id] = true;
+                    });
+            assertEquals(rows / 2, count);
+            for (int i = 0; i < rows; i++) {
+                assertEquals(i % 2 == 0, seen[i]);
+            }
+        }
+    }
+
+    @Test
+    void testProjectionAndFiltersMatchReader() throws IOException {
+        int rows = 3_000;
+        byte[] data = sample(rows);
+        List<String> expected = new ArrayList<>();
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)) {
+            reader.setProjection(2, 1).addFilter(0, CsvCellFilter.between(100, 1999));
+            CsvRow row;
+            while ((row = reader.next()) != null) {
+                expected.add(row.size() + "|" + row.getCell(0).getString() + "|" + row.getCell(1).getString());
+            }
+        }
+        assertEquals(1900, expected.size());
+
+        List<KeelCsvReader> readers = List.of(
+                new KeelCsvReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8),
+                new KeelCsvReader(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8)))
+        );
+        for (KeelCsvReader reader : readers) {
+            try (reader) {
+                reader.setProjection(2, 1).addFilter(0, CsvCellFilter.between(100, 1999));
+                List<String> results = new ArrayList<>();
+                // 读取线程只复制原始记录，按投影生成行的工作在转换线程中完成
+                new KeelCsvPipeline<>(reader, row -> row.size() + "|" + row.getCell(0).getString() + "|" + row.getCell(1).getString())
+                        .setWorkers(3)
+                        .setBatchSize(10)
+                        .forEach(results::add);
+                assertEquals(expected, results);
+            }
+        }
+    }
+
+    @Test
+    void testEmptySource() throws IOException {
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8)) {
+            assertEquals(0, new KeelCsvPipeline<>(reader, row -> row).forEach(row -> fail()));
+        }
+    }
+
+    @Test
+    void testConverterFailure() throws IOException {
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(sample(2_000)), StandardCharsets.UTF_8)) {
+            KeelCsvPipeline<Integer> pipeline = new KeelCsvPipeline<>(reader, row -> {
+                int id = row.getCell(0).getInt();
+                if (id == 1234) {
+                    throw new IllegalStateException("bad row " + id);
+                }
+                return id;
+            }).setWorkers(2).setBatchSize(10);
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.forEach(id -> {
+            }));
+            assertEquals("bad row 1234", e.getMessage());
+        }
+    }
+
+    @Test
+    void testReadFailure() throws IOException {
+        byte[] data = sample(1_000);
+        InputStream failing = new InputStream() {
+            private int position = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (position == data.length / 2) {
+                    throw new IOException("connection reset");
+                }
+                return data[position++];
+            }
+        };
+        try (KeelCsvReader reader = new KeelCsvReader(failing, StandardCharsets.UTF_8)) {
+            KeelCsvPipeline<CsvRow> pipeline = new KeelCsvPipeline<>(reader, row -> row).setWorkers(2);
+            IOException e = assertThrows(IOException.class, () -> pipeline.forEach(row -> {
+            }));
+            assertEquals("connection reset", e.getMessage());
+        }
+    }
+
+    @Test
+    void testConsumerFailureStopsStages() throws IOException {
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(sample(50_000)), StandardCharsets.UTF_8)) {
+            KeelCsvPipeline<CsvRow> pipeline = new KeelCsvPipeline<>(reader, row -> row)
+                    .setWorkers(2)
+                    .setBatchSize(8)
+                    .setQueueCapacity(1);
+            int[] delivered = {0};
+            assertThrows(IllegalStateException.class, () -> pipeline.forEach(row -> {
+                if (++delivered[0] == 100) {
+                    throw new IllegalStateException("stop");
+                }
+            }));
+            // 缓冲区有界，读取线程停在文件中间，剩余的记录仍可继续读取
+            assertNotNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.streams.ReadStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelCsvReadStreamTest extends KeelJUnit5Test {
+    private final Vertx vertx;
+
+    public KeelCsvReadStreamTest(Vertx vertx) {
+        super(vertx);
+        this.vertx = vertx;
+    }
+
+    private static List<String> toList(CsvRow row) {
+        List<String> cells = new ArrayList<>();
+        for (int i = 0; i < row.size(); i++) {
+            cells.add(row.getCell(i).getString());
+        }
+        return cells;
+    }
+
+    private static List<List<String>> readAll(byte[] data, Charset charset, CsvDialect dialect) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(data), charset, dialect)) {
+            CsvRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(toList(row));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 按固定大小切分数据块推送，断言结果与 {@link KeelCsvReader} 相同。
+     */
+    private static void assertSameAsReader(String text, Charset charset, CsvDialect dialect) throws IOException {
+        byte[] data = text.getBytes(charset);
+        List<List<String>> expected = readAll(data, charset, dialect);
+        for (int chunkSize : new int[]{1, 2, 3, 5, 64, Math.max(1, data.length)}) {
+            List<List<String>> actual = new ArrayList<>();
+            boolean[] ended = {false};
+            KeelCsvReadStream stream = new KeelCsvReadStream(charset, dialect)
+                    .handler(row -> actual.add(toList(row)))
+                    .endHandler(v -> ended[0] = true);
+            for (int i = 0; i < data.length; i += chunkSize) {
+                stream.handle(Buffer.buffer(Arrays.copyOfRange(data, i, Math.min(data.length, i + chunkSize))));
+            }
+            assertFalse(ended[0]);
+            stream.end();
+            assertTrue(ended[0]);
+            assertEquals(expected, actual, "text: [" + text + "], chunk size: " + chunkSize);
+        }
+    }
+
+    @Test
+    void testChunkedInputSameAsReader() throws IOException {
+        List<String> samples = List.of(
+                "",
+                "a,b,c\n\n1,2,3\n",
+                "a,b\r\nc,d\r\n",
+                "a,b\rc,d\r",
+                "\"line1\r\nline2\r\n\",tail\r\nx",
+                "\"say \"\"hi\"\"\",2\n\"unterminated\n\n",
+                "姓名,年龄\n张三,\"北京,朝阳\"\n😀,🎉\n"
+        );
+        for (String sample : samples) {
+            assertSameAsReader(sample, StandardCharsets.UTF_8, new CsvDialect());
+            assertSameAsReader(sample, Charset.forName("GB18030"), new CsvDialect());
+        }
+
+        assertSameAsReader("// c\r\na||b\\||c\n\"x\ny\"||//z\n//\n", StandardCharsets.UTF_8,
+                new CsvDialect().setSeparator("||").setEscape('\\').setCommentPrefix("//"));
+        assertSameAsReader("a|;\\|;b|;\\\n|;c\n", StandardCharsets.UTF_8,
+                new CsvDialect().setSeparator("|;").setEscape('\\'));
+    }
+
+    @Test
+    void testBackpressure() {
+        FakeSource source = new FakeSource("h1,h2\n1,a\n2,b\n3,c\n4,d\n", 4);
+        List<String> firstCells = new ArrayList<>();
+        boolean[] ended = {false};
+        KeelCsvReadStream stream = KeelCsvReadStream.wrap(source);
+        stream.pause();
+        stream.handler(row -> firstCells.add(row.getCell(0).getString()))
+              .endHandler(v -> ended[0] = true);
+
+        source.pump();
+        assertTrue(firstCells.isEmpty());
+        assertTrue(source.paused);
+        assertTrue(source.hasMore(), "the source should stop pushing once demand is exhausted");
+
+        stream.fetch(2);
+        source.pump();
+        assertEquals(List.of("h1", "1"), firstCells);
+        assertTrue(source.paused);
+
+        stream.fetch(1);
+        source.pump();
+        assertEquals(List.of("h1", "1", "2"), firstCells);
+        assertFalse(ended[0]);
+
+        stream.resume();
+        source.pump();
+        assertEquals(List.of("h1", "1", "2", "3", "4"), firstCells);
+        assertTrue(ended[0]);
+    }
+
+    @Test
+    void testCellLengthLimitReportsFailure() {
+        FakeSource source = new FakeSource("a,b\n\"" + "x".repeat(100) + "\"\nc,d\n", 8);
+        List<Throwable> failures = new ArrayList<>();
+        List<String> firstCells = new ArrayList<>();
+        KeelCsvReadStream stream = KeelCsvReadStream.wrap(source)
+                                                    .setMaxCellLength(10)
+                                                    .exceptionHandler(failures::add);
+        stream.handler(row -> firstCells.add(row.getCell(0).getString()));
+        source.pump();
+        assertEquals(List.of("a"), firstCells);
+        assertEquals(1, failures.size());
+        assertInstanceOf(IOException.class, failures.get(0));
+        assertTrue(source.paused);
+    }
+
+    @Test
+    void testReadAsyncFile() throws Exception {
+        StringBuilder sb = new StringBuilder("id,name,price\n");
+        for (int i = 0; i < 10_000; i++) {
+            sb.append(i).append(",\"name ").append(i).append("\n第二行\",").append(i % 100).append('\n');
+        }
+        Path file = Files.createTempFile("keel-csv-read-stream", ".csv");
+        try {
+            Files.writeString(file, sb, StandardCharsets.UTF_8);
+            CompletableFuture<long[]> result = new CompletableFuture<>();
+            vertx.fileSystem()
+                 .open(file.toString(), new OpenOptions().setRead(true))
+                 .onFailure(result::completeExceptionally)
+                 .onSuccess(asyncFile -> {
+                     asyncFile.setReadBufferSize(1000);
+                     long[] stats = new long[2];
+                     KeelCsvReadStream.wrap(asyncFile)
+                                      .exceptionHandler(result::completeExceptionally)
+                                      .endHandler(v -> asyncFile.close().onComplete(ar -> result.complete(stats)))
+                                      .handler(row -> {
+                                          stats[0]++;
+                                          if (stats[0] > 1) {
+                                              stats[1] += Long.parseLong(row.getCell(2).getString());
+                                              assertTrue(row.getCell(1).getString().endsWith("\n第二行"));
+                                          }
+                                      });
+                 });
+            long[] stats = result.get(30, TimeUnit.SECONDS);
+            assertEquals(10_001, stats[0]);
+            assertEquals(100L * (99 * 100 / 2), stats[1]);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 按固定大小逐块推送数据的上游，遵循 {@link #pause()} 与 {@link #resume()}。
+     */
+    private static final class FakeSource implements ReadStream<Buffer> {
+        private final Deque<Buffer> chunks = new ArrayDeque<>();
+        private @Nullable Handler<Buffer> handler;
+        private @Nullable Handler<Void> endHandler;
+        private boolean paused = false;
+        private boolean ended = false;
+
+        FakeSource(String text, int chunkSize) {
+            byte[] data = text.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < data.length; i += chunkSize) {
+                chunks.add(Buffer.buffer(Arrays.copyOfRange(data, i, Math.min(data.length, i + chunkSize))));
+            }
+        }
+
+        boolean hasMore() {
+            return !chunks.isEmpty();
+        }
+
+        void pump() {
+            while (!paused && handler != null) {
+                Buffer chunk = chunks.poll();
+                if (chunk != null) {
+                    handler.handle(chunk);
+                } else {
+                    if (!ended && endHandler != null) {
+                        ended = true;
+                        endHandler.handle(null);
+                    }
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public ReadStream<Buffer> exceptionHandler(@Nullable Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> handler(@Nullable Handler<Buffer> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> pause() {
+            paused = true;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> resume() {
+            paused = false;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> fetch(long amount) {
+            return resume();
+        }
+
+        @Override
+        public ReadStream<Buffer> endHandler(@Nullable Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+    }
+}
@@ -6,10 +6,17 @@ import io.vertx.core.Vertx;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -232,4 +239,381 @@ class KeelCsvReaderTest extends KeelJUnit5Test {
             assertEquals(6, rowCount);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCellWithManyEmbeddedLineBreaks() throws IOException {
+        int lineBreaks = 50_000;
+        StringBuilder sb = new StringBuilder("id,text\n1,\"");
+        for (int i = 0; i < lineBreaks; i++) {
+            sb.append("line ").append(i).append('\n');
+        }
+        sb.append("end\",tail\n2,next\n");
+
+        try (KeelCsvReader reader = new KeelCsvReader(
+                new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ",")) {
+            assertNotNull(reader.next());
+
+            CsvRow row1 = reader.next();
+            assertNotNull(row1);
+            assertEquals(3, row1.size());
+            String text = row1.getCell(1).getString();
+            assertNotNull(text);
+            assertEquals(lineBreaks, text.chars().filter(c -> c == '\n').count());
+            assertTrue(text.endsWith("end"));
+            assertEquals("tail", row1.getCell(2).getString());
+
+            CsvRow row2 = reader.next();
+            assertNotNull(row2);
+            assertEquals("next", row2.getCell(1).getString());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void testMaxCellLength() throws IOException {
+        String csv = "a,b\n1,\"" + "x\n".repeat(10_000) + "\"\n";
+        try (KeelCsvReader reader = new KeelCsvReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ",")
+                .setMaxCellLength(1000)) {
+            assertNotNull(reader.next());
+            assertThrows(IOException.class, reader::next);
+        }
+
+        try (KeelCsvReader reader = new KeelCsvReader(
+                new ByteArrayInputStream("abcdef,g\n".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ",")
+                .setMaxCellLength(5)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testMaxCellLengthFailureIsSticky() throws IOException {
+        String csv = "1,\"" + "x,".repeat(20) + "\"\nnext,row\n";
+        List<KeelCsvReader> readers = List.of(
+                // 按字节、按字符与按方言解析
+                new KeelCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, ","),
+                new KeelCsvReader(new BufferedReader(new StringReader(csv)), ","),
+                new KeelCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8,
+                        new CsvDialect().setTrimWhitespace(true))
+        );
+        for (KeelCsvReader reader : readers) {
+            try (reader) {
+                reader.setMaxCellLength(10);
+                IOException failure = assertThrows(IOException.class, reader::next);
+                // 继续读取不会从超长单元格的中间产生错位的行
+                assertSame(failure, assertThrows(IOException.class, reader::next));
+                assertSame(failure, assertThrows(IOException.class, reader::nextView));
+            }
+        }
+    }
+
+    @Test
+    void testReadRowViews() throws IOException {
+        String csvFile = "src/test/resources/runtime/test-csv-1.csv";
+        try (FileInputStream fis = new FileInputStream(csvFile);
+             KeelCsvReader reader = new KeelCsvReader(fis, StandardCharsets.UTF_8, ",")) {
+
+            CsvRowView header = reader.nextView();
+            assertNotNull(header);
+            assertEquals(4, header.size());
+            assertTrue(header.contentEquals(1, "name"));
+            CsvRowView detachedHeader = header.detach();
+            assertTrue(detachedHeader.isDetached());
+
+            CsvRowView row1 = reader.nextView();
+            assertNotNull(row1);
+            assertThrows(IllegalStateException.class, header::size);
+            assertEquals("apple", row1.getString(1));
+            assertSame(row1.getCell(3), row1.getCell(3));
+            assertEquals(new BigDecimal("5"), row1.getCell(3).getNumber());
+            assertFalse(row1.isEmpty(2));
+            assertEquals(5, row1.getLength(2));
+
+            CsvRow row2 = reader.next();
+            assertNotNull(row2);
+            assertThrows(IllegalStateException.class, () -> row1.getString(0));
+            assertEquals("bag", row2.getCell(1).getString());
+
+            assertEquals("price", detachedHeader.getString(3));
+            assertEquals(4, detachedHeader.toCsvRow().size());
+        }
+    }
+
+    @Test
+    void testCursorReading() throws IOException {
+        String csvFile = "src/test/resources/runtime/test-csv-1.csv";
+        try (FileInputStream fis = new FileInputStream(csvFile);
+             KeelCsvReader reader = new KeelCsvReader(fis, StandardCharsets.UTF_8, ",")) {
+            assertThrows(IllegalStateException.class, reader::current);
+
+            assertTrue(reader.advance());
+            CsvRowView cursor = reader.current();
+            assertEquals("id", cursor.getString(0));
+            CsvCell headerCell = cursor.getCell(0);
+
+            int rowCount = 1;
+            BigDecimal total = BigDecimal.ZERO;
+            double doubleTotal = 0;
+            while (reader.advance()) {
+                rowCount++;
+                assertSame(cursor, reader.current());
+                assertEquals(4, cursor.size());
+                assertEquals(rowCount - 1, cursor.getLong(0));
+                assertFalse(cursor.isNumber(1));
+                total = total.add(cursor.getCell(3).getNumberOrElse(0));
+                doubleTotal += cursor.getDouble(3);
+            }
+            assertEquals(6, rowCount);
+            assertEquals(4208917.4, doubleTotal, 1e-6);
+            assertNotSame(headerCell, cursor.getCell(0));
+            assertEquals(new BigDecimal("4208917.4"), total);
+            assertThrows(IllegalStateException.class, reader::current);
+        }
+    }
+
+    @Test
+    void testOpenMappedFile() throws IOException {
+        String csvFile = "src/test/resources/runtime/test-csv-1.csv";
+        try (FileInputStream fis = new FileInputStream(csvFile);
+             KeelCsvReader streamReader = new KeelCsvReader(fis, StandardCharsets.UTF_8, ",");
+             KeelCsvReader mappedReader = KeelCsvReader.open(Paths.get(csvFile))) {
+            int rowCount = 0;
+            CsvRow expected;
+            while ((expected = streamReader.next()) != null) {
+                CsvRow actual = mappedReader.next();
+                assertNotNull(actual);
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.getCell(i).getString(), actual.getCell(i).getString());
+                }
+                rowCount++;
+            }
+            assertNull(mappedReader.next());
+            assertEquals(6, rowCount);
+        }
+    }
+
+    @Test
+    void testByteLevelRowViews() throws IOException {
+        String csv = "名称,数量,备注\n苹果,１２,\"多行\n备注\"\nbag,-7,\n";
+        for (var charset : new Charset[]{StandardCharsets.UTF_8, Charset.forName("GBK")}) {
+            try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(csv.getBytes(charset)), charset, ",")) {
+                CsvRowView header = reader.nextView();
+                assertNotNull(header);
+                assertTrue(header.contentEquals(0, "名称"));
+                assertEquals(2, header.getLength(1));
+                CsvRowView detachedHeader = header.detach();
+
+                CsvRowView row = reader.nextView();
+                assertNotNull(row);
+                assertEquals("苹果", row.getString(0));
+                assertTrue(row.isNumber(1));
+                assertEquals(12, row.getInt(1));
+                assertEquals("多行\n备注", row.getCell(2).getString());
+                assertEquals(5, row.getLength(2));
+
+                row = reader.nextView();
+                assertNotNull(row);
+                assertTrue(row.contentEquals(0, "bag"));
+                assertFalse(row.contentEquals(0, "bags"));
+                assertEquals(-7L, row.getLong(1));
+                assertTrue(row.isEmpty(2));
+                assertNull(reader.nextView());
+
+                assertEquals("备注", detachedHeader.getString(2));
+            }
+        }
+    }
+
+    @Test
+    void testTemplatedRows() throws IOException {
+        String csv = "id,name,amount,name\n1,Alice,100,dup\n2,\"Bob, Jr.\",250\n";
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8)) {
+            assertThrows(IllegalStateException.class, reader::nextTemplated);
+
+            CsvRowTemplate template = reader.readHeader();
+            assertSame(template, reader.getTemplate());
+            assertEquals(4, template.size());
+            // 重名的列按第一个同名列查找
+            assertEquals(1, template.getColumnIndex("name"));
+            assertNull(template.getColumnIndex("missing"));
+            assertThrows(IllegalArgumentException.class, () -> template.column("missing"));
+
+            CsvColumn name = template.column("name");
+            CsvColumn amount = template.column("amount");
+            CsvColumn last = CsvRowTemplate.create(template.getColumnNames()).column("id");
+
+            CsvTemplatedRow first = reader.nextTemplated();
+            assertNotNull(first);
+            assertSame(template, first.getTemplate());
+            assertEquals("Alice", first.getString(name));
+            assertEquals(100, first.getCell(amount).getLong());
+            assertEquals("1", first.getString("id"));
+            assertEquals("dup", first.getCell(3).getString());
+            assertThrows(IllegalArgumentException.class, () -> first.getCell(last));
+
+            CsvTemplatedRow second = reader.nextTemplated();
+            assertNotNull(second);
+            assertEquals("Bob, Jr.", second.getString(name));
+            // 缺少的列视为 null 单元格
+            assertTrue(second.getCell(3).isNull());
+            assertEquals("2", second.toJsonObject().getString("id"));
+            assertEquals(250, second.getCell(amount).getInt());
+
+            assertNull(reader.nextTemplated());
+        }
+    }
+
+    @Test
+    void testReadHeaderOnEmptySource() throws IOException {
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8)) {
+            assertThrows(IOException.class, reader::readHeader);
+            assertNull(reader.getTemplate());
+        }
+    }
+
+    @Test
+    void testProjection() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            sb.append(i).append(",\"skip, \"\"me\"\"\",名字").append(i).append(",x,\"multi\nline ").append(i).append("\"\r\n");
+        }
+        sb.append("short\n");
+        String csv = sb.toString();
+        int[] columns = {4, 0, 2};
+        List<CsvDialect> dialects = List.of(
+                new CsvDialect(),
+                new CsvDialect().setTrimWhitespace(true)
+        );
+        for (Charset charset : List.of(StandardCharsets.UTF_8, Charset.forName("GB18030"))) {
+            for (CsvDialect dialect : dialects) {
+                byte[] data = csv.getBytes(charset);
+                List<List<String>> expected = new ArrayList<>();
+                try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(data), charset, dialect)) {
+                    CsvRow row;
+                    while ((row = reader.next()) != null) {
+                        List<String> projected = new ArrayList<>();
+                        for (int column : columns) {
+                            projected.add(column < row.size() ? row.getCell(column).getString() : null);
+                        }
+                        expected.add(projected);
+                    }
+                }
+                try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(data), charset, dialect).setProjection(columns)) {
+                    for (List<String> projected : expected) {
+                        CsvRow row = reader.next();
+                        assertNotNull(row);
+                        assertEquals(columns.length, row.size());
+                        for (int k = 0; k < columns.length; k++) {
+                            assertEquals(projected.get(k), row.getCell(k).getString(), charset + " column " + columns[k]);
+                        }
+                    }
+                    assertNull(reader.next());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testProjectionByHeaderName() throws IOException {
+        String csv = "id,comment,amount\n1,\"long, long text\",10\n2,more,20\n3,last,30\n";
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8)) {
+            assertThrows(IllegalStateException.class, () -> reader.setProjection("amount"));
+            // 表头总是完整读取
+            reader.setProjection(2);
+            CsvRowTemplate template = reader.readHeader();
+            assertEquals(List.of("id", "comment", "amount"), template.getColumnNames());
+
+            reader.setProjection("amount", "id");
+            CsvColumn amount = template.column("amount");
+            CsvTemplatedRow row = reader.nextTemplated();
+            assertNotNull(row);
+            assertEquals(2, row.getRawRow().size());
+            assertEquals(10, row.getCell(amount).getInt());
+            assertEquals("1", row.getString("id"));
+            assertThrows(IllegalArgumentException.class, () -> row.getCell("comment"));
+            assertEquals(2, row.toJsonObject().size());
+
+            // 行视图按原始列索引访问，未被选中的列为空
+            CsvRowView view = reader.nextView();
+            assertNotNull(view);
+            assertEquals(3, view.size());
+            assertEquals("2", view.getString(0));
+            assertTrue(view.isEmpty(1));
+            assertEquals(20, view.getLong(2));
+
+            reader.clearProjection();
+            CsvRow last = reader.next();
+            assertNotNull(last);
+            assertEquals(3, last.size());
+            assertEquals("last", last.getCell(1).getString());
+        }
+    }
+
+    @Test
+    void testFilters() throws IOException {
+        StringBuilder sb = new StringBuilder("id,status,amount,memo\n");
+        for (int i = 0; i < 200; i++) {
+            String status = i % 3 == 0 ? "PAID" : (i % 3 == 1 ? "PENDING" : "已退款");
+            sb.append(i).append(',').append(status).append(',').append(i * 1.5).append(",\"memo, ").append(i).append("\"\n");
+        }
+        sb.append("999,PAID\n");
+        String csv = sb.toString();
+        for (Charset charset : List.of(StandardCharsets.UTF_8, Charset.forName("GBK"))) {
+            byte[] data = csv.getBytes(charset);
+            try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(data), charset)) {
+                reader.readHeader();
+                reader.addFilter("status", CsvCellFilter.equalTo("PAID"))
+                      .addFilter(2, CsvCellFilter.between(30, 150))
+                      .addFilter(2, CsvCellFilter.between(Double.NEGATIVE_INFINITY, 100));
+                List<Integer> ids = new ArrayList<>();
+                CsvRow row;
+                while ((row = reader.next()) != null) {
+                    ids.add(row.getCell(0).getInt());
+                    assertEquals("memo, " + row.getCell(0).getString(), row.getCell(3).getString());
+                }
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    if (i % 3 == 0 && i * 1.5 >= 30 && i * 1.5 <= 100) {
+                        expected.add(i);
+                    }
+                }
+                // 缺少被过滤列的最后一行被拒绝
+                assertEquals(expected, ids, charset.name());
+            }
+
+            try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(data), charset)) {
+                reader.readHeader();
+                // 被过滤的列不必被投影选中
+                reader.setProjection("memo")
+                      .addFilter("status", CsvCellFilter.startsWith("已"))
+                      .addFilter(0, CsvCellFilter.oneOf(List.of("2", "5", "8", "11", "14", "17", "20", "23", "26", "29")).negate());
+                int count = 0;
+                while (reader.advance()) {
+                    CsvRowView view = reader.current();
+                    assertTrue(view.contentEquals(1, "已退款"));
+                    assertTrue(view.isEmpty(2));
+                    assertTrue(view.getInt(0) > 29);
+                    count++;
+                }
+                assertEquals(56, count, charset.name());
+            }
+        }
+    }
+
+    @Test
+    void testFilterMatchingAndClear() throws IOException {
+        String csv = "a,1\nb,2\nab,3\n";
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8)) {
+            reader.addFilter(0, CsvCellFilter.matching(s -> s.endsWith("b")));
+            CsvRow row = reader.next();
+            assertNotNull(row);
+            assertEquals("b", row.getCell(0).getString());
+            reader.clearFilters();
+            row = reader.next();
+            assertNotNull(row);
+            assertEquals("ab", row.getCell(0).getString());
+            assertNull(reader.next());
+        }
+    }
+}
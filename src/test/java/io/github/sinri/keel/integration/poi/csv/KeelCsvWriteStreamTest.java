@@ -0,0 +1,171 @@
+package io.github.sinri.keel.integration.poi.csv;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.streams.WriteStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelCsvWriteStreamTest extends KeelJUnit5Test {
+    private final Vertx vertx;
+
+    public KeelCsvWriteStreamTest(Vertx vertx) {
+        super(vertx);
+        this.vertx = vertx;
+    }
+
+    private static List<String> row(int i) {
+        return List.of(String.valueOf(i), "name \"" + i + "\"", "第" + i + "行");
+    }
+
+    @Test
+    void testChunkedEmission() throws IOException {
+        CollectingStream target = new CollectingStream();
+        KeelCsvWriteStream stream = new KeelCsvWriteStream(target, ",", StandardCharsets.UTF_8, 64);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (KeelCsvWriter writer = new KeelCsvWriter(expected)) {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(stream.write(row(i)).succeeded());
+                writer.blockWriteRow(row(i));
+            }
+        }
+        // 在结束之前只写出完整的数据块
+        assertTrue(target.chunks.size() > 1);
+        assertFalse(target.ended);
+        assertTrue(stream.end().succeeded());
+        assertTrue(target.ended);
+        assertTrue(stream.write(row(0)).failed());
+
+        Buffer all = Buffer.buffer();
+        for (Buffer chunk : target.chunks) {
+            assertTrue(chunk.length() <= 64 * 3);
+            all.appendBuffer(chunk);
+        }
+        assertArrayEquals(expected.toByteArray(), all.getBytes());
+    }
+
+    @Test
+    void testBackpressureDelegation() {
+        CollectingStream target = new CollectingStream();
+        KeelCsvWriteStream stream = new KeelCsvWriteStream(target).setWriteQueueMaxSize(2);
+        assertEquals(2, target.maxSize);
+        assertFalse(stream.writeQueueFull());
+        target.full = true;
+        assertTrue(stream.writeQueueFull());
+        boolean[] drained = {false};
+        stream.drainHandler(v -> drained[0] = true);
+        Handler<Void> drainHandler = target.drainHandler;
+        assertNotNull(drainHandler);
+        drainHandler.handle(null);
+        assertTrue(drained[0]);
+    }
+
+    @Test
+    void testWriteAsyncFile() throws Exception {
+        int rowCount = 20_000;
+        Path file = Files.createTempFile("keel-csv-write-stream", ".csv");
+        try {
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            vertx.fileSystem()
+                 .open(file.toString(), new OpenOptions().setWrite(true).setTruncateExisting(true))
+                 .compose(asyncFile -> {
+                     KeelCsvWriteStream stream = new KeelCsvWriteStream(asyncFile).setWriteQueueMaxSize(4 * 1024);
+                     Promise<Void> done = Promise.promise();
+                     writeRows(stream, 0, rowCount, done);
+                     return done.future().compose(v -> stream.end());
+                 })
+                 .onSuccess(v -> result.complete(null))
+                 .onFailure(result::completeExceptionally);
+            result.get(30, TimeUnit.SECONDS);
+
+            try (KeelCsvReader reader = KeelCsvReader.open(file)) {
+                for (int i = 0; i < rowCount; i++) {
+                    CsvRow row = reader.next();
+                    assertNotNull(row);
+                    assertEquals(row(i).get(1), row.getCell(1).getString());
+                    assertEquals(row(i).get(2), row.getCell(2).getString());
+                }
+                assertNull(reader.next());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 写入行直到写队列已满，然后等待下游排空后继续。
+     */
+    private static void writeRows(KeelCsvWriteStream stream, int from, int to, Promise<Void> done) {
+        int i = from;
+        while (i < to && !stream.writeQueueFull()) {
+            stream.write(row(i++));
+        }
+        if (i == to) {
+            done.complete();
+        } else {
+            int next = i;
+            stream.drainHandler(v -> writeRows(stream, next, to, done));
+        }
+    }
+
+    private static final class CollectingStream implements WriteStream<Buffer> {
+        private final List<Buffer> chunks = new ArrayList<>();
+        private @Nullable Handler<Void> drainHandler;
+        private boolean ended = false;
+        private boolean full = false;
+        private int maxSize = -1;
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(@Nullable Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public Future<Void> write(Buffer data) {
+            chunks.add(data);
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public Future<Void> end() {
+            ended = true;
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return full;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(@Nullable Handler<Void> handler) {
+            this.drainHandler = handler;
+            return this;
+        }
+    }
+}
@@ -6,16 +6,23 @@ import io.vertx.core.Vertx;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -375,4 +382,150 @@ class KeelCsvWriterTest extends KeelJUnit5Test {
             assertEquals(rowCount, count);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBufferBoundaries() throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(Arrays.asList("id-" + i, "say \"" + i + "\"", "a||b", "😀".repeat(i % 7), "\r\n" + i, ""));
+        }
+
+        for (int bufferSize : new int[]{16, 17, 8192}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (KeelCsvWriter writer = new KeelCsvWriter(out, "||", StandardCharsets.UTF_8, bufferSize)) {
+                for (List<String> row : rows) {
+                    writer.blockWriteRow(row);
+                }
+                writer.flush();
+                assertTrue(out.size() > 0);
+            }
+
+            try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8, "||")) {
+                for (List<String> expected : rows) {
+                    CsvRow row = reader.next();
+                    assertNotNull(row);
+                    assertEquals(expected.size(), row.size());
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertEquals(expected.get(i).replace("\r\n", "\n"), row.getCell(i).getString(), "buffer size: " + bufferSize);
+                    }
+                }
+                assertNull(reader.next());
+            }
+        }
+    }
+
+    @Test
+    void testUnmappableCharacters() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (KeelCsvWriter writer = new KeelCsvWriter(out, ",", StandardCharsets.US_ASCII)) {
+            writer.blockWriteRow(Arrays.asList("a", "中文", "\uD800x"));
+        }
+        assertEquals("a,??,?x\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testTypedCells() throws IOException {
+        List<BigDecimal> decimals = new ArrayList<>(List.of(
+                BigDecimal.ZERO, new BigDecimal("0.00"), new BigDecimal("-0.05"), new BigDecimal("1E+3"),
+                new BigDecimal("0E+3"), new BigDecimal("123.4500"), new BigDecimal("-999999999999999999"),
+                new BigDecimal("12345678901234567890.123")
+        ));
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            decimals.add(BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(30) - 10));
+        }
+        long[] longs = {0, 7, -7, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+        double[] doubles = {0.0, -0.0, 1.5, 1e10, 1.0E-5, Double.NaN, Double.NEGATIVE_INFINITY, 24.5};
+        LocalDate[] dates = {LocalDate.of(2024, 2, 29), LocalDate.of(7, 1, 1), LocalDate.of(12345, 12, 31)};
+
+        for (String separator : new String[]{",", "."}) {
+            StringBuilder expected = new StringBuilder();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (KeelCsvWriter writer = new KeelCsvWriter(out, separator, StandardCharsets.UTF_8, 16)) {
+                for (long v : longs) {
+                    writer.writeLong(v);
+                    expected.append(quoteIfNeeded(String.valueOf(v), separator)).append(separator);
+                }
+                for (double v : doubles) {
+                    writer.writeDouble(v);
+                    expected.append(quoteIfNeeded(String.valueOf(v), separator)).append(separator);
+                }
+                for (BigDecimal v : decimals) {
+                    writer.writeBigDecimal(v);
+                    expected.append(quoteIfNeeded(v.toPlainString(), separator)).append(separator);
+                }
+                writer.writeBigDecimal(null);
+                writer.writeBoolean(true);
+                writer.writeBoolean(false);
+                expected.append(separator).append("true").append(separator).append("false").append(separator);
+                for (LocalDate v : dates) {
+                    writer.writeLocalDate(v);
+                    expected.append(quoteIfNeeded(v.toString(), separator)).append(separator);
+                }
+                writer.writeRowEnding();
+                expected.append('\n');
+            }
+            assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8), "separator: " + separator);
+        }
+    }
+
+    @Test
+    void testSharedWriterKeepsRowsWhole() throws Exception {
+        int threads = 4;
+        int rowsPerThread = 2000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (KeelCsvWriter writer = new KeelCsvWriter(out, ",", StandardCharsets.UTF_8, 16)) {
+            List<Thread> workers = new ArrayList<>();
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            for (int t = 0; t < threads; t++) {
+                String id = String.valueOf(t);
+                Thread worker = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < rowsPerThread; i++) {
+                            writer.blockWriteRow(List.of(id, String.valueOf(i), "第" + i + "行,\"" + id + "\""));
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertEquals(List.of(), errors);
+        }
+
+        // 默认的写入器在多个线程之间共享时，各行完整且每个线程内的顺序不变
+        int[] nextIndex = new int[threads];
+        int rows = 0;
+        try (KeelCsvReader reader = new KeelCsvReader(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8, ",")) {
+            for (CsvRow row = reader.next(); row != null; row = reader.next()) {
+                int id = Integer.parseInt(row.getCell(0).getString());
+                int i = nextIndex[id]++;
+                assertEquals(String.valueOf(i), row.getCell(1).getString());
+                assertEquals("第" + i + "行,\"" + id + "\"", row.getCell(2).getString());
+                rows++;
+            }
+        }
+        assertEquals(threads * rowsPerThread, rows);
+    }
+
+    @Test
+    void testSingleWriter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (KeelCsvWriter writer = KeelCsvWriter.singleWriter(out, ";", StandardCharsets.UTF_8, 16)) {
+            writer.writeCell("a;b");
+            writer.writeLong(42);
+            writer.writeRowEnding();
+            writer.writeCell("dangling");
+            writer.blockWriteRow(List.of("x", "y"));
+        }
+        assertEquals("\"a;b\";42;\ndangling;\nx;y\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String quoteIfNeeded(String value, String separator) {
+        return value.contains(separator) ? "\"" + value + "\"" : value;
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.core.utils.value.ValueBox;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelSheetTypedRowTest extends KeelJUnit5Test {
+
+    public KeelSheetTypedRowTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    /**
+     * 第一行：数字、布尔、文本、错误、空白、缺失、日期、数字公式、文本公式。
+     */
+    private static Sheet createSampleSheet(Workbook workbook) {
+        Sheet sheet = workbook.createSheet("typed");
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+        Row row = sheet.createRow(0);
+        row.createCell(0).setCellValue(42.5);
+        row.createCell(1).setCellValue(true);
+        row.createCell(2).setCellValue("文本");
+        row.createCell(3).setCellErrorValue(FormulaError.DIV0.getCode());
+        row.createCell(4).setBlank();
+        // 第 5 列缺失
+        Cell date = row.createCell(6);
+        date.setCellValue(LocalDateTime.of(2024, 2, 29, 13, 45, 30));
+        date.setCellStyle(dateStyle);
+        Cell numericFormula = row.createCell(7);
+        numericFormula.setCellFormula("A1*2");
+        // 公式缓存的结果，故意与求值结果不同
+        numericFormula.setCellValue(1.0);
+        Cell stringFormula = row.createCell(8);
+        stringFormula.setCellFormula("C1&\"!\"");
+        stringFormula.setCellValue("cached");
+        return sheet;
+    }
+
+    @Test
+    void testCellTypesWithoutEvaluator() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, createSampleSheet(workbook));
+            KeelSheetTypedRow row = keelSheet.readTypedRow(0, 0, new KeelSheetTypedRow());
+            assertNotNull(row);
+            assertEquals(0, row.getRowIndex());
+            assertEquals(9, row.size());
+
+            assertEquals(CellType.NUMERIC, row.getType(0));
+            assertEquals(42.5, row.getDouble(0));
+            assertFalse(row.isDate(0));
+
+            assertEquals(CellType.BOOLEAN, row.getType(1));
+            assertTrue(row.getBoolean(1));
+
+            assertEquals(CellType.STRING, row.getType(2));
+            assertEquals("文本", row.getString(2));
+
+            assertEquals(CellType.ERROR, row.getType(3));
+            assertEquals("#DIV/0!", row.getString(3));
+
+            assertTrue(row.isBlank(4));
+            assertEquals("", row.getString(4));
+            assertTrue(row.isBlank(5));
+            assertEquals("", row.getString(5));
+
+            assertEquals(CellType.NUMERIC, row.getType(6));
+            assertTrue(row.isDate(6));
+            assertEquals(LocalDateTime.of(2024, 2, 29, 13, 45, 30), row.getLocalDateTime(6));
+            assertEquals(LocalDate.of(2024, 2, 29), row.getLocalDate(6));
+
+            // 没有求值器时使用缓存的公式结果
+            assertEquals(CellType.NUMERIC, row.getType(7));
+            assertEquals(1.0, row.getDouble(7));
+            assertEquals(CellType.STRING, row.getType(8));
+            assertEquals("cached", row.getString(8));
+        }
+    }
+
+    @Test
+    void testFormulaCellsWithEvaluator() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = createSampleSheet(workbook);
+            FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, sheet, new ValueBox<>(evaluator));
+            KeelSheetTypedRow row = keelSheet.readTypedRow(0, 0, new KeelSheetTypedRow());
+            assertNotNull(row);
+            assertEquals(CellType.NUMERIC, row.getType(7));
+            assertEquals(85.0, row.getDouble(7));
+            assertEquals(85L, row.getLong(7));
+            assertEquals(CellType.STRING, row.getType(8));
+            assertEquals("文本!", row.getString(8));
+        }
+    }
+
+    @Test
+    void testTypeMismatchAndConversions() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, createSampleSheet(workbook));
+            KeelSheetTypedRow row = keelSheet.readTypedRow(0, 0, new KeelSheetTypedRow());
+            assertNotNull(row);
+
+            assertThrows(IllegalStateException.class, () -> row.getString(0));
+            assertThrows(IllegalStateException.class, () -> row.getBoolean(0));
+            assertThrows(IllegalStateException.class, () -> row.getString(1));
+            assertThrows(IllegalStateException.class, () -> row.getDouble(2));
+            assertThrows(IllegalStateException.class, () -> row.getDouble(3));
+            assertThrows(IllegalStateException.class, () -> row.getDouble(4));
+            assertThrows(IllegalStateException.class, () -> row.getLocalDateTime(0));
+            assertThrows(IllegalStateException.class, () -> row.getLocalDate(2));
+            assertThrows(IndexOutOfBoundsException.class, () -> row.getType(9));
+            assertThrows(IndexOutOfBoundsException.class, () -> row.getType(-1));
+
+            // 带小数部分的数值不能按整数读取
+            assertThrows(ArithmeticException.class, () -> row.getLong(0));
+        }
+    }
+
+    @Test
+    void testLongBoundaries() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("numbers");
+            Row source = sheet.createRow(0);
+            source.createCell(0).setCellValue(-7.0);
+            source.createCell(1).setCellValue(1e19);
+            source.createCell(2).setCellValue(0.1);
+            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, sheet);
+            KeelSheetTypedRow row = keelSheet.readTypedRow(0, 0, new KeelSheetTypedRow());
+            assertNotNull(row);
+            assertEquals(-7L, row.getLong(0));
+            assertThrows(ArithmeticException.class, () -> row.getLong(1));
+            assertThrows(ArithmeticException.class, () -> row.getLong(2));
+        }
+    }
+
+    @Test
+    void testReadAllTypedRowsReusesHolderAcrossWidths() throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("widths");
+            Row wide = sheet.createRow(0);
+            wide.createCell(0).setCellValue("a");
+            wide.createCell(1).setCellValue("b");
+            wide.createCell(2).setCellValue(3.0);
+            wide.createCell(3).setCellValue(false);
+            wide.createCell(4).setCellValue("e");
+            Row narrow = sheet.createRow(1);
+            narrow.createCell(0).setCellValue(1.0);
+            // 第 1 列缺失，之前的行在同一位置是文本
+            narrow.createCell(2).setCellValue("c");
+            Row wider = sheet.createRow(3);
+            for (int i = 0; i < 8; i++) {
+                wider.createCell(i).setCellValue(i);
+            }
+
+            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, sheet);
+            List<KeelSheetTypedRow> holders = new ArrayList<>();
+            List<String> snapshots = new ArrayList<>();
+            keelSheet.readAllTypedRows(0, row -> {
+                holders.add(row);
+                StringBuilder sb = new StringBuilder().append(row.getRowIndex()).append(':').append(row.size());
+                for (int i = 0; i < row.size(); i++) {
+                    sb.append('|').append(row.getType(i));
+                    switch (row.getType(i)) {
+                        case NUMERIC -> sb.append('=').append(row.getDouble(i));
+                        case BOOLEAN -> sb.append('=').append(row.getBoolean(i));
+                        case STRING -> sb.append('=').append(row.getString(i));
+                        default -> {
+                        }
+                    }
+                }
+                snapshots.add(sb.toString());
+            });
+
+            assertEquals(3, holders.size());
+            assertSame(holders.get(0), holders.get(1));
+            assertSame(holders.get(1), holders.get(2));
+            assertEquals(List.of(
+                    "0:5|STRING=a|STRING=b|NUMERIC=3.0|BOOLEAN=false|STRING=e",
+                    "1:3|NUMERIC=1.0|BLANK|STRING=c",
+                    "3:8|NUMERIC=0.0|NUMERIC=1.0|NUMERIC=2.0|NUMERIC=3.0|NUMERIC=4.0|NUMERIC=5.0|NUMERIC=6.0|NUMERIC=7.0"
+            ), snapshots);
+
+            // 固定列数时，超出行末的列为空单元格
+            List<String> fixed = new ArrayList<>();
+            keelSheet.readAllTypedRows(4, row -> fixed.add(row.size() + ":" + row.isBlank(3)));
+            assertEquals(List.of("4:false", "4:true", "4:false"), fixed);
+        }
+    }
+}
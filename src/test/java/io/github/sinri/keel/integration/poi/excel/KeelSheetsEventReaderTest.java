@@ -0,0 +1,462 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.core.utils.value.ValueBox;
+import io.github.sinri.keel.integration.poi.excel.entity.KeelSheetMatrix;
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.sinri.keel.integration.poi.excel.XlsxTestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class KeelSheetsEventReaderTest extends KeelJUnit5Test {
+
+    public KeelSheetsEventReaderTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    /**
+     * 第一个工作表由 POI 写出，第二个工作表的 XML 与追加的共享字符串为手工构造。
+     */
+    private static Path createCellTypesWorkbook(boolean date1904) throws IOException {
+        Path file;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            if (date1904) {
+                var ctWorkbook = workbook.getCTWorkbook();
+                (ctWorkbook.isSetWorkbookPr() ? ctWorkbook.getWorkbookPr() : ctWorkbook.addNewWorkbookPr()).setDate1904(true);
+            }
+            // 样式索引 1
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            Sheet written = workbook.createSheet("written");
+            Row row = written.createRow(0);
+            row.createCell(0).setCellValue("shared 共享");
+            row.createCell(1).setCellValue(true);
+            row.createCell(2).setCellErrorValue(FormulaError.DIV0.getCode());
+            row.createCell(3).setCellValue(-12.75);
+            Cell date = row.createCell(4);
+            date.setCellValue(LocalDateTime.of(2024, 2, 29, 13, 45, 30));
+            date.setCellStyle(dateStyle);
+            Cell stringFormula = row.createCell(5);
+            stringFormula.setCellFormula("A1&\"!\"");
+            stringFormula.setCellValue("shared 共享!");
+            Cell numericFormula = row.createCell(6);
+            numericFormula.setCellFormula("D1*2");
+            numericFormula.setCellValue(-25.5);
+            row = written.createRow(2);
+            row.createCell(1).setCellValue("shared 共享");
+            row.createCell(3).setCellValue(1e-7);
+
+            workbook.createSheet("crafted");
+            file = write(workbook);
+        }
+        rewriteParts(file, Map.of(
+                "xl/sharedStrings.xml", appendSharedStrings(
+                        "<si><r><t>rich</t></r><r><rPr><b/></rPr><t xml:space=\"preserve\"> text</t></r></si>",
+                        "<si><t>漢字</t><rPh sb=\"0\" eb=\"2\"><t>カンジ</t></rPh></si>",
+                        "<si><t>line_x000D__x000A_break</t></si>"
+                ),
+                "xl/worksheets/sheet2.xml", sheetData(""
+                        + "<row r=\"1\">"
+                        + "<c r=\"A1\" t=\"s\"><v>1</v></c>"
+                        + "<c r=\"B1\" t=\"s\"><v>2</v></c>"
+                        + "<c r=\"C1\" t=\"s\"><v>3</v></c>"
+                        + "<c r=\"D1\" t=\"inlineStr\"><is><t>inline</t></is></c>"
+                        + "<c r=\"E1\" t=\"inlineStr\"><is><t>東京</t><rPh sb=\"0\" eb=\"2\"><t>トウキョウ</t></rPh></is></c>"
+                        + "<c r=\"F1\" t=\"inlineStr\"><is><r><t>tab_x0009_</t></r><r><t>run</t></r></is></c>"
+                        + "<c r=\"G1\" t=\"b\"><v>0</v></c>"
+                        + "<c r=\"H1\" t=\"e\"><v>#N/A</v></c>"
+                        + "<c r=\"I1\" t=\"str\"><f>\"x\"</f><v>formula text</v></c>"
+                        + "<c r=\"J1\" s=\"1\"><v>45351.5</v></c>"
+                        + "<c r=\"K1\"><v>0.1</v></c>"
+                        + "</row>"
+                        + "<row r=\"2\"><c r=\"A2\"><v/></c><c r=\"B2\" t=\"inlineStr\"><is><t>after empty</t></is></c></row>"
+                        + "<row r=\"4\"><c r=\"C4\" t=\"s\"><v>0</v></c></row>")
+        ));
+        return file;
+    }
+
+    private static List<String> readWithEventReader(Path file, int sheetIndex) throws IOException {
+        Recorder recorder = new Recorder();
+        try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+            reader.readSheet(sheetIndex, recorder);
+        }
+        return recorder.events;
+    }
+
+    @Test
+    void testEventsMatchKeelSheet() throws IOException {
+        for (boolean date1904 : new boolean[]{false, true}) {
+            Path file = createCellTypesWorkbook(date1904);
+            try {
+                for (int sheetIndex = 0; sheetIndex < 2; sheetIndex++) {
+                    List<String> expected = describeWithKeelSheet(file, sheetIndex);
+                    if (sheetIndex == 1) {
+                        // 唯一有意的差异：POI 把值为空的 <v/> 读作 0，事件读取器视为空单元格
+                        assertTrue(expected.remove("1,0 NUMERIC 0.0"), expected.toString());
+                    }
+                    assertEquals(expected, readWithEventReader(file, sheetIndex), "sheet " + sheetIndex + ", date1904 " + date1904);
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void testCraftedCellValues() throws IOException {
+        for (boolean date1904 : new boolean[]{false, true}) {
+            Path file = createCellTypesWorkbook(date1904);
+            try {
+                List<String> written = readWithEventReader(file, 0);
+                assertTrue(written.contains("0,0 STRING shared 共享"));
+                assertTrue(written.contains("0,1 BOOLEAN true"));
+                assertTrue(written.contains("0,2 ERROR #DIV/0!"));
+                // POI 写入日期时已按工作簿的日期系统换算，读回的日期时间不变
+                assertTrue(written.contains("0,4 NUMERIC date 2024-02-29T13:45:30"), written.toString());
+                assertTrue(written.contains("0,5 STRING shared 共享!"));
+                assertTrue(written.contains("0,6 NUMERIC -25.5"));
+
+                List<String> crafted = readWithEventReader(file, 1);
+                // 注音文本被跳过，_xHHHH_ 转义被解码
+                assertEquals(List.of(
+                        "0,0 STRING rich text",
+                        "0,1 STRING 漢字",
+                        "0,2 STRING line\r\nbreak",
+                        "0,3 STRING inline",
+                        "0,4 STRING 東京",
+                        "0,5 STRING tab\trun",
+                        "0,6 BOOLEAN false",
+                        "0,7 ERROR #N/A",
+                        "0,8 STRING formula text",
+                        "0,9 NUMERIC date " + (date1904 ? "2028-03-01T12:00" : "2024-02-29T12:00"),
+                        "0,10 NUMERIC 0.1",
+                        "end 0",
+                        // 值为空的数字单元格不产生事件
+                        "1,1 STRING after empty",
+                        "end 1",
+                        "3,2 STRING shared 共享",
+                        "end 3"
+                ), crafted);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void testGetDoubleMatchesParseDouble() throws IOException {
+        Random random = new Random(20240229L);
+        List<String> texts = new ArrayList<>(List.of(
+                "0", "-0", "1", "-1", "0.1", "0.2", "0.30000000000000004", "4.35", "123456789012345", "1234567890123456",
+                "999999999999999", "0.000000000000001", "-0.000123", "1E-3", "1.5E+20", "2.2250738585072014E-308",
+                "9007199254740993", "3.14159265358979", "100.", ".5", "45351.999988426"
+        ));
+        for (int i = 0; i < 2000; i++) {
+            double value = switch (i % 4) {
+                case 0 -> random.nextDouble();
+                case 1 -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(16));
+                case 2 -> Math.round(random.nextDouble() * 1e6) / 100.0;
+                default -> random.nextLong() / 1e4;
+            };
+            texts.add(String.valueOf(value));
+            texts.add(new BigDecimal(value).round(new MathContext(1 + random.nextInt(15))).toPlainString());
+        }
+
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < texts.size(); i++) {
+            rows.append("<row r=\"").append(i + 1).append("\"><c r=\"A").append(i + 1).append("\"><v>")
+                .append(texts.get(i)).append("</v></c></row>");
+        }
+        Path file;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("numbers");
+            file = write(workbook);
+        }
+        try {
+            rewriteParts(file, Map.of("xl/worksheets/sheet1.xml", sheetData(rows.toString())));
+            List<String> mismatches = new ArrayList<>();
+            try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+                reader.readSheet(0, cell -> {
+                    String text = cell.getText().toString();
+                    if (Double.doubleToLongBits(cell.getDouble()) != Double.doubleToLongBits(Double.parseDouble(text))) {
+                        mismatches.add(text + " -> " + cell.getDouble());
+                    }
+                });
+            }
+            assertEquals(List.of(), mismatches);
+            // 与 POI 读取的数值逐一比较
+            List<String> expected = describeWithKeelSheet(file, 0);
+            Recorder recorder = new Recorder();
+            try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+                reader.readSheet(0, recorder);
+            }
+            assertEquals(expected, recorder.events);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 三个工作表：前两行为标题，之后是表头与数据，包含空行、缺失的单元格、空白单元格与公式。
+     */
+    private static Path createMatrixWorkbook() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            for (int s = 0; s < 3; s++) {
+                Sheet sheet = workbook.createSheet("sheet" + s);
+                sheet.createRow(0).createCell(0).setCellValue("title " + s);
+                Row subtitle = sheet.createRow(1);
+                subtitle.createCell(0).setCellValue("sub");
+                subtitle.createCell(1).setCellValue(s);
+                Row header = sheet.createRow(2);
+                for (int c = 0; c < 3 + s; c++) {
+                    header.createCell(c).setCellValue("col" + c);
+                }
+                // 表头中的空白单元格使自动检测的列数止于此
+                header.createCell(3 + s).setCellValue(" ");
+                header.createCell(4 + s).setCellValue("hidden");
+                for (int r = 3; r < 40; r++) {
+                    Row row = sheet.createRow(r);
+                    if (r % 9 == 0) {
+                        // 没有单元格的空行
+                        continue;
+                    }
+                    row.createCell(0).setCellValue("r" + r);
+                    if (r % 4 != 0) {
+                        row.createCell(1).setCellValue(r * 1.25 + s);
+                    }
+                    row.createCell(2).setCellValue(r % 5 == 0 ? "" : "文本" + r);
+                    Cell formula = row.createCell(3);
+                    formula.setCellFormula("B" + (r + 1) + "*2");
+                    formula.setCellValue(r * 2.5 + s * 2);
+                    row.createCell(6).setCellValue("far " + r);
+                }
+            }
+            return write(workbook);
+        }
+    }
+
+    /**
+     * 三个工作表：由 POI 写出的普通工作表；手工构造的工作表，包含省略 {@code r} 属性的行、内联与共享字符串、
+     * {@code _xHHHH_} 转义以及远大于片段的一行；根元素带命名空间前缀的工作表。
+     */
+    private static Path createSegmentedWorkbook() throws IOException {
+        Path file;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet written = workbook.createSheet("written");
+            for (int r = 0; r < 300; r++) {
+                if (r % 17 == 5) {
+                    continue;
+                }
+                Row row = written.createRow(r);
+                row.createCell(0).setCellValue("值 " + (r % 11));
+                row.createCell(2).setCellValue(r * 0.25);
+                row.createCell(3).setCellValue(r % 2 == 0);
+                Cell date = row.createCell(4);
+                date.setCellValue(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(r));
+                date.setCellStyle(dateStyle);
+            }
+            workbook.createSheet("crafted");
+            workbook.createSheet("namespaced");
+            file = write(workbook);
+        }
+
+        StringBuilder crafted = new StringBuilder();
+        // 开头两行没有 r 属性
+        crafted.append("<row><c t=\"inlineStr\"><is><t>first</t></is></c><c><v>1</v></c></row>");
+        crafted.append("<row><c t=\"s\"><v>0</v></c><c t=\"inlineStr\"><is><t>a_x000D__x000A_b</t></is></c></row>");
+        for (int r = 5; r < 40; r++) {
+            if (r % 3 == 0) {
+                // 紧跟在有行号的行之后、没有 r 属性的行
+                crafted.append("<row><c t=\"inlineStr\"><is><t>implicit ").append(r).append("</t></is></c></row>");
+            } else {
+                crafted.append("<row r=\"").append(r * 2).append("\">")
+                       .append("<c r=\"B").append(r * 2).append("\" t=\"s\"><v>").append(r % 12).append("</v></c>")
+                       .append("<c r=\"C").append(r * 2).append("\" t=\"inlineStr\"><is><t>tab_x0009_").append(r).append("</t></is></c>")
+                       .append("</row>");
+            }
+        }
+        // 远大于片段的一行，之后是没有 r 属性的行
+        crafted.append("<row r=\"200\">");
+        for (int c = 0; c < 400; c++) {
+            crafted.append("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">wide cell ").append(c).append(" 宽</t></is></c>");
+        }
+        crafted.append("</row>");
+        crafted.append("<row><c t=\"s\"><v>11</v></c></row><row/><row><c t=\"b\"><v>1</v></c></row>");
+
+        StringBuilder namespaced = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<!-- comment <row> -->"
+                + "<x:worksheet xmlns:x=\"" + SPREADSHEET_NAMESPACE + "\" xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                + "<x:dimension ref=\"A1:C60\"/><x:sheetData>\n");
+        for (int r = 1; r <= 60; r++) {
+            namespaced.append(r % 7 == 0 ? "<x:row>" : "<x:row r=\"" + r + "\" spans=\"1:3\">")
+                      .append("<x:c t=\"inlineStr\"><x:is><x:t>ns ").append(r).append("</x:t></x:is></x:c>")
+                      .append("<x:c t=\"s\"><x:v>1</x:v></x:c>")
+                      .append("<x:c><x:v>").append(r * 1.5).append("</x:v></x:c>")
+                      .append("</x:row>\n");
+        }
+        namespaced.append("</x:sheetData><x:rowBreaks count=\"0\"/></x:worksheet>");
+
+        rewriteParts(file, Map.of(
+                "xl/sharedStrings.xml", appendSharedStrings("<si><t>追加_x0041_</t></si>"),
+                "xl/worksheets/sheet2.xml", sheetData(crafted.toString()),
+                "xl/worksheets/sheet3.xml", xml -> namespaced.toString()
+        ));
+        return file;
+    }
+
+    @Test
+    void testParallelSegmentsMatchReadSheet() throws IOException {
+        Path file = createSegmentedWorkbook();
+        try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+            for (int sheetIndex = 0; sheetIndex < 3; sheetIndex++) {
+                Recorder sequential = new Recorder();
+                reader.readSheet(sheetIndex, sequential);
+                assertFalse(sequential.events.isEmpty());
+                // 很小的片段使切分落在几乎每一行之前，且必然有一行大于片段
+                for (int segmentBytes : new int[]{1, 64, 300, 5000, KeelSheetsEventReader.DEFAULT_PARALLEL_SEGMENT_BYTES}) {
+                    for (int parallelism : new int[]{2, 4}) {
+                        Recorder segmented = new Recorder();
+                        reader.readSheetInParallelSegments(sheetIndex, parallelism, segmentBytes, segmented);
+                        assertEquals(sequential.events, segmented.events,
+                                "sheet " + sheetIndex + ", segment " + segmentBytes + ", parallelism " + parallelism);
+                    }
+                }
+            }
+
+            List<String> crafted = readWithEventReader(file, 1);
+            assertEquals(List.of("0,0 STRING first", "0,1 NUMERIC 1.0", "end 0"), crafted.subList(0, 3));
+            assertTrue(crafted.contains("1,1 STRING a\r\nb"));
+            // 有行号的行之后没有 r 属性的行按顺序推算
+            assertEquals(List.of("9,2 STRING tab\t5", "end 9", "10,0 STRING implicit 6", "end 10"),
+                    crafted.subList(crafted.indexOf("end 9") - 1, crafted.indexOf("end 10") + 1));
+            assertTrue(crafted.contains("199,399 STRING wide cell 399 宽"));
+            assertEquals(List.of("200,0 STRING 追加A", "end 200", "end 201", "202,0 BOOLEAN true", "end 202"),
+                    crafted.subList(crafted.size() - 5, crafted.size()));
+            List<String> namespaced = readWithEventReader(file, 2);
+            assertEquals(List.of("6,0 STRING ns 7", "6,1 STRING 值 1", "6,2 NUMERIC 10.5", "end 6"), namespaced.subList(24, 28));
+            assertEquals("end 59", namespaced.get(namespaced.size() - 1));
+
+            assertThrows(IllegalArgumentException.class, () -> reader.readSheetInParallelSegments(0, 2, 0, new Recorder()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testReadSheetsToMatricesMatchesKeelSheet() throws Exception {
+        Path file = createMatrixWorkbook();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(file.toFile());
+             KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+            List<String> sheetNames = List.of("sheet2", "sheet0", "sheet1");
+            for (int headerRowIndex : new int[]{0, 2}) {
+                for (int maxColumns : new int[]{0, 2, 7}) {
+                    for (SheetRowFilter filter : new SheetRowFilter[]{null, SheetRowFilter.toThrowEmptyRows()}) {
+                        String scenario = "header " + headerRowIndex + ", columns " + maxColumns + ", filter " + (filter != null);
+                        Map<String, KeelSheetMatrix> matrices = reader.readSheetsToMatrices(sheetNames, 2, headerRowIndex, maxColumns, filter);
+                        assertEquals(sheetNames, new ArrayList<>(matrices.keySet()), scenario);
+                        for (String sheetName : sheetNames) {
+                            // 公式单元格使用缓存的结果，与事件读取一致
+                            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, workbook.getSheet(sheetName), new ValueBox<>(null));
+                            KeelSheetMatrix expected = keelSheet.readAllRowsToMatrix(headerRowIndex, maxColumns, filter);
+                            KeelSheetMatrix actual = matrices.get(sheetName);
+                            assertNotNull(actual);
+                            assertEquals(expected.getHeaderRow(), actual.getHeaderRow(), scenario + ", " + sheetName);
+                            assertEquals(expected.getRawRowList(), actual.getRawRowList(), scenario + ", " + sheetName);
+
+                            KeelSheetMatrix single = reader.readSheetToMatrix(reader.getSheetNames().indexOf(sheetName), headerRowIndex, maxColumns, filter);
+                            assertEquals(expected.getRawRowList(), single.getRawRowList(), scenario + ", " + sheetName);
+                        }
+                    }
+                }
+            }
+            // 自动检测的列数止于表头中的第一个空白单元格
+            Map<String, KeelSheetMatrix> detected = reader.readSheetsToMatrices(sheetNames, 3, 2, 0, null);
+            assertEquals(List.of("col0", "col1", "col2", "col3", "col4"), detected.get("sheet2").getHeaderRow());
+            assertEquals(List.of("col0", "col1", "col2"), detected.get("sheet0").getHeaderRow());
+            assertThrows(IllegalArgumentException.class, () -> reader.readSheetsToMatrices(List.of("missing"), 2, 0, 0, null));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testFailingSheetCancelsOtherSheets() throws IOException {
+        int rows = 1_000;
+        int blockedAtRow = 10;
+        Path file;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            for (int s = 0; s < 3; s++) {
+                Sheet sheet = workbook.createSheet("sheet" + s);
+                for (int r = 0; r < rows; r++) {
+                    sheet.createRow(r).createCell(0).setCellValue(r);
+                }
+            }
+            file = write(workbook);
+        }
+        try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+            IllegalStateException failure = new IllegalStateException("broken handler");
+            AtomicInteger[] rowsRead = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+            CountDownLatch othersBlocked = new CountDownLatch(2);
+            CountDownLatch neverReleased = new CountDownLatch(1);
+            AtomicInteger interruptedSheets = new AtomicInteger();
+            IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> reader.readSheetsInParallel(List.of(0, 1, 2), 3, sheetIndex -> new KeelSheetEventHandler() {
+                @Override
+                public void handleCell(KeelSheetCellEvent cell) {
+                    if (sheetIndex == 0) {
+                        // 等其余工作表都停在读取中途后再失败
+                        try {
+                            assertTrue(othersBlocked.await(10, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw failure;
+                    }
+                }
+
+                @Override
+                public void handleRowEnd(int rowIndex) {
+                    if (sheetIndex != 0 && rowsRead[sheetIndex].incrementAndGet() == blockedAtRow) {
+                        othersBlocked.countDown();
+                        // 只有取消时的中断能提前结束等待；超时后会继续读完全部行
+                        try {
+                            neverReleased.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            interruptedSheets.incrementAndGet();
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            }));
+            assertSame(failure, thrown);
+
+            // 方法等待所有工作线程结束后才抛出，此时其余工作表都已被中断，且被中断之后不再有事件
+            assertEquals(2, interruptedSheets.get());
+            assertEquals(blockedAtRow, rowsRead[1].get());
+            assertEquals(blockedAtRow, rowsRead[2].get());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
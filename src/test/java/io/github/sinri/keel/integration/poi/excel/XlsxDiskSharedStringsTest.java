@@ -0,0 +1,222 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.sinri.keel.integration.poi.excel.XlsxTestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class XlsxDiskSharedStringsTest extends KeelJUnit5Test {
+
+    public XlsxDiskSharedStringsTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static List<String> sampleStrings() {
+        return List.of(
+                "ascii",
+                "",
+                "中文字符串",
+                "emoji 😀 surrogate",
+                "Ünïcödé ß",
+                "long " + "长".repeat(2000),
+                "last"
+        );
+    }
+
+    private static XlsxDiskSharedStrings load(List<String> strings, int cacheSize) throws IOException {
+        return load(strings, cacheSize, XlsxDiskSharedStrings.DEFAULT_SEGMENT_SIZE);
+    }
+
+    private static XlsxDiskSharedStrings load(List<String> strings, int cacheSize, int segmentSize) throws IOException {
+        StringBuilder xml = new StringBuilder("<sst xmlns=\"" + SPREADSHEET_NAMESPACE + "\">");
+        for (String s : strings) {
+            xml.append("<si><t xml:space=\"preserve\">").append(s).append("</t></si>");
+        }
+        xml.append("</sst>");
+        return XlsxDiskSharedStrings.load(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8)), cacheSize, segmentSize);
+    }
+
+    private static Set<Path> sstTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(p -> p.getFileName().toString().startsWith("keel-sst-")).collect(Collectors.toSet());
+        }
+    }
+
+    @Test
+    void testReadsAllStringsIncludingLast() throws IOException {
+        List<String> strings = sampleStrings();
+        try (XlsxDiskSharedStrings sharedStrings = load(strings, 2)) {
+            assertEquals(strings.size(), sharedStrings.size());
+            // 多次乱序读取，使字符串反复被逐出与重新读取
+            for (int round = 0; round < 3; round++) {
+                for (int i = strings.size() - 1; i >= 0; i--) {
+                    assertEquals(strings.get(i), sharedStrings.get(i), "index " + i);
+                }
+                for (int i = 0; i < strings.size(); i += 2) {
+                    assertEquals(strings.get(i), sharedStrings.get(i), "index " + i);
+                }
+            }
+            // 最后一个字符串的结束位置来自索引文件末尾追加的总长度
+            assertEquals("last", sharedStrings.get(strings.size() - 1));
+        }
+    }
+
+    @Test
+    void testOutOfRangeIndexes() throws IOException {
+        try (XlsxDiskSharedStrings sharedStrings = load(sampleStrings(), 4)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> sharedStrings.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> sharedStrings.get(sharedStrings.size()));
+            assertThrows(IndexOutOfBoundsException.class, () -> sharedStrings.get(Integer.MAX_VALUE));
+        }
+        try (XlsxDiskSharedStrings empty = load(List.of(), 4)) {
+            assertEquals(0, empty.size());
+            assertThrows(IndexOutOfBoundsException.class, () -> empty.get(0));
+        }
+        assertThrows(IllegalArgumentException.class, () -> load(sampleStrings(), 0));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() throws IOException {
+        try (XlsxDiskSharedStrings sharedStrings = load(List.of("a", "b", "c", "d"), 2)) {
+            String a = sharedStrings.get(0);
+            String b = sharedStrings.get(1);
+            // 缓存命中时返回同一个实例；读取 a 使其成为最近使用的
+            assertSame(a, sharedStrings.get(0));
+            // 读取 c 时逐出最久未使用的 b
+            String c = sharedStrings.get(2);
+            assertSame(a, sharedStrings.get(0));
+            assertSame(c, sharedStrings.get(2));
+            String b2 = sharedStrings.get(1);
+            assertEquals(b, b2);
+            assertNotSame(b, b2);
+            // 再读取 b 时逐出了 a
+            assertNotSame(a, sharedStrings.get(0));
+        }
+    }
+
+    @Test
+    void testConcurrentReadsAcrossSegments() throws Exception {
+        List<String> strings = new ArrayList<>(sampleStrings());
+        for (int i = 0; i < 3000; i++) {
+            strings.add("值 " + i + "😀".repeat(i % 5));
+        }
+        // 很小的映射段使字符串跨段，偏移量位于多个索引段中；缓存远小于字符串数量且分为多段
+        try (XlsxDiskSharedStrings sharedStrings = load(strings, 300, 24)) {
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Callable<Integer>> tasks = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long seed = t;
+                    tasks.add(() -> {
+                        Random random = new Random(seed);
+                        for (int n = 0; n < 20000; n++) {
+                            int i = random.nextInt(strings.size());
+                            assertEquals(strings.get(i), sharedStrings.get(i), "index " + i);
+                        }
+                        return 20000;
+                    });
+                }
+                for (var result : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                    assertEquals(20000, result.get());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> load(sampleStrings(), 4, 12));
+    }
+
+    @Test
+    void testTempFilesDeletedOnClose() throws IOException {
+        Set<Path> before = sstTempFiles();
+        XlsxDiskSharedStrings sharedStrings = load(sampleStrings(), 2);
+        Set<Path> created = sstTempFiles();
+        created.removeAll(before);
+        assertEquals(2, created.size(), created.toString());
+        assertEquals("中文字符串", sharedStrings.get(2));
+
+        sharedStrings.close();
+        for (Path file : created) {
+            assertFalse(Files.exists(file), file.toString());
+        }
+        assertThrows(IllegalStateException.class, () -> sharedStrings.get(2));
+    }
+
+    @Test
+    void testEventReaderWithDiskBackedSharedStrings() throws IOException {
+        Path file;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("strings");
+            for (int i = 0; i < 500; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("值 " + i);
+                row.createCell(1).setCellValue("值 " + (i % 7));
+            }
+            file = write(workbook);
+        }
+        try {
+            List<String> heap = new ArrayList<>();
+            try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()))) {
+                reader.readSheet(0, cell -> heap.add(describe(cell)));
+            }
+            Set<Path> before = sstTempFiles();
+            List<String> disk = new ArrayList<>();
+            try (KeelSheetsEventReader reader = KeelSheetsEventReader.open(new SheetsOpenOptions().setFile(file.toFile()).setDiskBackedSharedStrings(8))) {
+                reader.readSheet(0, cell -> disk.add(describe(cell)));
+            }
+            assertEquals(heap, disk);
+            assertEquals(before, sstTempFiles());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testUseSheetsRejectsDiskBackedSharedStrings() throws IOException {
+        Path file;
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("strings").createRow(0).createCell(0).setCellValue("a");
+            file = write(workbook);
+        }
+        try {
+            // 标准读取与超大 XLSX 流式读取都不会静默忽略缓存大小
+            for (SheetsOpenOptions options : List.of(
+                    new SheetsOpenOptions().setFile(file.toFile()).setDiskBackedSharedStrings(8),
+                    new SheetsOpenOptions().setFile(file.toFile()).setDiskBackedSharedStrings(8)
+                                           .setHugeXlsxStreamingReaderBuilder(builder -> {
+                                           })
+            )) {
+                Future<String> future = KeelSheets.useSheets(options, sheets -> Future.succeededFuture("opened"));
+                assertTrue(future.failed());
+                assertInstanceOf(IllegalArgumentException.class, future.cause());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
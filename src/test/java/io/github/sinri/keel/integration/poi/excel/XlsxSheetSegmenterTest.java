@@ -0,0 +1,172 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import io.github.sinri.keel.tesuto.KeelJUnit5Test;
+import io.vertx.core.Vertx;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.sinri.keel.integration.poi.excel.XlsxTestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@NullMarked
+class XlsxSheetSegmenterTest extends KeelJUnit5Test {
+    private static final String ROOT_START_TAG = "<x:worksheet xmlns:x=\"" + SPREADSHEET_NAMESPACE + "\" xmlns:mc=\"urn:mc\" mc:Ignorable=\"x14ac\">";
+
+    public XlsxSheetSegmenterTest(Vertx vertx) {
+        super(vertx);
+    }
+
+    private static XlsxSheetSegmenter open(String xml, Charset charset, int segmentSize) throws IOException {
+        return XlsxSheetSegmenter.open(new ByteArrayInputStream(xml.getBytes(charset)), segmentSize);
+    }
+
+    private static List<String> segments(String xml, int segmentSize) throws IOException {
+        XlsxSheetSegmenter segmenter = open(xml, StandardCharsets.UTF_8, segmentSize);
+        assertTrue(segmenter.isSupported());
+        List<String> segments = new ArrayList<>();
+        for (byte[] segment = segmenter.nextSegment(); segment != null; segment = segmenter.nextSegment()) {
+            segments.add(new String(segment, StandardCharsets.UTF_8));
+        }
+        return segments;
+    }
+
+    private static int countRows(String body) {
+        int count = 0;
+        for (int i = body.indexOf("<x:row"); i >= 0; i = body.indexOf("<x:row", i + 1)) {
+            char next = body.charAt(i + "<x:row".length());
+            if (next == ' ' || next == '>' || next == '/') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testSegmentsCoverRowsWithinSize() throws IOException {
+        StringBuilder rows = new StringBuilder("\n");
+        for (int r = 1; r <= 40; r++) {
+            rows.append(r % 5 == 0 ? "<x:row>" : "<x:row r=\"" + r + "\">")
+                .append("<x:c t=\"inlineStr\"><x:is><x:t>文本 &lt;x:row&gt; ").append(r).append("</x:t></x:is></x:c>")
+                .append("</x:row>\n");
+            if (r == 20) {
+                // 远大于片段的一行与空行
+                rows.append("<x:row r=\"21\">").append("<x:c><x:v>1</x:v></x:c>".repeat(500)).append("</x:row><x:row/>");
+            }
+        }
+        String body = rows.toString();
+        String xml = "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n<!-- <x:row> in comment -->"
+                + ROOT_START_TAG + "<x:dimension ref=\"A1:A40\"/><x:sheetData>" + body
+                + "</x:sheetData><x:rowBreaks count=\"0\"/></x:worksheet>";
+
+        for (int segmentSize : new int[]{1, 2, 17, 64, 100, 333, 1000, 20000, 1 << 20}) {
+            List<String> segments = segments(xml, segmentSize);
+            StringBuilder joined = new StringBuilder();
+            for (String segment : segments) {
+                assertTrue(segment.startsWith(ROOT_START_TAG), segment);
+                assertTrue(segment.endsWith("</x:worksheet>"), segment);
+                String segmentBody = segment.substring(ROOT_START_TAG.length(), segment.length() - "</x:worksheet>".length());
+                int rowCount = countRows(segmentBody);
+                assertTrue(rowCount == 1 || segmentBody.getBytes(StandardCharsets.UTF_8).length <= segmentSize,
+                        "segment size " + segmentSize + ": " + segmentBody);
+                joined.append(segmentBody);
+            }
+            assertEquals(body, joined.toString(), "segment size " + segmentSize);
+            if (segmentSize < 64) {
+                // 每行一个片段
+                assertEquals(42, segments.size());
+            } else if (segmentSize == 1 << 20) {
+                assertEquals(1, segments.size());
+            }
+        }
+    }
+
+    @Test
+    void testSheetsWithoutRows() throws IOException {
+        String[] sheets = {
+                "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\"><sheetData/></worksheet>",
+                "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\"><sheetData></sheetData></worksheet>",
+                "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\"><sheetPr/></worksheet>",
+                "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\"/>"
+        };
+        for (String xml : sheets) {
+            assertEquals(List.of(), segments(xml, 1), xml);
+        }
+        assertThrows(IOException.class, () -> segments("<worksheet><sheetData><row r=\"1\">", 1));
+        assertThrows(IOException.class, () -> segments("", 1));
+    }
+
+    @Test
+    void testUnsupportedEncodings() throws IOException {
+        String body = "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\"><sheetData><row r=\"1\"/></sheetData></worksheet>";
+        assertFalse(open("\uFEFF" + body, StandardCharsets.UTF_16LE, 16).isSupported());
+        assertFalse(open("\uFEFF" + body, StandardCharsets.UTF_16BE, 16).isSupported());
+        assertFalse(open(body, StandardCharsets.UTF_16LE, 16).isSupported());
+        assertFalse(open("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" + body, StandardCharsets.ISO_8859_1, 16).isSupported());
+        assertFalse(open("<?xml version='1.0' encoding='GB18030'?>" + body, Charset.forName("GB18030"), 16).isSupported());
+
+        assertTrue(open("<?xml version='1.0' encoding='utf8'?>" + body, StandardCharsets.UTF_8, 16).isSupported());
+        assertTrue(open("<?xml version=\"1.0\"?>" + body, StandardCharsets.UTF_8, 16).isSupported());
+        assertTrue(open(body, StandardCharsets.UTF_8, 16).isSupported());
+    }
+
+    @Test
+    void testRecordingReplaysImplicitRowsAfterPreviousSegments() throws IOException {
+        XlsxSharedStrings sharedStrings = XlsxSharedStrings.load(new ByteArrayInputStream(
+                ("<sst xmlns=\"" + SPREADSHEET_NAMESPACE + "\"><si><t>shared</t></si></sst>").getBytes(StandardCharsets.UTF_8)));
+        String segment = "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\">"
+                + "<row><c t=\"s\"><v>0</v></c><c t=\"inlineStr\"><is><t>a_x0009_b</t></is></c></row>"
+                + "<row/>"
+                + "<row r=\"9\"><c r=\"C9\"><v>2.5</v></c></row>"
+                + "<row><c t=\"b\"><v>1</v></c></row>"
+                + "</worksheet>";
+        XlsxSheetParser parser = new XlsxSheetParser(sharedStrings, new boolean[0], false);
+        XlsxSheetSegmentRecording recording = new XlsxSheetSegmentRecording();
+        parser.parse(new ByteArrayInputStream(segment.getBytes(StandardCharsets.UTF_8)), recording);
+        assertEquals(2, parser.getImplicitLeadingRowCount());
+        recording.setImplicitLeadingRowCount(parser.getImplicitLeadingRowCount());
+
+        // 同一记录可以多次重放；只有开头没有 r 属性的行加上之前的行数
+        for (int lastRowIndex : new int[]{-1, 4}) {
+            Recorder recorder = new Recorder();
+            List<Object> sharedInstances = new ArrayList<>();
+            int last = recording.replay(new KeelSheetEventHandler() {
+                @Override
+                public void handleCell(KeelSheetCellEvent cell) {
+                    if (cell.getText() instanceof String s) {
+                        sharedInstances.add(s);
+                    }
+                    recorder.handleCell(cell);
+                }
+
+                @Override
+                public void handleRowEnd(int rowIndex) {
+                    recorder.handleRowEnd(rowIndex);
+                }
+            }, new KeelSheetCellEvent(false), lastRowIndex);
+            int first = lastRowIndex + 1;
+            assertEquals(List.of(
+                    first + ",0 STRING shared",
+                    first + ",1 STRING a\tb",
+                    "end " + first,
+                    "end " + (first + 1),
+                    "8,2 NUMERIC 2.5",
+                    "end 8",
+                    "9,0 BOOLEAN true",
+                    "end 9"
+            ), recorder.events);
+            assertEquals(9, last);
+            // 共享字符串以共享字符串表中的实例重放
+            assertSame(sharedStrings.get(0), sharedInstances.get(0));
+        }
+
+        XlsxSheetSegmentRecording empty = new XlsxSheetSegmentRecording();
+        assertEquals(4, empty.replay(new Recorder(), new KeelSheetCellEvent(false), 4));
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.sinri.keel.integration.poi.excel;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 测试用的 XLSX 文件工具：先用 POI 写出工作簿，再按需改写其中的部件，
+ * 以构造 POI 不会主动写出的 XML（内联字符串、注音、转义、省略的行号等）。
+ */
+@NullMarked
+final class XlsxTestFiles {
+    static final String SPREADSHEET_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private XlsxTestFiles() {
+    }
+
+    /**
+     * 把工作簿写入临时文件，调用方负责删除。
+     */
+    static Path write(Workbook workbook) throws IOException {
+        Path file = Files.createTempFile("keel-xlsx-test", ".xlsx");
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            workbook.write(outputStream);
+        }
+        return file;
+    }
+
+    /**
+     * 以 UTF-8 文本改写 XLSX 文件中的部件，例如 {@code xl/worksheets/sheet1.xml}。
+     */
+    static void rewriteParts(Path file, Map<String, UnaryOperator<String>> rewriters) throws IOException {
+        Path rewritten = Files.createTempFile("keel-xlsx-test", ".xlsx");
+        try (ZipFile zipFile = new ZipFile(file.toFile());
+             ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(rewritten))) {
+            List<? extends ZipEntry> entries = new ArrayList<>(zipFile.stream().toList());
+            for (ZipEntry entry : entries) {
+                byte[] data;
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    data = in.readAllBytes();
+                }
+                var rewriter = rewriters.get(entry.getName());
+                if (rewriter != null) {
+                    data = rewriter.apply(new String(data, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                out.write(data);
+                out.closeEntry();
+            }
+        }
+        Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 以给定的 {@code sheetData} 内容替换整个工作表 XML。
+     */
+    static UnaryOperator<String> sheetData(String rows) {
+        return xml -> "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<worksheet xmlns=\"" + SPREADSHEET_NAMESPACE + "\"><sheetData>" + rows + "</sheetData></worksheet>";
+    }
+
+    /**
+     * 在共享字符串表末尾追加若干 {@code si} 元素，并更新计数。
+     *
+     * @param items 追加的 {@code si} 元素
+     */
+    static UnaryOperator<String> appendSharedStrings(String... items) {
+        return xml -> {
+            int existing = countSharedStrings(xml);
+            String body = xml.replace("</sst>", String.join("", items) + "</sst>");
+            return body.replaceFirst("count=\"\\d+\"", "count=\"" + (existing + items.length) + "\"")
+                       .replaceFirst("uniqueCount=\"\\d+\"", "uniqueCount=\"" + (existing + items.length) + "\"");
+        };
+    }
+
+    static int countSharedStrings(String sstXml) {
+        int count = 0;
+        for (int i = sstXml.indexOf("<si>"); i >= 0; i = sstXml.indexOf("<si>", i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 以 POI 用户模型读取工作表的全部单元格，描述为与 {@link #describe(KeelSheetCellEvent)} 相同格式的文本，
+     * 空白单元格不计入；每行结束时追加 {@code end <行索引>}。
+     */
+    static List<String> describeWithKeelSheet(Path file, int sheetIndex) throws IOException {
+        List<String> descriptions = new ArrayList<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(file.toFile())) {
+            KeelSheet keelSheet = new KeelSheet(KeelSheetsReaderType.XLSX, workbook.getSheetAt(sheetIndex));
+            keelSheet.readAllTypedRows(0, row -> {
+                for (int i = 0; i < row.size(); i++) {
+                    CellType type = row.getType(i);
+                    String value = switch (type) {
+                        case NUMERIC -> row.isDate(i) ? "date " + row.getLocalDateTime(i) : String.valueOf(row.getDouble(i));
+                        case BOOLEAN -> String.valueOf(row.getBoolean(i));
+                        case STRING, ERROR -> row.getString(i);
+                        default -> null;
+                    };
+                    if (value != null) {
+                        descriptions.add(row.getRowIndex() + "," + i + " " + type + " " + value);
+                    }
+                }
+                descriptions.add("end " + row.getRowIndex());
+            });
+        } catch (InvalidFormatException e) {
+            throw new IOException(e);
+        }
+        return descriptions;
+    }
+
+    /**
+     * 把单元格事件描述为文本，格式与 {@link #describeWithKeelSheet(Path, int)} 相同。
+     */
+    static String describe(KeelSheetCellEvent cell) {
+        String value = switch (cell.getType()) {
+            case NUMERIC -> cell.isDate() ? "date " + cell.getLocalDateTime() : String.valueOf(cell.getDouble());
+            case BOOLEAN -> String.valueOf(cell.getBoolean());
+            default -> cell.getString();
+        };
+        return cell.getRowIndex() + "," + cell.getColumnIndex() + " " + cell.getType() + " " + value;
+    }
+
+    /**
+     * 把事件描述为文本并依次收集的事件回调。
+     */
+    static final class Recorder implements KeelSheetEventHandler {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void handleCell(KeelSheetCellEvent cell) {
+            events.add(describe(cell));
+        }
+
+        @Override
+        public void handleRowEnd(int rowIndex) {
+            events.add("end " + rowIndex);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.sinri.keel.integration.poi.csv.vector;
+
+import io.github.sinri.keel.integration.poi.csv.spi.CsvStructuralIndexer;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * 基于 {@code jdk.incubator.vector} 的 CSV 结构字节索引器。
+ * <p>
+ * 以平台首选的向量宽度（16、32 或 64 字节）一次比较多个字节，合并为 64 位的结构字节位图。
+ * 运行时需要启用 {@code jdk.incubator.vector} 模块（{@code --add-modules jdk.incubator.vector}），
+ * 否则加载失败，解析器自动退回逐字节扫描。
+ *
+ * @since 5.0.0
+ */
+@NullMarked
+public final class VectorCsvStructuralIndexer implements CsvStructuralIndexer {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean isAvailable() {
+        // 向量宽度不足 128 位时通常没有对应的硬件指令，逐字节扫描反而更快
+        return SPECIES.vectorBitSize() >= 128 && BLOCK_SIZE % SPECIES.length() == 0;
+    }
+
+    @Override
+    public long structuralMask(byte[] bytes, int offset, byte separator) {
+        long mask = 0;
+        for (int i = 0; i < BLOCK_SIZE; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, bytes, offset + i);
+            VectorMask<Byte> hits = v.compare(VectorOperators.EQ, (byte) '"')
+                                     .or(v.compare(VectorOperators.EQ, separator))
+                                     .or(v.compare(VectorOperators.EQ, (byte) '\n'))
+                                     .or(v.compare(VectorOperators.EQ, (byte) '\r'));
+            mask |= hits.toLong() << i;
+        }
+        return mask;
+    }
+}
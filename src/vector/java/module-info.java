@@ -0,0 +1,8 @@
+module io.github.sinri.keel.integration.poi.vector {
+    requires io.github.sinri.keel.integration.poi;
+    requires jdk.incubator.vector;
+    requires static org.jspecify;
+
+    provides io.github.sinri.keel.integration.poi.csv.spi.CsvStructuralIndexer
+            with io.github.sinri.keel.integration.poi.csv.vector.VectorCsvStructuralIndexer;
+}